@@ -0,0 +1,168 @@
+package com.stayease.backend.bench;
+
+import com.stayease.backend.StayEaseApplication;
+import com.stayease.backend.repository.HotelRepository;
+import com.stayease.backend.repository.StatsCounterRepository;
+import com.stayease.backend.service.impl.DashboardProjector;
+import com.stayease.backend.service.impl.LocationSearchIndex;
+import com.stayease.backend.service.impl.RoomAvailabilityIndex;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * One Spring context per benchmark JVM, backed by an in-memory H2 database seeded
+ * through JDBC batches (JPA would take minutes at these sizes). Sizes come from
+ * system properties so quick local runs can use a smaller catalog:
+ * bench.hotels (10000), bench.roomsPerHotel (5), bench.bookings (500000).
+ */
+public final class BenchmarkContext {
+
+    static final int HOTELS = Integer.getInteger("bench.hotels", 10_000);
+    static final int ROOMS_PER_HOTEL = Integer.getInteger("bench.roomsPerHotel", 5);
+    static final int BOOKINGS = Integer.getInteger("bench.bookings", 500_000);
+    static final int USERS = 1_000;
+
+    static final String[] CITIES = {
+            "Patna", "Goa", "Delhi", "Mumbai", "Bangalore", "Jaipur", "Kochi", "Chennai", "Kolkata", "Hyderabad",
+            "Pune", "Ahmedabad", "Lucknow", "Varanasi", "Agra", "Udaipur", "Shimla", "Manali", "Rishikesh", "Mysore",
+            "Ooty", "Darjeeling", "Gangtok", "Amritsar", "Indore", "Bhopal", "Nagpur", "Surat", "Vadodara", "Ranchi",
+            "Guwahati", "Shillong", "Puri", "Bhubaneswar", "Madurai", "Pondicherry", "Alleppey", "Munnar", "Leh", "Srinagar"
+    };
+    static final String[] ROOM_TYPES = {"Standard", "Deluxe", "Executive", "Suite", "Family"};
+
+    private static final int BATCH = 5_000;
+    private static ConfigurableApplicationContext context;
+    private static List<Long> hotelIds;
+    private static List<long[]> rooms; // {roomId, hotelId}
+    private static List<Long> userIds;
+
+    private BenchmarkContext() {
+    }
+
+    public static synchronized ConfigurableApplicationContext get() {
+        if (context == null) {
+            context = new SpringApplicationBuilder(StayEaseApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run("--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                            "--spring.datasource.driver-class-name=org.h2.Driver",
+                            "--spring.datasource.username=sa",
+                            "--spring.datasource.password=",
+                            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                            "--spring.jpa.hibernate.ddl-auto=create",
+                            "--spring.jpa.show-sql=false",
+                            "--stayease.jwt.secret=benchmark-secret-benchmark-secret",
+                            "--stayease.jwt.expirationMs=86400000",
+                            "--razorpay.key.id=rzp_bench",
+                            "--razorpay.key.secret=bench");
+            seed(context.getBean(JdbcTemplate.class));
+            context.getBean(HotelRepository.class).refreshAllRoomStats();
+            context.getBean(LocationSearchIndex.class).rebuild();
+            context.getBean(RoomAvailabilityIndex.class).rebuild();
+            // startup seeded the dashboard counters from an empty database
+            context.getBean(StatsCounterRepository.class).deleteAll();
+            context.getBean(DashboardProjector.class).load();
+        }
+        return context;
+    }
+
+    public static <T> T bean(Class<T> type) {
+        return get().getBean(type);
+    }
+
+    static List<Long> hotelIds() {
+        get();
+        return hotelIds;
+    }
+
+    static List<long[]> rooms() {
+        get();
+        return rooms;
+    }
+
+    static List<Long> userIds() {
+        get();
+        return userIds;
+    }
+
+    private static void seed(JdbcTemplate jdbc) {
+        SplittableRandom random = new SplittableRandom(42);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        long started = System.currentTimeMillis();
+
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(new Object[]{"Bench User " + i, "bench" + i + "@stayease.com", "bench" + i, "x", "USER", now});
+        }
+        batch(jdbc, "INSERT INTO users (full_name, email, username, password, role, created_at) VALUES (?, ?, ?, ?, ?, ?)", users);
+        userIds = jdbc.queryForList("SELECT id FROM users WHERE username LIKE 'bench%' ORDER BY id", Long.class);
+
+        List<Object[]> hotels = new ArrayList<>();
+        for (int i = 0; i < HOTELS; i++) {
+            String city = CITIES[i % CITIES.length];
+            hotels.add(new Object[]{"Bench Hotel " + i, (i % 200) + " Station Road", city, city + " State",
+                    String.valueOf(100000 + random.nextInt(800000)), 3.0 + random.nextInt(21) / 10.0, 0, now, now});
+        }
+        batch(jdbc, "INSERT INTO hotels (name, address, city, state, pincode, rating, total_reviews, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", hotels);
+        hotelIds = jdbc.queryForList("SELECT id FROM hotels WHERE name LIKE 'Bench Hotel%' ORDER BY id", Long.class);
+
+        List<Object[]> roomRows = new ArrayList<>();
+        for (Long hotelId : hotelIds) {
+            for (int r = 0; r < ROOMS_PER_HOTEL; r++) {
+                roomRows.add(new Object[]{String.valueOf(101 + r), ROOM_TYPES[r % ROOM_TYPES.length],
+                        1500.0 + random.nextInt(90) * 100, 1 + random.nextInt(4), 250 + random.nextInt(400), true, hotelId});
+            }
+        }
+        batch(jdbc, "INSERT INTO rooms (room_number, type, price_per_night, capacity, size, available, hotel_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", roomRows);
+        rooms = jdbc.query("SELECT r.id, r.hotel_id FROM rooms r JOIN hotels h ON h.id = r.hotel_id " +
+                        "WHERE h.name LIKE 'Bench Hotel%' ORDER BY r.id",
+                (rs, n) -> new long[]{rs.getLong(1), rs.getLong(2)});
+
+        // non-overlapping stays per room, spread from two months ago to about a year out
+        int perRoom = Math.max(1, BOOKINGS / rooms.size());
+        LocalDate today = LocalDate.now();
+        List<Object[]> bookings = new ArrayList<>(BATCH);
+        int written = 0;
+        for (long[] room : rooms) {
+            LocalDate cursor = today.minusDays(60);
+            for (int b = 0; b < perRoom && written < BOOKINGS; b++, written++) {
+                LocalDate checkIn = cursor.plusDays(random.nextInt(30));
+                LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(5));
+                cursor = checkOut;
+                int roll = random.nextInt(10);
+                String status = roll < 7 ? "CONFIRMED" : roll < 9 ? "CANCELLED" : checkOut.isBefore(today) ? "COMPLETED" : "PENDING";
+                bookings.add(new Object[]{userIds.get(random.nextInt(userIds.size())), room[1], room[0],
+                        Date.valueOf(checkIn), Date.valueOf(checkOut), 2, 4000.0, status, now, now});
+                if (bookings.size() == BATCH) {
+                    insertBookings(jdbc, bookings);
+                    bookings.clear();
+                }
+            }
+        }
+        insertBookings(jdbc, bookings);
+
+        System.out.println("📊 Benchmark data: " + hotelIds.size() + " hotels, " + rooms.size() + " rooms, "
+                + written + " bookings in " + (System.currentTimeMillis() - started) + " ms");
+    }
+
+    private static void insertBookings(JdbcTemplate jdbc, List<Object[]> rows) {
+        batch(jdbc, "INSERT INTO bookings (user_id, hotel_id, room_id, check_in, check_out, guests, total_amount, status, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private static void batch(JdbcTemplate jdbc, String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH) {
+            jdbc.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH, rows.size())));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.stayease.backend.bench;
+
+import com.stayease.backend.dto.BookingRequest;
+import com.stayease.backend.model.Booking;
+import com.stayease.backend.service.BookingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Booking creation. Every invocation gets its own room and stay, past the seeded
+ * bookings, so the benchmark measures the happy path rather than conflict errors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookingBenchmark {
+
+    private BookingService bookingService;
+    private List<long[]> rooms;
+    private List<Long> userIds;
+    private LocalDate firstNight;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bookingService = BenchmarkContext.bean(BookingService.class);
+        rooms = BenchmarkContext.rooms();
+        userIds = BenchmarkContext.userIds();
+        firstNight = LocalDate.now().plusYears(2);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Booking createBooking() {
+        long n = sequence.getAndIncrement();
+        long[] room = rooms.get((int) (n % rooms.size()));
+        LocalDate checkIn = firstNight.plusDays((n / rooms.size()) * 2);
+
+        BookingRequest req = new BookingRequest();
+        req.setHotelId(room[1]);
+        req.setRoomId(room[0]);
+        req.setCheckIn(checkIn);
+        req.setCheckOut(checkIn.plusDays(2));
+        req.setGuests(1);
+        req.setTotalAmount(4000.0);
+        req.setGuestName("Bench Guest");
+        return bookingService.createBooking(userIds.get((int) (n % userIds.size())), req);
+    }
+}
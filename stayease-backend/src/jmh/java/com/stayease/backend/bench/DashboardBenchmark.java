@@ -0,0 +1,31 @@
+package com.stayease.backend.bench;
+
+import com.stayease.backend.dto.DashboardStatsDTO;
+import com.stayease.backend.service.DashboardStatsService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admin dashboard totals. Run at two table sizes with the GC profiler to check the
+ * allocation per call stays flat as bookings grow:
+ *   -Dbench.args="DashboardBenchmark -f 1 -wi 2 -i 3 -prof gc -jvmArgs -Dbench.bookings=10000"
+ *   -Dbench.args="DashboardBenchmark -f 1 -wi 2 -i 3 -prof gc -jvmArgs -Dbench.bookings=1000000"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DashboardBenchmark {
+
+    private DashboardStatsService dashboardStatsService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dashboardStatsService = BenchmarkContext.bean(DashboardStatsService.class);
+    }
+
+    @Benchmark
+    public DashboardStatsDTO dashboardStats() {
+        return dashboardStatsService.getDashboardStats();
+    }
+}
@@ -0,0 +1,56 @@
+package com.stayease.backend.bench;
+
+import com.stayease.backend.dto.HotelResponseDTO;
+import com.stayease.backend.model.Hotel;
+import com.stayease.backend.repository.HotelRepository;
+import com.stayease.backend.service.HotelReadService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hotel to DTO mapping for a page of hotels, with and without rooms, as done by
+ * the catalog and search endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HotelMappingBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    @Param({"false", "true"})
+    public boolean withRooms;
+
+    private HotelReadService hotelReadService;
+    private HotelRepository hotelRepository;
+    private TransactionTemplate transactions;
+    private List<Long> hotelIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        hotelReadService = BenchmarkContext.bean(HotelReadService.class);
+        hotelRepository = BenchmarkContext.bean(HotelRepository.class);
+        transactions = BenchmarkContext.bean(TransactionTemplate.class);
+        hotelIds = BenchmarkContext.hotelIds();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Benchmark
+    public List<HotelResponseDTO> toHotelDTOs(Cursor cursor) {
+        int from = cursor.random.nextInt(hotelIds.size() - pageSize);
+        List<Long> ids = hotelIds.subList(from, from + pageSize);
+        return transactions.execute(status -> {
+            List<Hotel> hotels = hotelRepository.findAllById(ids);
+            return hotelReadService.toHotelDTOs(hotels, withRooms);
+        });
+    }
+}
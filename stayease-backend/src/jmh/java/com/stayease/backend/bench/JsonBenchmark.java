@@ -0,0 +1,107 @@
+package com.stayease.backend.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.stayease.backend.dto.HotelResponseDTO;
+import com.stayease.backend.dto.RoomResponseDTO;
+import com.stayease.backend.model.Booking;
+import com.stayease.backend.model.BookingStatus;
+import com.stayease.backend.model.Hotel;
+import com.stayease.backend.model.Room;
+import com.stayease.backend.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response serialization with the same ObjectMapper settings as JacksonConfig,
+ * for a booking entity and a hotel DTO with rooms. No Spring context needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Booking booking;
+    private HotelResponseDTO hotel;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+        objectMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        objectMapper.registerModule(new JavaTimeModule());
+
+        User user = new User();
+        user.setId(1L);
+        user.setFullName("Bench User");
+        user.setEmail("bench@stayease.com");
+        user.setUsername("bench");
+
+        Hotel bookedHotel = new Hotel();
+        bookedHotel.setId(1L);
+        bookedHotel.setName("Bench Hotel");
+        bookedHotel.setCity("Patna");
+
+        Room room = new Room();
+        room.setId(1L);
+        room.setRoomNumber("101");
+        room.setType("Deluxe");
+        room.setPricePerNight(3500.0);
+
+        booking = new Booking();
+        booking.setId(1L);
+        booking.setUser(user);
+        booking.setHotel(bookedHotel);
+        booking.setRoom(room);
+        booking.setCheckIn(LocalDate.now().plusDays(7));
+        booking.setCheckOut(LocalDate.now().plusDays(9));
+        booking.setGuests(2);
+        booking.setTotalAmount(7000.0);
+        booking.setStatus(BookingStatus.CONFIRMED);
+        booking.setGuestName("Bench Guest");
+        booking.setCreatedAt(LocalDateTime.now());
+        booking.setUpdatedAt(LocalDateTime.now());
+
+        hotel = new HotelResponseDTO();
+        hotel.setId(1L);
+        hotel.setName("Bench Hotel");
+        hotel.setAddress("12 Station Road");
+        hotel.setCity("Patna");
+        hotel.setState("Bihar");
+        hotel.setPincode("800001");
+        hotel.setRating(4.3);
+        hotel.setAmenities(List.of("WiFi", "Parking", "Restaurant", "Pool"));
+        hotel.setImages(List.of("https://example.com/1.jpg", "https://example.com/2.jpg"));
+        List<RoomResponseDTO> rooms = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            RoomResponseDTO dto = new RoomResponseDTO();
+            dto.setId((long) i);
+            dto.setRoomNumber(String.valueOf(101 + i));
+            dto.setType("Deluxe");
+            dto.setPricePerNight(3000.0 + i * 250);
+            dto.setCapacity(2);
+            dto.setFeatures(List.of("AC", "TV"));
+            dto.setImages(List.of());
+            dto.setHotelId(1L);
+            rooms.add(dto);
+        }
+        hotel.setRooms(rooms);
+    }
+
+    @Benchmark
+    public byte[] serializeBooking() throws Exception {
+        return objectMapper.writeValueAsBytes(booking);
+    }
+
+    @Benchmark
+    public byte[] serializeHotel() throws Exception {
+        return objectMapper.writeValueAsBytes(hotel);
+    }
+}
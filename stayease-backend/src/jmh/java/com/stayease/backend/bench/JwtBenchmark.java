@@ -0,0 +1,51 @@
+package com.stayease.backend.bench;
+
+import com.stayease.backend.config.JwtUtils;
+import com.stayease.backend.config.JwtVerifier;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request token work done by JwtAuthFilter: the old validate-then-parse pair,
+ * and the single-parse verifier with and without its cache. No Spring context needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JwtBenchmark {
+
+    private JwtUtils jwtUtils;
+    private JwtVerifier verifier;
+    private JwtVerifier uncachedVerifier;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtUtils = new JwtUtils("benchmark-secret-benchmark-secret", 86_400_000L);
+        token = jwtUtils.generateToken("bench0", Set.of("ROLE_USER"));
+        verifier = new JwtVerifier(jwtUtils, 10_000);
+        uncachedVerifier = new JwtVerifier(jwtUtils, 0);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return jwtUtils.validate(token);
+    }
+
+    @Benchmark
+    public String validateAndGetUsername() {
+        return jwtUtils.validate(token) ? jwtUtils.getUsername(token) : null;
+    }
+
+    @Benchmark
+    public String verifyUncached() {
+        return uncachedVerifier.verify(token).getSubject();
+    }
+
+    @Benchmark
+    public String verifyCached() {
+        return verifier.verify(token).getSubject();
+    }
+}
@@ -0,0 +1,50 @@
+package com.stayease.backend.bench;
+
+import com.stayease.backend.config.RateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of RateLimiter.tryAcquire: four threads hammering one bucket
+ * (worst-case CAS contention) and spread over many clients. No Spring context needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class RateLimiterBenchmark {
+
+    private RateLimiter rateLimiter;
+    private String[] clients;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        rateLimiter = new RateLimiter(true, 2000, 2000, 2000, 2000, 2000, 2000, 10);
+        clients = new String[10_000];
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = "ip:10.0." + (i >> 8) + "." + (i & 255);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        rateLimiter.shutdown();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Benchmark
+    public RateLimiter.Decision sameClient() {
+        return rateLimiter.tryAcquire(RateLimiter.BOOKING, "user:1");
+    }
+
+    @Benchmark
+    public RateLimiter.Decision manyClients(Cursor cursor) {
+        return rateLimiter.tryAcquire(RateLimiter.BOOKING, clients[cursor.random.nextInt(clients.length)]);
+    }
+}
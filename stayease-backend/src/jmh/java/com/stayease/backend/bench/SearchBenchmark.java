@@ -0,0 +1,53 @@
+package com.stayease.backend.bench;
+
+import com.stayease.backend.dto.HotelAvailabilityDTO;
+import com.stayease.backend.model.Room;
+import com.stayease.backend.service.SearchService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Availability lookups: a single hotel's free rooms, and the location-wide search
+ * behind /api/search/availability.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchBenchmark {
+
+    @Param({"Patna", "Goa", "dehli"})
+    public String location;
+
+    private SearchService searchService;
+    private List<Long> hotelIds;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        searchService = BenchmarkContext.bean(SearchService.class);
+        hotelIds = BenchmarkContext.hotelIds();
+        checkIn = LocalDate.now().plusDays(14);
+        checkOut = checkIn.plusDays(3);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Benchmark
+    public List<Room> findAvailableRooms(Cursor cursor) {
+        Long hotelId = hotelIds.get(cursor.random.nextInt(hotelIds.size()));
+        return searchService.findAvailableRooms(hotelId, checkIn, checkOut);
+    }
+
+    @Benchmark
+    public List<HotelAvailabilityDTO> searchAvailability() {
+        return searchService.searchAvailability(location, checkIn, checkOut, 2);
+    }
+}
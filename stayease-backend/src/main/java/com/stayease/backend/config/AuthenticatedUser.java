@@ -0,0 +1,27 @@
+package com.stayease.backend.config;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Principal placed in the SecurityContext by JwtAuthFilter. Built from token
+ * claims, so controllers get the user id without a users table lookup.
+ */
+public record AuthenticatedUser(Long id, String username, Set<String> roles) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return roles.stream()
+                .map(role -> role.startsWith("ROLE_") ? role : "ROLE_" + role)
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+}
@@ -0,0 +1,86 @@
+package com.stayease.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stayease.backend.event.UserChangedEvent;
+import com.stayease.backend.model.User;
+import com.stayease.backend.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Turns verified token claims into an AuthenticatedUser.
+ *
+ * Tokens carry uid, subject and roles, so the principal needs no query. To bound
+ * how long a deleted user or a changed role keeps working on an old token, each
+ * user is re-read from the database at most once per recheck interval and that
+ * answer wins over the claims. Set stayease.jwt.recheckSeconds=0 to trust claims
+ * until the token expires. Tokens issued before uid existed always take the
+ * rechecked path.
+ */
+@Component
+public class AuthenticatedUserResolver {
+
+    private final UserRepository userRepository;
+    private final long recheckSeconds;
+    private final Cache<String, Optional<AuthenticatedUser>> rechecked;
+
+    public AuthenticatedUserResolver(UserRepository userRepository,
+                                     @Value("${stayease.jwt.recheckSeconds:300}") long recheckSeconds,
+                                     @Value("${stayease.jwt.recheckCacheSize:10000}") long cacheSize) {
+        this.userRepository = userRepository;
+        this.recheckSeconds = recheckSeconds;
+        this.rechecked = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofSeconds(Math.max(1, recheckSeconds)))
+                .build();
+    }
+
+    // Null when the token's user no longer exists
+    public AuthenticatedUser resolve(Claims claims) {
+        String username = claims.getSubject();
+        Number uid = claims.get("uid", Number.class);
+        if (uid != null && recheckSeconds <= 0) {
+            return new AuthenticatedUser(uid.longValue(), username, roles(claims));
+        }
+        return rechecked.get(username, this::load).orElse(null);
+    }
+
+    // Forget the last check so the next request re-reads the user
+    public void evict(String username) {
+        rechecked.invalidate(username);
+    }
+
+    // A committed role change or delete applies to the next request, not the next recheck
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.username() != null) {
+            evict(event.username());
+        }
+        rechecked.asMap().values().removeIf(user -> user.isPresent() && user.get().id().equals(event.userId()));
+    }
+
+    private Optional<AuthenticatedUser> load(String username) {
+        return userRepository.findByUsername(username).map(this::toPrincipal);
+    }
+
+    private AuthenticatedUser toPrincipal(User user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), Set.of(user.getRole().name()));
+    }
+
+    private static Set<String> roles(Claims claims) {
+        String roles = claims.get("roles", String.class);
+        if (roles == null || roles.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(roles.split(",")).map(String::trim).filter(r -> !r.isEmpty()).collect(Collectors.toSet());
+    }
+}
@@ -22,6 +22,9 @@ public class DataSeeder implements CommandLineRunner {
     public void run(String... args) throws Exception {
         seedUsers();
         seedHotelsAndRooms();
+        // backfills the denormalized price columns, also for hotels created before they existed
+        hotelRepository.refreshAllRoomStats();
+        hotelRepository.fillMissingRatings();
     }
 
     private void seedUsers() {
@@ -1,6 +1,6 @@
 package com.stayease.backend.config;
 
-import com.stayease.backend.service.impl.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,12 +14,12 @@ import java.io.IOException;
 
 public class JwtAuthFilter extends OncePerRequestFilter {
 
-    private final JwtUtils jwtUtils;
-    private final UserDetailsServiceImpl userDetailsService;
+    private final JwtVerifier jwtVerifier;
+    private final AuthenticatedUserResolver userResolver;
 
-    public JwtAuthFilter(JwtUtils jwtUtils, UserDetailsServiceImpl userDetailsService) {
-        this.jwtUtils = jwtUtils;
-        this.userDetailsService = userDetailsService;
+    public JwtAuthFilter(JwtVerifier jwtVerifier, AuthenticatedUserResolver userResolver) {
+        this.jwtVerifier = jwtVerifier;
+        this.userResolver = userResolver;
     }
 
     @Override
@@ -38,12 +38,11 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             if (StringUtils.hasText(header) && header.startsWith("Bearer ")) {
                 String token = header.substring(7);
 
-                if (jwtUtils.validate(token)) {
-                    String username = jwtUtils.getUsername(token);
-                    var userDetails = userDetailsService.loadUserByUsername(username);
-
+                Claims claims = jwtVerifier.verify(token);
+                AuthenticatedUser user = claims != null ? userResolver.resolve(claims) : null;
+                if (user != null) {
                     var auth = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
+                            user, null, user.authorities());
 
                     SecurityContextHolder.getContext().setAuthentication(auth);
                 } else {
@@ -14,20 +14,29 @@ public class JwtUtils {
 
     private final Key key;
     private final long expirationMs;
+    // JwtParser is immutable and thread-safe, build it once
+    private final JwtParser parser;
 
     public JwtUtils(@Value("${stayease.jwt.secret}") String secret,
                     @Value("${stayease.jwt.expirationMs}") long expirationMs) {
 
         this.key = Keys.hmacShaKeyFor(Arrays.copyOf(secret.getBytes(), 32));
         this.expirationMs = expirationMs;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
     public String generateToken(String username, Set<String> roles) {
+        return generateToken(null, username, roles);
+    }
+
+    // uid lets JwtAuthFilter build the principal from the token alone
+    public String generateToken(Long userId, String username, Set<String> roles) {
         Date now = new Date();
         Date expiry = new Date(now.getTime() + expirationMs);
 
         return Jwts.builder()
                 .setSubject(username)
+                .claim("uid", userId)
                 .claim("roles", String.join(",", roles))
                 .setIssuedAt(now)
                 .setExpiration(expiry)
@@ -35,9 +44,14 @@ public class JwtUtils {
                 .compact();
     }
 
+    // Verifies signature and expiry once; throws JwtException when either fails
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
     public boolean validate(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+            parser.parseClaimsJws(token);
             return true;
         } catch (JwtException ex) {
             return false;
@@ -45,7 +59,6 @@ public class JwtUtils {
     }
 
     public String getUsername(String token) {
-        Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
-        return claims.getSubject();
+        return parseClaims(token).getSubject();
     }
 }
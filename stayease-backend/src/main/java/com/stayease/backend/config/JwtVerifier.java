@@ -0,0 +1,94 @@
+package com.stayease.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.stayease.backend.service.MetricsSource;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Verifies bearer tokens for JwtAuthFilter with a single parse, and remembers
+ * recently verified ones so a client sending the same token on every request
+ * only pays for the signature check once.
+ *
+ * Entries are keyed by the SHA-256 of the token (raw tokens are never held) and
+ * expire at the token's own exp claim, so a cached token is never accepted after
+ * it would have failed verification. Rejected tokens are not cached.
+ */
+@Component
+public class JwtVerifier implements MetricsSource {
+
+    private final JwtUtils jwtUtils;
+    private final Cache<String, Claims> verified;
+
+    public JwtVerifier(JwtUtils jwtUtils,
+                       @Value("${stayease.jwt.cacheSize:10000}") long cacheSize) {
+        this.jwtUtils = jwtUtils;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(Expiry.creating((String hash, Claims claims) -> untilExpiry(claims)))
+                .recordStats()
+                .build();
+    }
+
+    // Claims of a valid token, or null when the signature or expiry check fails
+    public Claims verify(String token) {
+        String hash = hash(token);
+        Claims claims = verified.getIfPresent(hash);
+        if (claims != null) {
+            return claims;
+        }
+        try {
+            claims = jwtUtils.parseClaims(token);
+        } catch (JwtException | IllegalArgumentException ex) {
+            return null;
+        }
+        if (claims.getExpiration() != null) {
+            verified.put(hash, claims);
+        }
+        return claims;
+    }
+
+    private static Duration untilExpiry(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return Duration.ofMillis(Math.max(0, expiration.getTime() - System.currentTimeMillis()));
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Override
+    public String metricsName() {
+        return "jwtVerifier";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        CacheStats stats = verified.stats();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("entries", verified.estimatedSize());
+        metrics.put("hits", stats.hitCount());
+        metrics.put("misses", stats.missCount());
+        metrics.put("hitRate", stats.hitRate());
+        return metrics;
+    }
+}
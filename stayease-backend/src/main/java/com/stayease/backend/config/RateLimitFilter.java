@@ -0,0 +1,88 @@
+package com.stayease.backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Applies RateLimiter to the write endpoints abusive clients go for: login and
+ * register, booking creation and payment calls. Runs after JwtAuthFilter, so
+ * signed-in users get a bucket of their own; anyone else is limited per IP. Behind
+ * a proxy that IP is the forwarded client address (server.forward-headers-strategy),
+ * otherwise every anonymous caller would share the proxy's bucket.
+ * Every limited response carries RateLimit-Limit / -Remaining / -Reset, and a
+ * rejected one gets 429 with Retry-After.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimiter.isEnabled() || group(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RateLimiter.Decision decision = rateLimiter.tryAcquire(group(request), client(request));
+        if (decision == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        response.setHeader("RateLimit-Limit", String.valueOf(decision.limit()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(decision.remaining()));
+        response.setHeader("RateLimit-Reset", String.valueOf(decision.resetSeconds()));
+        if (decision.allowed()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // no log line per rejection: a burst would flood stderr; the throttled.* counters in /metrics record it
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"success\":false,\"message\":\"Too many requests, please retry in "
+                + decision.retryAfterSeconds() + " seconds\"}");
+    }
+
+    static String group(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return null;
+        }
+        String path = request.getServletPath();
+        if (path.equals("/api/auth/login") || path.equals("/api/auth/register")) {
+            return RateLimiter.AUTH;
+        }
+        if (path.equals("/api/bookings") || path.startsWith("/api/bookings/")) {
+            return RateLimiter.BOOKING;
+        }
+        if (path.startsWith("/api/payments/")) {
+            return RateLimiter.PAYMENT;
+        }
+        return null;
+    }
+
+    static String client(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof AuthenticatedUser user && user.id() != null) {
+            return "user:" + user.id();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,181 @@
+package com.stayease.backend.config;
+
+import com.stayease.backend.service.MetricsSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets per (route group, client), used by RateLimitFilter.
+ *
+ * Each bucket is a single AtomicLong packing the last refill time (ms since
+ * startup, high 37 bits) and the tokens left (low 27 bits), so taking a token is
+ * one CAS with no lock and no allocation. Tokens are counted in 1/60000ths,
+ * which makes a refill of N tokens per minute exactly N units per millisecond.
+ * That caps a bucket at 2000 tokens.
+ *
+ * Buckets live in a ConcurrentHashMap and are swept once they have been idle
+ * long enough to be full again, so one-off clients do not accumulate.
+ */
+@Component
+public class RateLimiter implements MetricsSource {
+
+    public static final String AUTH = "auth";
+    public static final String BOOKING = "booking";
+    public static final String PAYMENT = "payment";
+
+    static final int MAX_CAPACITY = 2000;
+    private static final int TOKEN_BITS = 27;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long UNITS_PER_TOKEN = 60_000;
+
+    private final boolean enabled;
+    private final Map<String, Limit> limits = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+    private final long epoch;
+    private final long idleMillis;
+    private final ScheduledExecutorService sweeper;
+
+    private final Map<String, LongAdder> throttled = new ConcurrentHashMap<>();
+    private final LongAdder allowed = new LongAdder();
+
+    @Autowired
+    public RateLimiter(@Value("${stayease.ratelimit.enabled:true}") boolean enabled,
+                       @Value("${stayease.ratelimit.auth.capacity:10}") int authCapacity,
+                       @Value("${stayease.ratelimit.auth.refillPerMinute:10}") int authRefill,
+                       @Value("${stayease.ratelimit.booking.capacity:20}") int bookingCapacity,
+                       @Value("${stayease.ratelimit.booking.refillPerMinute:20}") int bookingRefill,
+                       @Value("${stayease.ratelimit.payment.capacity:10}") int paymentCapacity,
+                       @Value("${stayease.ratelimit.payment.refillPerMinute:10}") int paymentRefill,
+                       @Value("${stayease.ratelimit.idleMinutes:10}") long idleMinutes) {
+        this(enabled, Map.of(AUTH, new Limit(authCapacity, authRefill),
+                        BOOKING, new Limit(bookingCapacity, bookingRefill),
+                        PAYMENT, new Limit(paymentCapacity, paymentRefill)),
+                TimeUnit.MINUTES.toMillis(idleMinutes), System::currentTimeMillis, true);
+    }
+
+    RateLimiter(boolean enabled, Map<String, Limit> limits, long idleMillis, LongSupplier clock, boolean startSweeper) {
+        this.enabled = enabled;
+        this.limits.putAll(limits);
+        this.idleMillis = idleMillis;
+        this.clock = clock;
+        this.epoch = clock.getAsLong();
+        limits.keySet().forEach(group -> throttled.put(group, new LongAdder()));
+        if (startSweeper) {
+            sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "rate-limit-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(1000, idleMillis / 2);
+            sweeper.scheduleWithFixedDelay(this::sweep, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            sweeper = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Null when the group is not rate limited
+    public Decision tryAcquire(String group, String client) {
+        Limit limit = limits.get(group);
+        if (!enabled || limit == null) {
+            return null;
+        }
+        long now = clock.getAsLong() - epoch;
+        AtomicLong bucket = buckets.computeIfAbsent(group + ':' + client, key -> new AtomicLong(pack(now, limit.capacityUnits())));
+        while (true) {
+            long state = bucket.get();
+            long last = state >>> TOKEN_BITS;
+            long units = state & TOKEN_MASK;
+            long available = Math.min(limit.capacityUnits(), units + Math.max(0, now - last) * limit.refillPerMinute());
+            boolean ok = available >= UNITS_PER_TOKEN;
+            long left = ok ? available - UNITS_PER_TOKEN : available;
+            if (bucket.compareAndSet(state, pack(Math.max(now, last), left))) {
+                if (ok) {
+                    allowed.increment();
+                } else {
+                    throttled.get(group).increment();
+                }
+                return new Decision(ok, limit.capacity(), left / UNITS_PER_TOKEN,
+                        secondsFor(limit.capacityUnits() - left, limit),
+                        ok ? 0 : secondsFor(UNITS_PER_TOKEN - left, limit));
+            }
+        }
+    }
+
+    // Drops buckets untouched for idleMillis; by then they would be full again anyway
+    public void sweep() {
+        long now = clock.getAsLong() - epoch;
+        buckets.values().removeIf(bucket -> now - (bucket.get() >>> TOKEN_BITS) >= idleMillis);
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    private static long pack(long millis, long units) {
+        return (millis << TOKEN_BITS) | units;
+    }
+
+    private static long secondsFor(long units, Limit limit) {
+        long millis = (units + limit.refillPerMinute() - 1) / limit.refillPerMinute();
+        return (millis + 999) / 1000;
+    }
+
+    @Override
+    public String metricsName() {
+        return "rateLimiter";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("buckets", buckets.size());
+        metrics.put("allowed", allowed.sum());
+        throttled.forEach((group, count) -> metrics.put("throttled." + group, count.sum()));
+        return metrics;
+    }
+
+    public record Limit(int capacity, int refillPerMinute) {
+
+        public Limit {
+            if (capacity < 1 || capacity > MAX_CAPACITY || refillPerMinute < 1) {
+                throw new IllegalArgumentException("Rate limit needs 1-" + MAX_CAPACITY + " capacity and a positive refill");
+            }
+        }
+
+        long capacityUnits() {
+            return capacity * UNITS_PER_TOKEN;
+        }
+    }
+
+    /**
+     * Outcome of one request: whether it may proceed, and the numbers for the
+     * RateLimit-* and Retry-After headers.
+     */
+    public record Decision(boolean allowed, int limit, long remaining, long resetSeconds, long retryAfterSeconds) {
+    }
+}
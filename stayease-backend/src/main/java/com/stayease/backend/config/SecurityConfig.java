@@ -1,6 +1,8 @@
 package com.stayease.backend.config;
 
+import com.stayease.backend.service.impl.IdempotencyStore;
 import com.stayease.backend.service.impl.UserDetailsServiceImpl;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -9,7 +11,6 @@ import org.springframework.security.config.annotation.authentication.builders.Au
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -23,29 +24,47 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     private final UserDetailsServiceImpl userDetailsService;
-    private final JwtUtils jwtUtils;
+    private final JwtVerifier jwtVerifier;
+    private final AuthenticatedUserResolver userResolver;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final RateLimiter rateLimiter;
+    private final IdempotencyStore idempotencyStore;
+    private final int idempotencyMaxBodyBytes;
 
    
-    public SecurityConfig(UserDetailsServiceImpl userDetailsService, JwtUtils jwtUtils) {
+    public SecurityConfig(UserDetailsServiceImpl userDetailsService, JwtVerifier jwtVerifier,
+                          AuthenticatedUserResolver userResolver, BoundedPasswordEncoder passwordEncoder,
+                          RateLimiter rateLimiter, IdempotencyStore idempotencyStore,
+                          @Value("${stayease.idempotency.maxBodyBytes:65536}") int idempotencyMaxBodyBytes) {
         this.userDetailsService = userDetailsService;
-        this.jwtUtils = jwtUtils;
+        this.jwtVerifier = jwtVerifier;
+        this.userResolver = userResolver;
+        this.passwordEncoder = passwordEncoder;
+        this.rateLimiter = rateLimiter;
+        this.idempotencyStore = idempotencyStore;
+        this.idempotencyMaxBodyBytes = idempotencyMaxBodyBytes;
     }
 
     @Bean
     public JwtAuthFilter jwtAuthFilter() {
-        return new JwtAuthFilter(jwtUtils, userDetailsService);
+        return new JwtAuthFilter(jwtVerifier, userResolver);
     }
 
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public RateLimitFilter rateLimitFilter() {
+        return new RateLimitFilter(rateLimiter);
+    }
+
+    @Bean
+    public IdempotencyFilter idempotencyFilter() {
+        return new IdempotencyFilter(idempotencyStore, idempotencyMaxBodyBytes);
     }
 
     @Bean
     public DaoAuthenticationProvider authProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
@@ -83,7 +102,11 @@ public class SecurityConfig {
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(jwtAuthFilter(), UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter(), UsernamePasswordAuthenticationFilter.class)
+                // after the JWT filter so limits can key on the signed-in user
+                .addFilterAfter(rateLimitFilter(), JwtAuthFilter.class)
+                // keys are scoped to the signed-in user too, and retries still count against the limits
+                .addFilterAfter(idempotencyFilter(), RateLimitFilter.class);
 
         return http.build();
     }
@@ -1,6 +1,11 @@
 package com.stayease.backend.controller;
 
+import com.stayease.backend.dto.ActivityDTO;
+import com.stayease.backend.dto.AdminBookingRowDTO;
+import com.stayease.backend.dto.DashboardStatsDTO;
+import com.stayease.backend.dto.ExportFormat;
 import com.stayease.backend.model.Booking;
+import com.stayease.backend.model.BookingStatus;
 import com.stayease.backend.model.Hotel;
 import com.stayease.backend.model.Room;
 import com.stayease.backend.model.User;
@@ -8,10 +13,29 @@ import com.stayease.backend.repository.BookingRepository;
 import com.stayease.backend.repository.HotelRepository;
 import com.stayease.backend.repository.RoomRepository;
 import com.stayease.backend.repository.UserRepository;
+import com.stayease.backend.service.BookingService;
+import com.stayease.backend.service.DashboardStatsService;
+import com.stayease.backend.service.ExportService;
+import com.stayease.backend.service.HotelService;
+import com.stayease.backend.service.MetricsSource;
+import com.stayease.backend.service.impl.ActivityFeed;
+import com.stayease.backend.service.impl.RoomAvailabilityIndex;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -20,6 +44,8 @@ import java.util.*;
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
 public class AdminController {
 
+    private static final int MAX_BOOKINGS_PAGE = 200;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -32,67 +58,73 @@ public class AdminController {
     @Autowired
     private RoomRepository roomRepository;
 
-    // Admin Dashboard Statistics
-    @GetMapping("/dashboard/stats")
-    public ResponseEntity<Map<String, Object>> getDashboardStats() {
-        System.out.println("GET /api/admin/dashboard/stats");
+    @Autowired
+    private BookingService bookingService;
 
-        try {
-            long totalUsers = userRepository.count();
-            long totalHotels = hotelRepository.count();
-            long totalBookings = bookingRepository.count();
+    @Autowired
+    private HotelService hotelService;
 
-            // Calculate total revenue
-            double totalRevenue = 0.0;
-            List<Booking> allBookings = bookingRepository.findAll();
-            for (Booking booking : allBookings) {
-                if (booking != null && booking.getTotalAmount() != null) {
-                    totalRevenue += booking.getTotalAmount();
-                }
-            }
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
 
-            // Calculate pending and confirmed bookings
-            long pendingBookings = 0;
-            long confirmedBookings = 0;
-
-            for (Booking booking : allBookings) {
-                if (booking != null && booking.getStatus() != null) {
-                    if (booking.getStatus().name().equals("PENDING")) {
-                        pendingBookings++;
-                    } else if (booking.getStatus().name().equals("CONFIRMED")) {
-                        confirmedBookings++;
-                    }
-                }
-            }
+    @Autowired
+    private RoomAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private ActivityFeed activityFeed;
+
+    @Autowired
+    private ExportService exportService;
 
-            Map<String, Object> stats = new HashMap<>();
-            stats.put("totalUsers", totalUsers);
-            stats.put("totalHotels", totalHotels);
-            stats.put("totalBookings", totalBookings);
-            stats.put("totalRevenue", totalRevenue);
-            stats.put("pendingBookings", pendingBookings);
-            stats.put("confirmedBookings", confirmedBookings);
-            stats.put("success", true);
+    @Autowired
+    private List<MetricsSource> metricsSources = List.of();
+
+    // Admin Dashboard Statistics
+    @GetMapping("/dashboard/stats")
+    public ResponseEntity<DashboardStatsDTO> getDashboardStats() {
+        System.out.println("GET /api/admin/dashboard/stats");
 
-            return ResponseEntity.ok(stats);
+        try {
+            return ResponseEntity.ok(dashboardStatsService.getDashboardStats());
 
         } catch (Exception e) {
             System.err.println("Dashboard stats error: " + e.getMessage());
             e.printStackTrace();
 
-            Map<String, Object> defaultStats = new HashMap<>();
-            defaultStats.put("totalUsers", userRepository.count());
-            defaultStats.put("totalHotels", hotelRepository.count());
-            defaultStats.put("totalBookings", bookingRepository.count());
-            defaultStats.put("totalRevenue", 0);
-            defaultStats.put("pendingBookings", 0);
-            defaultStats.put("confirmedBookings", 0);
-            defaultStats.put("success", true);
+            DashboardStatsDTO defaultStats = DashboardStatsDTO.builder()
+                    .totalUsers(userRepository.count())
+                    .totalHotels(hotelRepository.count())
+                    .totalBookings(bookingRepository.count())
+                    .build();
 
             return ResponseEntity.ok(defaultStats);
         }
     }
 
+    // One hotel's booking and payment totals from the dashboard counters
+    @GetMapping("/dashboard/hotels/{hotelId}/stats")
+    public ResponseEntity<?> getHotelStats(@PathVariable Long hotelId) {
+        System.out.println("GET /api/admin/dashboard/hotels/" + hotelId + "/stats");
+        try {
+            return ResponseEntity.ok(Map.of("success", true, "stats", dashboardStatsService.getHotelStats(hotelId)));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    // Cache and throughput counters from every MetricsSource
+    @GetMapping("/metrics")
+    public ResponseEntity<?> getMetrics() {
+        System.out.println("GET /api/admin/metrics");
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("success", true);
+        for (MetricsSource source : metricsSources) {
+            metrics.put(source.metricsName(), source.metrics());
+        }
+        return ResponseEntity.ok(metrics);
+    }
+
     // Get All Users
     @GetMapping("/users")
     public ResponseEntity<?> getAllUsers() {
@@ -178,7 +210,7 @@ public class AdminController {
             hotel.setCreatedAt(LocalDateTime.now());
             hotel.setUpdatedAt(LocalDateTime.now());
 
-            Hotel savedHotel = hotelRepository.save(hotel);
+            Hotel savedHotel = hotelService.create(hotel);
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
@@ -200,7 +232,7 @@ public class AdminController {
                 return ResponseEntity.badRequest().body(Map.of("success", false, "message", "Hotel not found"));
             }
 
-            hotelRepository.deleteById(hotelId);
+            hotelService.delete(hotelId);
             return ResponseEntity.ok(Map.of("success", true, "message", "Hotel deleted successfully"));
         } catch (Exception e) {
             e.printStackTrace();
@@ -239,6 +271,7 @@ public class AdminController {
             room.setAvailable(true);
 
             Room savedRoom = roomRepository.save(room);
+            hotelService.refreshRoomStats(hotelId);
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
@@ -256,11 +289,15 @@ public class AdminController {
     public ResponseEntity<?> deleteRoom(@PathVariable Long roomId) {
         System.out.println("DELETE /api/admin/rooms/" + roomId);
         try {
-            if (!roomRepository.existsById(roomId)) {
+            Room room = roomRepository.findById(roomId).orElse(null);
+            if (room == null) {
                 return ResponseEntity.badRequest().body(Map.of("success", false, "message", "Room not found"));
             }
 
+            Long hotelId = room.getHotel().getId();
             roomRepository.deleteById(roomId);
+            availabilityIndex.removeRoom(roomId);
+            hotelService.refreshRoomStats(hotelId);
             return ResponseEntity.ok(Map.of("success", true, "message", "Room deleted successfully"));
         } catch (Exception e) {
             e.printStackTrace();
@@ -273,57 +310,8 @@ public class AdminController {
     public ResponseEntity<?> getRecentActivity() {
         System.out.println("GET /api/admin/recent-activity");
         try {
-            List<Map<String, Object>> activities = new ArrayList<>();
-
-            // Get recent bookings (last 10)
-            List<Booking> allBookings = bookingRepository.findAll();
-            List<Booking> recentBookings = allBookings.stream()
-                    .filter(booking -> booking != null && booking.getCreatedAt() != null)
-                    .sorted((b1, b2) -> b2.getCreatedAt().compareTo(b1.getCreatedAt()))
-                    .limit(10)
-                    .toList();
-
-            for (Booking booking : recentBookings) {
-                Map<String, Object> activity = new HashMap<>();
-                activity.put("id", "booking_" + booking.getId());
-                activity.put("type", "booking");
-                activity.put("message", "New booking #" + booking.getId() + " created");
-                activity.put("timestamp", booking.getCreatedAt());
-                activity.put("user", booking.getUser() != null ? booking.getUser().getUsername() : "Unknown User");
-                activity.put("icon", "📋");
-                activities.add(activity);
-            }
-
-            // Get recent users - last 5
-            List<User> allUsers = userRepository.findAll();
-            List<User> recentUsers = allUsers.stream()
-                    .filter(user -> user != null && user.getCreatedAt() != null)
-                    .sorted((u1, u2) -> u2.getCreatedAt().compareTo(u1.getCreatedAt()))
-                    .limit(5)
-                    .toList();
-
-            for (User user : recentUsers) {
-                Map<String, Object> activity = new HashMap<>();
-                activity.put("id", "user_" + user.getId());
-                activity.put("type", "user");
-                activity.put("message", "New user registered: " + user.getUsername());
-                activity.put("timestamp", user.getCreatedAt() != null ? user.getCreatedAt() : LocalDateTime.now());
-                activity.put("user", user.getUsername());
-                activity.put("icon", "👤");
-                activities.add(activity);
-            }
-
-            // Sort all activities by timestamp (newest first)
-            activities.sort((a, b) -> {
-                LocalDateTime timeA = (LocalDateTime) a.get("timestamp");
-                LocalDateTime timeB = (LocalDateTime) b.get("timestamp");
-                return timeB.compareTo(timeA);
-            });
-
-            // Return only latest 10 activities
-            List<Map<String, Object>> recentActivities = activities.stream()
-                    .limit(10)
-                    .toList();
+            // served from the in-memory feed, no database reads
+            List<ActivityDTO> recentActivities = activityFeed.recent(10);
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
@@ -338,31 +326,25 @@ public class AdminController {
 
     // Get All Bookings
     @GetMapping("/bookings")
-    public ResponseEntity<?> getAllBookings() {
-        System.out.println("GET /api/admin/bookings");
+    public ResponseEntity<?> getAllBookings(@RequestParam(required = false) BookingStatus status,
+                                            @RequestParam(required = false) Long hotelId,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                            @RequestParam(defaultValue = "0") int page,
+                                            @RequestParam(defaultValue = "50") int size) {
+        System.out.println("GET /api/admin/bookings - page: " + page + ", size: " + size);
         try {
-            List<Booking> bookings = bookingRepository.findAll();
-
-            List<Map<String, Object>> bookingList = new ArrayList<>();
-            for (Booking booking : bookings) {
-                if (booking != null) {
-                    Map<String, Object> bookingData = new HashMap<>();
-                    bookingData.put("id", booking.getId());
-                    bookingData.put("hotelName", booking.getHotel() != null ? booking.getHotel().getName() : "Unknown Hotel");
-                    bookingData.put("userName", booking.getUser() != null ? booking.getUser().getUsername() : "Unknown User");
-                    bookingData.put("checkIn", booking.getCheckIn());
-                    bookingData.put("checkOut", booking.getCheckOut());
-                    bookingData.put("totalAmount", booking.getTotalAmount());
-                    bookingData.put("status", booking.getStatus() != null ? booking.getStatus().name() : "PENDING");
-                    bookingData.put("createdAt", booking.getCreatedAt());
-                    bookingList.add(bookingData);
-                }
-            }
+            // one query with hotel and user names joined in, one page at a time
+            Pageable pageable = PageRequest.of(Math.max(0, page), Math.min(Math.max(1, size), MAX_BOOKINGS_PAGE));
+            Slice<AdminBookingRowDTO> bookings = bookingRepository.findAdminRows(status, hotelId, from, to, pageable);
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
-                    "bookings", bookingList,
-                    "count", bookingList.size()
+                    "bookings", bookings.getContent(),
+                    "count", bookings.getNumberOfElements(),
+                    "page", bookings.getNumber(),
+                    "size", bookings.getSize(),
+                    "hasNext", bookings.hasNext()
             ));
         } catch (Exception e) {
             e.printStackTrace();
@@ -370,6 +352,35 @@ public class AdminController {
         }
     }
 
+    // Finance exports, streamed to the client row by row
+    @GetMapping("/export/bookings")
+    public void exportBookings(@RequestParam(defaultValue = "CSV") ExportFormat format,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                               HttpServletResponse response) throws IOException {
+        System.out.println("GET /api/admin/export/bookings - " + format + ", from: " + from + ", to: " + to);
+        long rows = exportService.exportBookings(format, from, to, exportWriter(response, "bookings", format));
+        System.out.println("📤 Exported " + rows + " bookings");
+    }
+
+    @GetMapping("/export/payments")
+    public void exportPayments(@RequestParam(defaultValue = "CSV") ExportFormat format,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                               HttpServletResponse response) throws IOException {
+        System.out.println("GET /api/admin/export/payments - " + format + ", from: " + from + ", to: " + to);
+        long rows = exportService.exportPayments(format, from, to, exportWriter(response, "payments", format));
+        System.out.println("📤 Exported " + rows + " payments");
+    }
+
+    private Writer exportWriter(HttpServletResponse response, String name, ExportFormat format) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + name + "-" + LocalDate.now() + "." + format.getExtension() + "\"");
+        return new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8), 64 * 1024);
+    }
+
     // Get Recent Bookings
     @GetMapping("/bookings/recent")
     public ResponseEntity<?> getRecentBookings() {
@@ -400,13 +411,8 @@ public class AdminController {
     public ResponseEntity<?> confirmBooking(@PathVariable Long bookingId) {
         System.out.println("PUT /api/admin/bookings/" + bookingId + "/confirm");
         try {
-            Booking booking = bookingRepository.findById(bookingId)
-                    .orElseThrow(() -> new RuntimeException("Booking not found"));
-
-            booking.setStatus(com.stayease.backend.model.BookingStatus.CONFIRMED);
-            booking.setUpdatedAt(LocalDateTime.now());
-
-            Booking savedBooking = bookingRepository.save(booking);
+            // status changes go through the service so the availability index stays in sync
+            Booking savedBooking = bookingService.confirmBooking(bookingId);
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
@@ -424,13 +430,7 @@ public class AdminController {
     public ResponseEntity<?> cancelBooking(@PathVariable Long bookingId) {
         System.out.println(" PUT /api/admin/bookings/" + bookingId + "/cancel");
         try {
-            Booking booking = bookingRepository.findById(bookingId)
-                    .orElseThrow(() -> new RuntimeException("Booking not found"));
-
-            booking.setStatus(com.stayease.backend.model.BookingStatus.CANCELLED);
-            booking.setUpdatedAt(LocalDateTime.now());
-
-            Booking savedBooking = bookingRepository.save(booking);
+            Booking savedBooking = bookingService.updateBookingStatus(bookingId, BookingStatus.CANCELLED);
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
@@ -465,23 +465,24 @@ public class AdminController {
     public ResponseEntity<?> updateBookingStatus(@PathVariable Long bookingId, @RequestBody Map<String, String> request) {
         System.out.println("PUT /api/admin/bookings/" + bookingId + "/status");
         try {
-            Booking booking = bookingRepository.findById(bookingId)
-                    .orElseThrow(() -> new RuntimeException("Booking not found"));
-
             String newStatus = request.get("status");
-
-            if ("CONFIRMED".equalsIgnoreCase(newStatus)) {
-                booking.setStatus(com.stayease.backend.model.BookingStatus.CONFIRMED);
-            } else if ("CANCELLED".equalsIgnoreCase(newStatus)) {
-                booking.setStatus(com.stayease.backend.model.BookingStatus.CANCELLED);
-            } else if ("PENDING".equalsIgnoreCase(newStatus)) {
-                booking.setStatus(com.stayease.backend.model.BookingStatus.PENDING);
-            } else if ("COMPLETED".equalsIgnoreCase(newStatus)) {
-                booking.setStatus(com.stayease.backend.model.BookingStatus.COMPLETED);
-            }
-
-            booking.setUpdatedAt(LocalDateTime.now());
-            bookingRepository.save(booking);
+            BookingStatus status = Arrays.stream(BookingStatus.values())
+                    .filter(s -> s.name().equalsIgnoreCase(newStatus))
+                    .findFirst()
+                    .orElse(null);
+
+            // the status the admin was looking at, so a change made meanwhile is not overwritten
+            String expected = request.get("expectedStatus");
+            BookingStatus expectedStatus = Arrays.stream(BookingStatus.values())
+                    .filter(s -> s.name().equalsIgnoreCase(expected))
+                    .findFirst()
+                    .orElse(null);
+
+            // unknown status leaves the booking untouched, as before
+            Booking booking = status != null
+                    ? bookingService.updateBookingStatus(bookingId, status, expectedStatus)
+                    : bookingService.getBookingById(bookingId)
+                            .orElseThrow(() -> new RuntimeException("Booking not found"));
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
@@ -3,8 +3,9 @@ package com.stayease.backend.controller;
 import com.stayease.backend.config.JwtUtils;
 import com.stayease.backend.dto.LoginRequest;
 import com.stayease.backend.dto.RegisterRequest;
+import com.stayease.backend.exception.ServiceBusyException;
 import com.stayease.backend.model.User;
-import com.stayease.backend.repository.UserRepository;
+import com.stayease.backend.service.impl.UserCache;
 import com.stayease.backend.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,7 +25,7 @@ public class AuthController {
     @Autowired private AuthenticationManager authenticationManager;
     @Autowired private UserService userService;
     @Autowired private JwtUtils jwtUtils;
-    @Autowired private UserRepository userRepository;
+    @Autowired private UserCache userCache;
 
     @PostMapping("/register")
     public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest req) {
@@ -49,10 +50,10 @@ public class AuthController {
                     new UsernamePasswordAuthenticationToken(req.getUsername(), req.getPassword())
             );
 
-            User user = userRepository.findByUsername(req.getUsername())
+            User user = userCache.findByUsername(req.getUsername())
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
-            String token = jwtUtils.generateToken(user.getUsername(), Set.of(user.getRole().name()));
+            String token = jwtUtils.generateToken(user.getId(), user.getUsername(), Set.of(user.getRole().name()));
 
             return ResponseEntity.ok(Map.of(
                     "token", token,
@@ -63,6 +64,8 @@ public class AuthController {
             ));
         } catch (BadCredentialsException e) {
             return ResponseEntity.status(401).body(Map.of("message", "Invalid username or password"));
+        } catch (ServiceBusyException e) {
+            throw e; // 503 + Retry-After from GlobalExceptionHandler
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("message", "Login failed: " + e.getMessage()));
         }
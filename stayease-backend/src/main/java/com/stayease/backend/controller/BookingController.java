@@ -1,16 +1,22 @@
 package com.stayease.backend.controller;
 
+import com.stayease.backend.config.AuthenticatedUser;
 import com.stayease.backend.dto.BookingRequest;
+import com.stayease.backend.exception.ServiceBusyException;
 import com.stayease.backend.model.Booking;
 import com.stayease.backend.model.User;
 import com.stayease.backend.repository.UserRepository;
 import com.stayease.backend.service.BookingService;
+import com.stayease.backend.service.impl.BookingPipeline;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,9 +32,17 @@ public class BookingController {
     @Autowired
     private UserRepository userRepository;
 
-    // ✅ Helper method to get current user ID
+    @Autowired
+    private BookingPipeline bookingPipeline;
+
+    private static final long EVENTS_TIMEOUT_MS = 60_000;
+
+    // ✅ Helper method to get current user ID, straight from the JWT principal when present
     private Long getCurrentUserId() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth.getPrincipal() instanceof AuthenticatedUser user && user.id() != null) {
+            return user.id();
+        }
         String username = auth.getName();
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found: " + username));
@@ -64,6 +78,118 @@ public class BookingController {
         }
     }
 
+    // ✅ CREATE group booking - all rooms or none
+    @PostMapping("/batch")
+    public ResponseEntity<?> createGroupBooking(@RequestBody List<BookingRequest> requests) {
+        System.out.println("✅ POST /api/bookings/batch - Creating group booking");
+        try {
+            Long userId = getCurrentUserId();
+            List<Booking> bookings = bookingService.createBookings(userId, requests);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Group booking created successfully");
+            response.put("bookings", bookings);
+            response.put("count", bookings.size());
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            System.err.println("❌ Group booking failed: " + e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
+    // ✅ CREATE booking asynchronously - 202 with a request id to poll or stream
+    @PostMapping("/async")
+    public ResponseEntity<?> createBookingAsync(@RequestBody BookingRequest request) {
+        System.out.println("✅ POST /api/bookings/async - Queueing booking");
+        try {
+            Long userId = getCurrentUserId();
+            BookingPipeline.Ticket ticket = bookingPipeline.submit(userId, request);
+
+            Map<String, Object> response = ticketBody(ticket);
+            response.put("statusUrl", "/api/bookings/requests/" + ticket.getId());
+            response.put("eventsUrl", "/api/bookings/requests/" + ticket.getId() + "/events");
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+
+        } catch (ServiceBusyException e) {
+            throw e;
+        } catch (Exception e) {
+            System.err.println("❌ Booking request rejected: " + e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
+    // ✅ GET async booking request status
+    @GetMapping("/requests/{requestId}")
+    public ResponseEntity<?> getBookingRequest(@PathVariable String requestId) {
+        try {
+            BookingPipeline.Ticket ticket = findOwnTicket(requestId);
+            return ResponseEntity.ok(ticketBody(ticket));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
+    // ✅ STREAM async booking request status (server-sent events, closes once decided)
+    @GetMapping(value = "/requests/{requestId}/events", produces = "text/event-stream")
+    public SseEmitter streamBookingRequest(@PathVariable String requestId) {
+        SseEmitter emitter = new SseEmitter(EVENTS_TIMEOUT_MS);
+        BookingPipeline.Ticket ticket;
+        try {
+            ticket = findOwnTicket(requestId);
+            emitter.send(SseEmitter.event().name("status").data(ticketBody(ticket)));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        } catch (Exception e) {
+            try {
+                emitter.send(SseEmitter.event().name("error").data(Map.of("success", false, "message", e.getMessage())));
+                emitter.complete();
+            } catch (IOException ex) {
+                emitter.completeWithError(ex);
+            }
+            return emitter;
+        }
+        ticket.done().thenAccept(done -> {
+            try {
+                emitter.send(SseEmitter.event().name("status").data(ticketBody(done)));
+                emitter.complete();
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    private BookingPipeline.Ticket findOwnTicket(String requestId) {
+        Long userId = getCurrentUserId();
+        return bookingPipeline.find(requestId)
+                .filter(ticket -> ticket.getUserId().equals(userId))
+                .orElseThrow(() -> new RuntimeException("Booking request not found"));
+    }
+
+    private static Map<String, Object> ticketBody(BookingPipeline.Ticket ticket) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("success", ticket.getStatus() != BookingPipeline.TicketStatus.REJECTED);
+        body.put("requestId", ticket.getId());
+        body.put("status", ticket.getStatus());
+        body.put("hotelId", ticket.getHotelId());
+        body.put("roomId", ticket.getRoomId());
+        body.put("bookingId", ticket.getBookingId());
+        body.put("message", ticket.getMessage());
+        return body;
+    }
+
     // ✅ GET my bookings - FIXED
     @GetMapping("/my")
     public ResponseEntity<?> getMyBookings() {
@@ -1,17 +1,20 @@
 package com.stayease.backend.controller;
 
+import com.stayease.backend.dto.HotelCursor;
+import com.stayease.backend.dto.HotelPageDTO;
 import com.stayease.backend.dto.HotelResponseDTO;
 import com.stayease.backend.dto.RoomResponseDTO;
 import com.stayease.backend.model.Hotel;
 import com.stayease.backend.model.Room;
+import com.stayease.backend.service.HotelReadService;
 import com.stayease.backend.service.HotelService;
 import com.stayease.backend.repository.RoomRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/hotels")
@@ -24,18 +27,52 @@ public class HotelController {
     @Autowired
     private RoomRepository roomRepository;
 
-    // ✅ GET all hotels (with DTO to avoid circular reference)
+    @Autowired
+    private HotelReadService hotelReadService;
+
+    private int defaultPageSize = 20;
+    private int maxPageSize = 100;
+
+    @Value("${stayease.catalog.pageSize:20}")
+    void setDefaultPageSize(int defaultPageSize) {
+        this.defaultPageSize = defaultPageSize;
+    }
+
+    @Value("${stayease.catalog.maxPageSize:100}")
+    void setMaxPageSize(int maxPageSize) {
+        this.maxPageSize = maxPageSize;
+    }
+
+    // ✅ GET hotels one page at a time, pass nextCursor back to continue
     @GetMapping
-    public ResponseEntity<List<HotelResponseDTO>> getAllHotels() {
-        System.out.println("✅ GET /api/hotels - Fetching all hotels");
-        List<Hotel> hotels = hotelService.getAll();
+    public ResponseEntity<HotelPageDTO> getAllHotels(@RequestParam(defaultValue = HotelCursor.BY_RATING) String sort,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer size) {
+        System.out.println("✅ GET /api/hotels - sort=" + sort + ", cursor=" + cursor);
+        if (!HotelCursor.BY_RATING.equals(sort) && !HotelCursor.BY_NAME.equals(sort)) {
+            throw new IllegalArgumentException("Unsupported sort: " + sort);
+        }
+        HotelCursor after = cursor != null && !cursor.isBlank() ? HotelCursor.decode(cursor) : null;
+        if (after != null && !after.getSort().equals(sort)) {
+            throw new IllegalArgumentException("Cursor was issued for sort=" + after.getSort());
+        }
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
 
-        List<HotelResponseDTO> hotelDTOs = hotels.stream()
-                .map(this::convertToHotelDTO)
-                .collect(Collectors.toList());
+        // one extra row tells us whether another page exists
+        List<Hotel> hotels = hotelService.getPage(sort, after, pageSize + 1);
+        boolean hasMore = hotels.size() > pageSize;
+        if (hasMore) {
+            hotels = hotels.subList(0, pageSize);
+        }
 
-        System.out.println("✅ Hotels converted to DTOs: " + hotelDTOs.size());
-        return ResponseEntity.ok(hotelDTOs);
+        HotelPageDTO page = new HotelPageDTO();
+        // catalog entries skip rooms, clients fetch those from /{id}/rooms
+        page.setHotels(hotelReadService.toHotelDTOs(hotels, false));
+        page.setSort(sort);
+        page.setSize(pageSize);
+        page.setHasMore(hasMore);
+        page.setNextCursor(hasMore ? HotelCursor.after(sort, hotels.get(hotels.size() - 1)).encode() : null);
+        return ResponseEntity.ok(page);
     }
 
     // ✅ GET hotel by ID
@@ -43,26 +80,27 @@ public class HotelController {
     public ResponseEntity<HotelResponseDTO> getHotelById(@PathVariable Long id) {
         System.out.println("✅ GET /api/hotels/" + id);
         Hotel hotel = hotelService.getById(id);
-        return ResponseEntity.ok(convertToHotelDTO(hotel));
+        return ResponseEntity.ok(hotelReadService.toHotelDTO(hotel));
     }
 
     // ✅ SEARCH hotels by location
     @GetMapping("/search")
-    public ResponseEntity<List<HotelResponseDTO>> searchHotels(@RequestParam(required = false) String location) {
+    public ResponseEntity<List<HotelResponseDTO>> searchHotels(@RequestParam(required = false) String location,
+                                                               @RequestParam(required = false) Double minPrice,
+                                                               @RequestParam(required = false) Double maxPrice,
+                                                               @RequestParam(required = false) Double minRating) {
         System.out.println("✅ GET /api/hotels/search?location=" + location);
         List<Hotel> hotels;
 
-        if (location != null && !location.trim().isEmpty()) {
+        if (minPrice != null || maxPrice != null || minRating != null) {
+            hotels = hotelService.searchHotels(location, minPrice, maxPrice, minRating);
+        } else if (location != null && !location.trim().isEmpty()) {
             hotels = hotelService.searchByLocation(location);
         } else {
             hotels = hotelService.getAll();
         }
 
-        List<HotelResponseDTO> hotelDTOs = hotels.stream()
-                .map(this::convertToHotelDTO)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(hotelDTOs);
+        return ResponseEntity.ok(hotelReadService.toHotelDTOs(hotels, true));
     }
 
     // ✅ GET rooms for a hotel
@@ -70,62 +108,7 @@ public class HotelController {
     public ResponseEntity<List<RoomResponseDTO>> getHotelRooms(@PathVariable Long id) {
         System.out.println("✅ GET /api/hotels/" + id + "/rooms");
         List<Room> rooms = roomRepository.findByHotelId(id);
-
-        List<RoomResponseDTO> roomDTOs = rooms.stream()
-                .map(this::convertToRoomDTO)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(roomDTOs);
-    }
-
-    // Helper method to convert Hotel to HotelResponseDTO
-    private HotelResponseDTO convertToHotelDTO(Hotel hotel) {
-        if (hotel == null) return null;
-
-        HotelResponseDTO dto = new HotelResponseDTO();
-        dto.setId(hotel.getId());
-        dto.setName(hotel.getName());
-        dto.setAddress(hotel.getAddress());
-        dto.setCity(hotel.getCity());
-        dto.setState(hotel.getState());
-        dto.setPincode(hotel.getPincode());
-        dto.setDescription(hotel.getDescription());
-        dto.setRating(hotel.getRating());
-        dto.setTotalReviews(hotel.getTotalReviews());
-        dto.setAmenities(hotel.getAmenities());
-        dto.setImages(hotel.getImages());
-        dto.setContactEmail(hotel.getContactEmail());
-        dto.setContactPhone(hotel.getContactPhone());
-        dto.setWebsite(hotel.getWebsite());
-
-        // Convert rooms to DTOs
-        if (hotel.getRooms() != null) {
-            List<RoomResponseDTO> roomDTOs = hotel.getRooms().stream()
-                    .map(this::convertToRoomDTO)
-                    .collect(Collectors.toList());
-            dto.setRooms(roomDTOs);
-        }
-
-        return dto;
-    }
-
-    // Helper method to convert Room to RoomResponseDTO
-    private RoomResponseDTO convertToRoomDTO(Room room) {
-        if (room == null) return null;
-
-        RoomResponseDTO dto = new RoomResponseDTO();
-        dto.setId(room.getId());
-        dto.setRoomNumber(room.getRoomNumber());
-        dto.setType(room.getType());
-        dto.setPricePerNight(room.getPricePerNight());
-        dto.setCapacity(room.getCapacity());
-        dto.setSize(room.getSize());
-        dto.setAvailable(room.getAvailable());
-        dto.setFeatures(room.getFeatures());
-        dto.setImages(room.getImages());
-        dto.setHotelId(room.getHotel() != null ? room.getHotel().getId() : null);
-
-        return dto;
+        return ResponseEntity.ok(hotelReadService.toRoomDTOs(rooms));
     }
 
     // Other methods remain same...
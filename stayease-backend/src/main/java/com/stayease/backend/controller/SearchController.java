@@ -1,5 +1,6 @@
 package com.stayease.backend.controller;
 
+import com.stayease.backend.dto.HotelAvailabilityDTO;
 import com.stayease.backend.model.Room;
 import com.stayease.backend.service.SearchService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,4 +23,13 @@ public class SearchController {
                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut) {
         return searchService.findAvailableRooms(hotelId, checkIn, checkOut);
     }
+
+    // City-wide search: every hotel in the location with rooms free for the whole stay
+    @GetMapping("/availability")
+    public List<HotelAvailabilityDTO> availability(@RequestParam String location,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
+                                                   @RequestParam(defaultValue = "1") Integer guests) {
+        return searchService.searchAvailability(location, checkIn, checkOut, guests);
+    }
 }
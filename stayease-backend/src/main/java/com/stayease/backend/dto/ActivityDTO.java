@@ -0,0 +1,20 @@
+package com.stayease.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One line of the admin recent-activity feed
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityDTO {
+    private String id;
+    private String type;
+    private String message;
+    private LocalDateTime timestamp;
+    private String user;
+    private String icon;
+}
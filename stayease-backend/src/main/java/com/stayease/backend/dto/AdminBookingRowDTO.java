@@ -0,0 +1,11 @@
+package com.stayease.backend.dto;
+
+import com.stayease.backend.model.BookingStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// One row of the admin booking listing, selected with its hotel and user names in a single join
+public record AdminBookingRowDTO(Long id, String hotelName, String userName, LocalDate checkIn, LocalDate checkOut,
+                                 Double totalAmount, BookingStatus status, LocalDateTime createdAt) {
+}
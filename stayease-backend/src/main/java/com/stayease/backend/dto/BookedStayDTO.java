@@ -0,0 +1,17 @@
+package com.stayease.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Only the columns the availability index needs, no entity hydration
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookedStayDTO {
+    private Long roomId;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+}
@@ -0,0 +1,12 @@
+package com.stayease.backend.dto;
+
+import com.stayease.backend.model.BookingStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// One booking in the finance export, read straight from a joined query
+public record BookingExportRowDTO(Long id, Long hotelId, String hotelName, String username, String email,
+                                  LocalDate checkIn, LocalDate checkOut, Integer guests, Double totalAmount,
+                                  BookingStatus status, LocalDateTime createdAt) {
+}
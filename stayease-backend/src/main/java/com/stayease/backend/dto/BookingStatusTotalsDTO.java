@@ -0,0 +1,16 @@
+package com.stayease.backend.dto;
+
+import com.stayease.backend.model.BookingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One row of the bookings-by-status aggregate: how many, and what they add up to
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingStatusTotalsDTO {
+    private BookingStatus status;
+    private Long count;
+    private Double revenue;
+}
@@ -0,0 +1,26 @@
+package com.stayease.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardStatsDTO {
+    private long totalUsers;
+    private long totalHotels;
+    private long totalBookings;
+    private double totalRevenue;
+    private long pendingBookings;
+    private long confirmedBookings;
+    private long completedPayments;
+    private double paidRevenue;
+    private Map<String, Long> bookingsByStatus;
+    @Builder.Default
+    private boolean success = true;
+}
@@ -0,0 +1,16 @@
+package com.stayease.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A lapsed PENDING booking as the hold sweeper sees it, no entity hydration
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpiredHoldDTO {
+    private Long bookingId;
+    private Long roomId;
+    private Long hotelId;
+    private Double totalAmount;
+}
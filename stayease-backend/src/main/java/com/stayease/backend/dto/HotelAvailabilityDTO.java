@@ -0,0 +1,17 @@
+package com.stayease.backend.dto;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class HotelAvailabilityDTO {
+    private Long hotelId;
+    private String name;
+    private String address;
+    private String city;
+    private String state;
+    private Double rating;
+    private Double lowestPrice; // cheapest available room for the stay, per night
+    private Integer availableRooms;
+    private List<RoomTypeAvailabilityDTO> roomTypes;
+}
@@ -0,0 +1,55 @@
+package com.stayease.backend.dto;
+
+import com.stayease.backend.model.Hotel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Continuation token for the hotel catalog. Holds the sort key and id of the last
+ * hotel on the previous page; clients only ever see the base64url form.
+ */
+@Getter
+@AllArgsConstructor
+public class HotelCursor {
+
+    public static final String BY_RATING = "rating";
+    public static final String BY_NAME = "name";
+
+    private String sort;
+    private String key;
+    private Long id;
+
+    public static HotelCursor after(String sort, Hotel last) {
+        String key = BY_NAME.equals(sort) ? last.getName() : String.valueOf(last.getRating());
+        return new HotelCursor(sort, key, last.getId());
+    }
+
+    public Double getRating() {
+        return Double.valueOf(key);
+    }
+
+    public String encode() {
+        String raw = sort + "|" + id + "|" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static HotelCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // the key goes last so a name containing '|' survives the split
+            String[] parts = raw.split("\\|", 3);
+            HotelCursor cursor = new HotelCursor(parts[0], parts[2], Long.valueOf(parts[1]));
+            if (BY_RATING.equals(cursor.sort)) {
+                cursor.getRating();
+            } else if (!BY_NAME.equals(cursor.sort)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return cursor;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.stayease.backend.dto;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class HotelPageDTO {
+    private List<HotelResponseDTO> hotels;
+    private String sort;
+    private Integer size;
+    private Boolean hasMore;
+    private String nextCursor;
+}
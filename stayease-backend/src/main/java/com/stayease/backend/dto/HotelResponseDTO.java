@@ -14,6 +14,8 @@ public class HotelResponseDTO {
     private String description;
     private Double rating;
     private Integer totalReviews;
+    private Double minPricePerNight;
+    private Double maxPricePerNight;
     private List<String> amenities;
     private List<String> images;
     private String contactEmail;
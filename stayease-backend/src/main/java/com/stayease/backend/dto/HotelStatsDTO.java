@@ -0,0 +1,17 @@
+package com.stayease.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotelStatsDTO {
+    private Long hotelId;
+    private long totalBookings;
+    private double bookedAmount;
+    private double paidRevenue;
+}
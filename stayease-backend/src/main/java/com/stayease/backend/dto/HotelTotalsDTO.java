@@ -0,0 +1,15 @@
+package com.stayease.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Per-hotel count and amount from a GROUP BY hotel aggregate
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotelTotalsDTO {
+    private Long hotelId;
+    private Long count;
+    private Double amount;
+}
@@ -0,0 +1,14 @@
+package com.stayease.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One element of an @ElementCollection together with the id of the row that owns it
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OwnedValueDTO {
+    private Long ownerId;
+    private String value;
+}
@@ -0,0 +1,11 @@
+package com.stayease.backend.dto;
+
+import com.stayease.backend.model.PaymentStatus;
+
+import java.time.LocalDateTime;
+
+// One payment in the finance export, read straight from a joined query
+public record PaymentExportRowDTO(Long id, Long bookingId, Long hotelId, String hotelName, Double amount,
+                                  PaymentStatus status, String paymentMethod, String transactionId,
+                                  LocalDateTime createdAt) {
+}
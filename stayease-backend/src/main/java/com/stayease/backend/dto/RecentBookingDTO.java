@@ -0,0 +1,17 @@
+package com.stayease.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A newest booking with its owner's username, read in one join for the activity feed
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecentBookingDTO {
+    private Long bookingId;
+    private String username;
+    private LocalDateTime createdAt;
+}
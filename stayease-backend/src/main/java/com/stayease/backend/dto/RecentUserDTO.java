@@ -0,0 +1,17 @@
+package com.stayease.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A newest sign-up for the activity feed, without loading the whole user row
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecentUserDTO {
+    private Long userId;
+    private String username;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,11 @@
+package com.stayease.backend.dto;
+
+import lombok.Data;
+
+@Data
+public class RoomTypeAvailabilityDTO {
+    private String type;
+    private Double lowestPrice;
+    private Integer maxCapacity;
+    private Integer availableRooms;
+}
@@ -0,0 +1,23 @@
+package com.stayease.backend.event;
+
+import com.stayease.backend.model.Booking;
+import com.stayease.backend.model.BookingStatus;
+import org.hibernate.Hibernate;
+
+/**
+ * Published after a booking is created (previousStatus null) or moves to another
+ * status, once the change is committed. Carries what the dashboard counters and the
+ * activity feed need so listeners never reload the booking. username is only filled
+ * in when the booking's user is already loaded, and is null otherwise.
+ */
+public record BookingStatusChangedEvent(Long bookingId, Long hotelId, BookingStatus previousStatus,
+                                        BookingStatus status, Double totalAmount, String username) {
+
+    public static BookingStatusChangedEvent of(Booking booking, BookingStatus previousStatus) {
+        Long hotelId = booking.getHotel() == null ? null : booking.getHotel().getId();
+        String username = booking.getUser() != null && Hibernate.isInitialized(booking.getUser())
+                ? booking.getUser().getUsername() : null;
+        return new BookingStatusChangedEvent(booking.getId(), hotelId, previousStatus, booking.getStatus(),
+                booking.getTotalAmount(), username);
+    }
+}
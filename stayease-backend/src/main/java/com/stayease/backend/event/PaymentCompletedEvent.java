@@ -0,0 +1,7 @@
+package com.stayease.backend.event;
+
+/**
+ * Published once per payment when it first reaches COMPLETED.
+ */
+public record PaymentCompletedEvent(Long paymentId, Long bookingId, Long hotelId, Double amount) {
+}
@@ -0,0 +1,7 @@
+package com.stayease.backend.event;
+
+/**
+ * Published when a counted entity row is inserted (delta 1) or deleted (delta -1).
+ */
+public record RowCountChangedEvent(Class<?> entityType, long delta) {
+}
@@ -0,0 +1,30 @@
+package com.stayease.backend.event;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA listener on entities whose totals the admin dashboard shows (users, hotels).
+ * Like UserChangeListener it hooks the entity, so sign-ups, admin deletes and the
+ * startup data seeder are all counted. Bulk JPQL deletes bypass it.
+ */
+public class RowCountListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    public RowCountListener(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @PostPersist
+    public void onInsert(Object entity) {
+        publisher.publishEvent(new RowCountChangedEvent(Hibernate.getClass(entity), 1));
+    }
+
+    @PostRemove
+    public void onDelete(Object entity) {
+        publisher.publishEvent(new RowCountChangedEvent(Hibernate.getClass(entity), -1));
+    }
+}
@@ -0,0 +1,29 @@
+package com.stayease.backend.event;
+
+import com.stayease.backend.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA listener on User. Hooking the entity rather than individual endpoints means
+ * role changes, password changes and admin deletes all invalidate user caches,
+ * whichever code path made them. Created by Hibernate through Spring's bean
+ * container, so the publisher is injected.
+ */
+public class UserChangeListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    public UserChangeListener(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(User user) {
+        publisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
+    }
+}
@@ -0,0 +1,8 @@
+package com.stayease.backend.event;
+
+/**
+ * Published whenever a user row is inserted, updated or deleted, so anything
+ * caching users can drop its copy.
+ */
+public record UserChangedEvent(Long userId, String username) {
+}
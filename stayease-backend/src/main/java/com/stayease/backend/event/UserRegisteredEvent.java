@@ -0,0 +1,10 @@
+package com.stayease.backend.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a new account is registered. UserChangedEvent fires for every
+ * insert, update and delete; this one only marks a sign-up, for the activity feed.
+ */
+public record UserRegisteredEvent(Long userId, String username, LocalDateTime createdAt) {
+}
@@ -2,12 +2,18 @@ package com.stayease.backend.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        // lets the hold sweeper range-scan PENDING rows by expiry instead of the whole table
+        @Index(name = "idx_bookings_status_hold", columnList = "status, holdExpiresAt"),
+        // admin listing pages newest first
+        @Index(name = "idx_bookings_created", columnList = "createdAt, id")
+})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Booking {
     @Id
@@ -39,6 +45,14 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
 
+    // When a PENDING booking stops reserving the room; null only on rows from before holds existed
+    private LocalDateTime holdExpiresAt;
+
+    // Bumped on every update; a save carrying an older value fails instead of overwriting
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
     private String guestName;
     private String guestEmail;
     private String guestPhone;
@@ -64,6 +78,14 @@ public class Booking {
         }
     }
 
+    // Whether this booking keeps the room off the market at the given moment
+    public boolean holdsRoom(LocalDateTime now) {
+        if (status == BookingStatus.CONFIRMED) {
+            return true;
+        }
+        return status == BookingStatus.PENDING && (holdExpiresAt == null || holdExpiresAt.isAfter(now));
+    }
+
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
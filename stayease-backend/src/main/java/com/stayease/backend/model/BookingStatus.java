@@ -1,8 +1,16 @@
 package com.stayease.backend.model;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum BookingStatus {
     PENDING,
     CONFIRMED,
     CANCELLED,
-    COMPLETED
-}
\ No newline at end of file
+    COMPLETED,
+    EXPIRED; // a PENDING booking whose hold ran out before payment
+
+    // Statuses that take a room off the market for their nights.
+    // PENDING only counts while its hold is live (see Booking.holdsRoom).
+    public static final Set<BookingStatus> BLOCKING = EnumSet.of(PENDING, CONFIRMED);
+}
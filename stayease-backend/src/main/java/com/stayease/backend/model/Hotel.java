@@ -3,6 +3,7 @@ package com.stayease.backend.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.stayease.backend.event.RowCountListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -10,7 +11,12 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "hotels")
+@Table(name = "hotels", indexes = {
+        @Index(name = "idx_hotels_min_price_rating", columnList = "minPricePerNight, rating"),
+        @Index(name = "idx_hotels_rating_id", columnList = "rating, id"),
+        @Index(name = "idx_hotels_name_id", columnList = "name, id")
+})
+@EntityListeners(RowCountListener.class)
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Hotel {
@@ -38,6 +44,11 @@ public class Hotel {
     private Integer totalRooms = 0;
     private Integer availableRooms = 0;
 
+    // Denormalized from rooms, kept current by HotelRepository.refreshRoomStats
+    private Double minPricePerNight;
+    private Double maxPricePerNight;
+    private Integer maxCapacity;
+
     @ElementCollection
     private List<String> amenities;
 
@@ -60,6 +71,14 @@ public class Hotel {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        // builder-made hotels skip the field default; catalog keyset paging needs a rating
+        if (rating == null) rating = 4.0;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+        if (rating == null) rating = 4.0;
     }
 
 
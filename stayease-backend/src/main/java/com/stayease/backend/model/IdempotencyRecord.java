@@ -0,0 +1,39 @@
+package com.stayease.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// One Idempotency-Key per client and endpoint. The row is inserted before the request runs,
+// so the unique requestKey is what stops two nodes executing the same retry.
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires", columnList = "expiresAt")
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class IdempotencyRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // "<client> <method> <path> <key>"
+    @Column(nullable = false, unique = true, length = 512)
+    private String requestKey;
+
+    // SHA-256 of method, path and body; a reused key with a different request is rejected
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    // false while the first request is still running
+    private boolean completed;
+
+    private Integer responseStatus;
+    private String responseContentType;
+
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+}
@@ -2,6 +2,7 @@ package com.stayease.backend.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
@@ -28,6 +29,10 @@ public class Payment {
     private String razorpayPaymentId;
     private String razorpaySignature;
 
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.List;
 
@@ -30,6 +31,10 @@ public class Room {
     private Integer size;
     private Boolean available = true;
 
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
     @ElementCollection
     private List<String> features;
 
@@ -0,0 +1,21 @@
+package com.stayease.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// One named dashboard counter, checkpointed from memory by DashboardProjector
+@Entity
+@Table(name = "stats_counters")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class StatsCounter {
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(nullable = false)
+    private Long total;
+
+    private LocalDateTime updatedAt;
+}
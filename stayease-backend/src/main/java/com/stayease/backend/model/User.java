@@ -1,5 +1,7 @@
 package com.stayease.backend.model;
 
+import com.stayease.backend.event.RowCountListener;
+import com.stayease.backend.event.UserChangeListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -7,6 +9,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "users")
+@EntityListeners({UserChangeListener.class, RowCountListener.class})
 @Builder
 @Getter @Setter
 @NoArgsConstructor
@@ -1,14 +1,37 @@
 package com.stayease.backend.repository;
 
+import com.stayease.backend.dto.AdminBookingRowDTO;
+import com.stayease.backend.dto.BookedStayDTO;
+import com.stayease.backend.dto.BookingExportRowDTO;
+import com.stayease.backend.dto.BookingStatusTotalsDTO;
+import com.stayease.backend.dto.ExpiredHoldDTO;
+import com.stayease.backend.dto.HotelTotalsDTO;
+import com.stayease.backend.dto.RecentBookingDTO;
 import com.stayease.backend.model.Booking;
 import com.stayease.backend.model.BookingStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+
+    // Rows per round trip for the export cursors, here and in PaymentRepository
+    int EXPORT_FETCH_SIZE = 500;
     List<Booking> findByUserId(Long userId);
 
     // find bookings that collide with a date range for a room
@@ -17,6 +40,18 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     List<Booking> findByRoomIdAndCheckInLessThanEqualAndCheckOutGreaterThanEqual(Long roomId, LocalDate end, LocalDate start);
 
+    // Whether another booking in :statuses shares a night with [checkIn, checkOut),
+    // ignoring PENDING bookings whose hold has lapsed by :now
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.room.id = :roomId AND b.status IN :statuses " +
+            "AND b.checkIn < :checkOut AND b.checkOut > :checkIn AND (:excludeId IS NULL OR b.id <> :excludeId) " +
+            "AND (b.status <> com.stayease.backend.model.BookingStatus.PENDING OR b.holdExpiresAt IS NULL OR b.holdExpiresAt > :now)")
+    boolean existsOverlapping(@Param("roomId") Long roomId,
+                              @Param("checkIn") LocalDate checkIn,
+                              @Param("checkOut") LocalDate checkOut,
+                              @Param("statuses") Collection<BookingStatus> statuses,
+                              @Param("excludeId") Long excludeId,
+                              @Param("now") LocalDateTime now);
+
     // New methods for the added service methods
     List<Booking> findByHotelId(Long hotelId);
     List<Booking> findByStatus(BookingStatus status);
@@ -27,9 +62,111 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query("SELECT b FROM Booking b ORDER BY b.createdAt DESC LIMIT :limit")
     List<Booking> findTopByOrderByCreatedAtDesc(int limit);
 
+    // Dashboard totals in one pass: a row per status, however many bookings there are
+    @Query("SELECT new com.stayease.backend.dto.BookingStatusTotalsDTO(b.status, COUNT(b), COALESCE(SUM(b.totalAmount), 0.0)) " +
+            "FROM Booking b GROUP BY b.status")
+    List<BookingStatusTotalsDTO> summarizeByStatus();
+
+    @Query("SELECT new com.stayease.backend.dto.HotelTotalsDTO(b.hotel.id, COUNT(b), COALESCE(SUM(b.totalAmount), 0.0)) " +
+            "FROM Booking b GROUP BY b.hotel.id")
+    List<HotelTotalsDTO> summarizeByHotel();
+
+    // Newest bookings with the owner's username joined in, for seeding the activity feed
+    @Query("SELECT new com.stayease.backend.dto.RecentBookingDTO(b.id, u.username, b.createdAt) " +
+            "FROM Booking b LEFT JOIN b.user u WHERE b.createdAt IS NOT NULL ORDER BY b.createdAt DESC LIMIT :limit")
+    List<RecentBookingDTO> findRecentBookings(@Param("limit") int limit);
+
+    // Admin listing, newest first. Each filter is skipped when null; from/to keep stays
+    // overlapping that range. A Slice reads one row past the page instead of counting.
+    // Missing hotel, user or status fall back as the old listing did.
+    @Query("SELECT new com.stayease.backend.dto.AdminBookingRowDTO(b.id, COALESCE(h.name, 'Unknown Hotel'), " +
+            "COALESCE(u.username, 'Unknown User'), b.checkIn, b.checkOut, b.totalAmount, " +
+            "COALESCE(b.status, com.stayease.backend.model.BookingStatus.PENDING), b.createdAt) " +
+            "FROM Booking b LEFT JOIN b.hotel h LEFT JOIN b.user u " +
+            "WHERE (:status IS NULL OR b.status = :status) " +
+            "AND (:hotelId IS NULL OR h.id = :hotelId) " +
+            "AND (:from IS NULL OR b.checkOut > :from) " +
+            "AND (:to IS NULL OR b.checkIn < :to) " +
+            "ORDER BY b.createdAt DESC, b.id DESC")
+    Slice<AdminBookingRowDTO> findAdminRows(@Param("status") BookingStatus status,
+                                           @Param("hotelId") Long hotelId,
+                                           @Param("from") LocalDate from,
+                                           @Param("to") LocalDate to,
+                                           Pageable page);
+
+    // Finance export: a forward-only cursor over bookings created in [from, to), read in
+    // fetch-size batches. Must be consumed inside a read-only transaction and closed.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.stayease.backend.dto.BookingExportRowDTO(b.id, h.id, h.name, u.username, u.email, " +
+            "b.checkIn, b.checkOut, b.guests, b.totalAmount, b.status, b.createdAt) " +
+            "FROM Booking b LEFT JOIN b.hotel h LEFT JOIN b.user u " +
+            "WHERE (:from IS NULL OR b.createdAt >= :from) AND (:to IS NULL OR b.createdAt < :to) " +
+            "ORDER BY b.id")
+    Stream<BookingExportRowDTO> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
     // Additional useful methods
     List<Booking> findByGuestEmail(String email);
     List<Booking> findByCheckInBetween(LocalDate start, LocalDate end);
     List<Booking> findByCheckOutBetween(LocalDate start, LocalDate end);
     Long countByStatus(BookingStatus status);
+
+    // Stays still occupying nights on or after :from, used to build the availability index
+    @Query("SELECT new com.stayease.backend.dto.BookedStayDTO(b.room.id, b.checkIn, b.checkOut) FROM Booking b " +
+            "WHERE b.status IN :statuses AND b.checkOut > :from " +
+            "AND (b.status <> com.stayease.backend.model.BookingStatus.PENDING OR b.holdExpiresAt IS NULL OR b.holdExpiresAt > :now)")
+    List<BookedStayDTO> findBookedStays(@Param("statuses") Collection<BookingStatus> statuses,
+                                        @Param("from") LocalDate from,
+                                        @Param("now") LocalDateTime now);
+
+    // Stays sharing a night with [from, to), for the nights a day change brings into the index horizon
+    @Query("SELECT new com.stayease.backend.dto.BookedStayDTO(b.room.id, b.checkIn, b.checkOut) FROM Booking b " +
+            "WHERE b.status IN :statuses AND b.checkIn < :to AND b.checkOut > :from " +
+            "AND (b.status <> com.stayease.backend.model.BookingStatus.PENDING OR b.holdExpiresAt IS NULL OR b.holdExpiresAt > :now)")
+    List<BookedStayDTO> findBookedStaysBetween(@Param("statuses") Collection<BookingStatus> statuses,
+                                               @Param("from") LocalDate from,
+                                               @Param("to") LocalDate to,
+                                               @Param("now") LocalDateTime now);
+
+    @Query("SELECT new com.stayease.backend.dto.BookedStayDTO(b.room.id, b.checkIn, b.checkOut) FROM Booking b " +
+            "WHERE b.room.id = :roomId AND b.status IN :statuses AND b.checkOut > :from " +
+            "AND (b.status <> com.stayease.backend.model.BookingStatus.PENDING OR b.holdExpiresAt IS NULL OR b.holdExpiresAt > :now)")
+    List<BookedStayDTO> findBookedStaysForRoom(@Param("roomId") Long roomId,
+                                               @Param("statuses") Collection<BookingStatus> statuses,
+                                               @Param("from") LocalDate from,
+                                               @Param("now") LocalDateTime now);
+
+    // Stays on any of :roomIds that share a night with [from, to), for checking a group booking in one query
+    @Query("SELECT new com.stayease.backend.dto.BookedStayDTO(b.room.id, b.checkIn, b.checkOut) FROM Booking b " +
+            "WHERE b.room.id IN :roomIds AND b.status IN :statuses AND b.checkIn < :to AND b.checkOut > :from " +
+            "AND (b.status <> com.stayease.backend.model.BookingStatus.PENDING OR b.holdExpiresAt IS NULL OR b.holdExpiresAt > :now)")
+    List<BookedStayDTO> findBookedStaysForRooms(@Param("roomIds") Collection<Long> roomIds,
+                                                @Param("statuses") Collection<BookingStatus> statuses,
+                                                @Param("from") LocalDate from,
+                                                @Param("to") LocalDate to,
+                                                @Param("now") LocalDateTime now);
+
+    // Hold expiry. Both statements range-scan idx_bookings_status_hold.
+    // Locked until the sweeper's UPDATE commits, so a payment cannot confirm a row counted as expired
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.stayease.backend.dto.ExpiredHoldDTO(b.id, b.room.id, b.hotel.id, b.totalAmount) FROM Booking b " +
+            "WHERE b.status = com.stayease.backend.model.BookingStatus.PENDING AND b.holdExpiresAt <= :now")
+    List<ExpiredHoldDTO> findExpiredHoldsForUpdate(@Param("now") LocalDateTime now);
+
+    // Releases every lapsed hold in one statement; rows confirmed in the meantime no longer match.
+    // VERSIONED bumps each row's version, so a save still holding the PENDING copy fails instead of undoing this.
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE VERSIONED Booking b SET b.status = com.stayease.backend.model.BookingStatus.EXPIRED, b.updatedAt = :now " +
+            "WHERE b.status = com.stayease.backend.model.BookingStatus.PENDING AND b.holdExpiresAt <= :now")
+    int expireHolds(@Param("now") LocalDateTime now);
+
+    // Gives PENDING rows written before holds existed a deadline, so they expire like any other
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE VERSIONED Booking b SET b.holdExpiresAt = :expiresAt " +
+            "WHERE b.status = com.stayease.backend.model.BookingStatus.PENDING AND b.holdExpiresAt IS NULL")
+    int assignMissingHolds(@Param("expiresAt") LocalDateTime expiresAt);
 }
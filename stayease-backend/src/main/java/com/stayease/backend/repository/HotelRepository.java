@@ -1,9 +1,15 @@
 package com.stayease.backend.repository;
 
+import com.stayease.backend.dto.OwnedValueDTO;
 import com.stayease.backend.model.Hotel;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
 import java.util.List;
 
 public interface HotelRepository extends JpaRepository<Hotel, Long> {
@@ -11,4 +17,69 @@ public interface HotelRepository extends JpaRepository<Hotel, Long> {
 
     @Query("SELECT h FROM Hotel h WHERE LOWER(h.address) LIKE LOWER(CONCAT('%', :location, '%')) OR LOWER(h.city) LIKE LOWER(CONCAT('%', :location, '%'))")
     List<Hotel> searchByLocation(@Param("location") String location);
-}
\ No newline at end of file
+
+    // Recomputes the denormalized room price/capacity columns of one hotel
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Hotel h SET " +
+            "h.minPricePerNight = (SELECT MIN(r.pricePerNight) FROM Room r WHERE r.hotel.id = h.id), " +
+            "h.maxPricePerNight = (SELECT MAX(r.pricePerNight) FROM Room r WHERE r.hotel.id = h.id), " +
+            "h.maxCapacity = (SELECT MAX(r.capacity) FROM Room r WHERE r.hotel.id = h.id) " +
+            "WHERE h.id = :hotelId")
+    int refreshRoomStats(@Param("hotelId") Long hotelId);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Hotel h SET " +
+            "h.minPricePerNight = (SELECT MIN(r.pricePerNight) FROM Room r WHERE r.hotel.id = h.id), " +
+            "h.maxPricePerNight = (SELECT MAX(r.pricePerNight) FROM Room r WHERE r.hotel.id = h.id), " +
+            "h.maxCapacity = (SELECT MAX(r.capacity) FROM Room r WHERE r.hotel.id = h.id)")
+    int refreshAllRoomStats();
+
+    // Price bounds apply to the cheapest room, same as the old in-memory filter; null means no bound
+    @Query("SELECT h FROM Hotel h WHERE h.id IN :ids " +
+            "AND (:minPrice IS NULL OR h.minPricePerNight >= :minPrice) " +
+            "AND (:maxPrice IS NULL OR h.minPricePerNight <= :maxPrice) " +
+            "AND (:minRating IS NULL OR h.rating >= :minRating)")
+    List<Hotel> filterByPriceAndRating(@Param("ids") Collection<Long> ids,
+                                       @Param("minPrice") Double minPrice,
+                                       @Param("maxPrice") Double maxPrice,
+                                       @Param("minRating") Double minRating);
+
+    @Query("SELECT h FROM Hotel h WHERE " +
+            "(:minPrice IS NULL OR h.minPricePerNight >= :minPrice) " +
+            "AND (:maxPrice IS NULL OR h.minPricePerNight <= :maxPrice) " +
+            "AND (:minRating IS NULL OR h.rating >= :minRating) " +
+            "ORDER BY h.rating DESC, h.id")
+    List<Hotel> filterAllByPriceAndRating(@Param("minPrice") Double minPrice,
+                                          @Param("maxPrice") Double maxPrice,
+                                          @Param("minRating") Double minRating);
+
+    // Keyset pages for the catalog: the "after" variants seek past the last row of
+    // the previous page, so page 500 costs the same index range scan as page 1
+    @Query("SELECT h FROM Hotel h ORDER BY h.rating DESC, h.id ASC")
+    List<Hotel> findRatingPage(Pageable page);
+
+    @Query("SELECT h FROM Hotel h WHERE h.rating < :rating OR (h.rating = :rating AND h.id > :id) " +
+            "ORDER BY h.rating DESC, h.id ASC")
+    List<Hotel> findRatingPageAfter(@Param("rating") Double rating, @Param("id") Long id, Pageable page);
+
+    @Query("SELECT h FROM Hotel h ORDER BY h.name ASC, h.id ASC")
+    List<Hotel> findNamePage(Pageable page);
+
+    @Query("SELECT h FROM Hotel h WHERE h.name > :name OR (h.name = :name AND h.id > :id) " +
+            "ORDER BY h.name ASC, h.id ASC")
+    List<Hotel> findNamePageAfter(@Param("name") String name, @Param("id") Long id, Pageable page);
+
+    // Keyset paging skips NULL ratings, older rows get the entity default
+    @Transactional
+    @Modifying
+    @Query("UPDATE Hotel h SET h.rating = 4.0 WHERE h.rating IS NULL")
+    int fillMissingRatings();
+
+    @Query("SELECT new com.stayease.backend.dto.OwnedValueDTO(h.id, a) FROM Hotel h JOIN h.amenities a WHERE h.id IN :ids")
+    List<OwnedValueDTO> findAmenities(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.stayease.backend.dto.OwnedValueDTO(h.id, i) FROM Hotel h JOIN h.images i WHERE h.id IN :ids")
+    List<OwnedValueDTO> findImages(@Param("ids") Collection<Long> ids);
+}
@@ -1,12 +1,21 @@
 package com.stayease.backend.repository;
 
+import com.stayease.backend.dto.HotelTotalsDTO;
+import com.stayease.backend.dto.PaymentExportRowDTO;
 import com.stayease.backend.model.Payment;
 import com.stayease.backend.model.PaymentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
@@ -15,4 +24,21 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<Payment> findByTransactionId(String transactionId);
 
     List<Payment> findByStatus(PaymentStatus status);
+
+    // Completed payments per hotel, for seeding the dashboard counters
+    @Query("SELECT new com.stayease.backend.dto.HotelTotalsDTO(p.booking.hotel.id, COUNT(p), COALESCE(SUM(p.amount), 0.0)) " +
+            "FROM Payment p WHERE p.status = com.stayease.backend.model.PaymentStatus.COMPLETED GROUP BY p.booking.hotel.id")
+    List<HotelTotalsDTO> summarizeCompletedByHotel();
+
+    // Finance export, streamed like BookingRepository.streamForExport
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + BookingRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.stayease.backend.dto.PaymentExportRowDTO(p.id, b.id, h.id, h.name, p.amount, p.status, " +
+            "p.paymentMethod, p.transactionId, p.createdAt) " +
+            "FROM Payment p LEFT JOIN p.booking b LEFT JOIN b.hotel h " +
+            "WHERE (:from IS NULL OR p.createdAt >= :from) AND (:to IS NULL OR p.createdAt < :to) " +
+            "ORDER BY p.id")
+    Stream<PaymentExportRowDTO> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
\ No newline at end of file
@@ -1,10 +1,57 @@
 package com.stayease.backend.repository;
 
+import com.stayease.backend.dto.OwnedValueDTO;
+import com.stayease.backend.model.BookingStatus;
 import com.stayease.backend.model.Room;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface RoomRepository extends JpaRepository<Room, Long> {
     List<Room> findByHotelId(Long hotelId);
+
+    // The hotel a room belongs to, without loading the room
+    @Query("SELECT r.hotel.id FROM Room r WHERE r.id = :id")
+    Optional<Long> findHotelIdById(@Param("id") Long id);
+
+    // SELECT ... FOR UPDATE: booking writers for one room queue up on its row until commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Room r WHERE r.id = :id")
+    Optional<Room> findByIdForUpdate(@Param("id") Long id);
+
+    // Group bookings lock all their rooms in one statement, in id order so two groups cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Room r WHERE r.id IN :ids ORDER BY r.id")
+    List<Room> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    // Rooms of a hotel with no overlapping blocking booking, as one anti-join.
+    // Nights are [checkIn, checkOut), so back-to-back stays do not collide.
+    // PENDING stays only count while their hold is live at :now.
+    @Query("SELECT r FROM Room r WHERE r.hotel.id = :hotelId AND NOT EXISTS (" +
+            "SELECT 1 FROM Booking b WHERE b.room = r AND b.status IN :statuses " +
+            "AND b.checkIn < :checkOut AND b.checkOut > :checkIn " +
+            "AND (b.status <> com.stayease.backend.model.BookingStatus.PENDING OR b.holdExpiresAt IS NULL OR b.holdExpiresAt > :now))")
+    List<Room> findAvailableRooms(@Param("hotelId") Long hotelId,
+                                  @Param("checkIn") LocalDate checkIn,
+                                  @Param("checkOut") LocalDate checkOut,
+                                  @Param("statuses") Collection<BookingStatus> statuses,
+                                  @Param("now") LocalDateTime now);
+
+    // Batched read path: rooms and their collections for many hotels in one query each
+    @Query("SELECT r FROM Room r WHERE r.hotel.id IN :hotelIds ORDER BY r.hotel.id, r.id")
+    List<Room> findByHotelIdIn(@Param("hotelIds") Collection<Long> hotelIds);
+
+    @Query("SELECT new com.stayease.backend.dto.OwnedValueDTO(r.id, f) FROM Room r JOIN r.features f WHERE r.id IN :roomIds")
+    List<OwnedValueDTO> findFeatures(@Param("roomIds") Collection<Long> roomIds);
+
+    @Query("SELECT new com.stayease.backend.dto.OwnedValueDTO(r.id, i) FROM Room r JOIN r.images i WHERE r.id IN :roomIds")
+    List<OwnedValueDTO> findImages(@Param("roomIds") Collection<Long> roomIds);
 }
@@ -0,0 +1,25 @@
+package com.stayease.backend.repository;
+
+import com.stayease.backend.model.StatsCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface StatsCounterRepository extends JpaRepository<StatsCounter, String> {
+
+    // Adds rather than overwrites, so several app instances can checkpoint the same counter
+    @Transactional
+    @Modifying
+    @Query("UPDATE StatsCounter c SET c.total = c.total + :delta, c.updatedAt = :now WHERE c.name = :name")
+    int addTo(@Param("name") String name, @Param("delta") long delta, @Param("now") LocalDateTime now);
+
+    // A plain INSERT: fails on an existing name instead of merging over it
+    @Transactional
+    @Modifying
+    @Query("INSERT INTO StatsCounter (name, total, updatedAt) VALUES (:name, :total, :now)")
+    int insert(@Param("name") String name, @Param("total") long total, @Param("now") LocalDateTime now);
+}
@@ -1,7 +1,10 @@
 package com.stayease.backend.repository;
 
+import com.stayease.backend.dto.RecentUserDTO;
 import com.stayease.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,4 +20,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
 
     List<User> findTop5ByOrderByCreatedAtDesc();
+
+    @Query("SELECT new com.stayease.backend.dto.RecentUserDTO(u.id, u.username, u.createdAt) FROM User u " +
+            "WHERE u.createdAt IS NOT NULL ORDER BY u.createdAt DESC LIMIT :limit")
+    List<RecentUserDTO> findRecentUsers(@Param("limit") int limit);
 }
@@ -10,6 +10,7 @@ import java.util.Optional;
 
 public interface BookingService {
     Booking createBooking(Long userId, BookingRequest req);
+    List<Booking> createBookings(Long userId, List<BookingRequest> requests);
     List<Booking> getBookingsByUser(Long userId);
     Booking cancelBooking(Long userId, Long bookingId);
     Optional<Booking> getBookingById(Long bookingId);
@@ -19,6 +20,8 @@ public interface BookingService {
     // New methods
 
     Booking updateBookingStatus(Long bookingId, BookingStatus status);
+    // Fails instead of applying status if the booking is no longer in expectedStatus (null skips the check)
+    Booking updateBookingStatus(Long bookingId, BookingStatus status, BookingStatus expectedStatus);
     Booking confirmBooking(Long bookingId);
     List<Booking> getBookingsByHotel(Long hotelId);
     List<Booking> getBookingsByStatus(BookingStatus status);
@@ -0,0 +1,9 @@
+package com.stayease.backend.service;
+
+import com.stayease.backend.dto.DashboardStatsDTO;
+import com.stayease.backend.dto.HotelStatsDTO;
+
+public interface DashboardStatsService {
+    DashboardStatsDTO getDashboardStats();
+    HotelStatsDTO getHotelStats(Long hotelId);
+}
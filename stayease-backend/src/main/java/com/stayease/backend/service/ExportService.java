@@ -0,0 +1,13 @@
+package com.stayease.backend.service;
+
+import com.stayease.backend.dto.ExportFormat;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+
+public interface ExportService {
+    // Both write every row created between from and to (inclusive, either may be null) and return the row count
+    long exportBookings(ExportFormat format, LocalDate from, LocalDate to, Writer out) throws IOException;
+    long exportPayments(ExportFormat format, LocalDate from, LocalDate to, Writer out) throws IOException;
+}
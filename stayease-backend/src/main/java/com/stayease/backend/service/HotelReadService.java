@@ -0,0 +1,14 @@
+package com.stayease.backend.service;
+
+import com.stayease.backend.dto.HotelResponseDTO;
+import com.stayease.backend.dto.RoomResponseDTO;
+import com.stayease.backend.model.Hotel;
+import com.stayease.backend.model.Room;
+
+import java.util.List;
+
+public interface HotelReadService {
+    List<HotelResponseDTO> toHotelDTOs(List<Hotel> hotels, boolean withRooms);
+    HotelResponseDTO toHotelDTO(Hotel hotel);
+    List<RoomResponseDTO> toRoomDTOs(List<Room> rooms);
+}
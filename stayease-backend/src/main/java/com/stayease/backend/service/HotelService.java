@@ -1,5 +1,6 @@
 package com.stayease.backend.service;
 
+import com.stayease.backend.dto.HotelCursor;
 import com.stayease.backend.model.Hotel;
 import java.util.List;
 
@@ -7,8 +8,10 @@ public interface HotelService {
     Hotel create(Hotel hotel);
     Hotel update(Long id, Hotel hotel);
     void delete(Long id);
+    void refreshRoomStats(Long hotelId);
     Hotel getById(Long id);
     List<Hotel> getAll();
+    List<Hotel> getPage(String sort, HotelCursor after, int limit);
     List<Hotel> searchByLocation(String location);
     List<Hotel> searchHotels(String location, Double minPrice, Double maxPrice, Double minRating);
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.stayease.backend.service;
+
+import java.util.Map;
+
+/**
+ * A component that reports counters on GET /api/admin/metrics.
+ */
+public interface MetricsSource {
+    String metricsName();
+    Map<String, Object> metrics();
+}
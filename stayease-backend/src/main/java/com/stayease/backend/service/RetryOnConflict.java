@@ -0,0 +1,19 @@
+package com.stayease.backend.service;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-modify-write service method that should be run again when its save
+ * loses an optimistic-lock race (another request updated the same row first).
+ * The method must re-read what it changes on every call and must not run inside a
+ * caller's transaction, otherwise the retry would see the same stale row.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
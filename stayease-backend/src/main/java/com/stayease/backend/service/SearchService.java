@@ -1,5 +1,6 @@
 package com.stayease.backend.service;
 
+import com.stayease.backend.dto.HotelAvailabilityDTO;
 import com.stayease.backend.model.Room;
 
 import java.time.LocalDate;
@@ -7,4 +8,5 @@ import java.util.List;
 
 public interface SearchService {
     List<Room> findAvailableRooms(Long hotelId, LocalDate checkIn, LocalDate checkOut);
+    List<HotelAvailabilityDTO> searchAvailability(String location, LocalDate checkIn, LocalDate checkOut, Integer guests);
 }
@@ -0,0 +1,151 @@
+package com.stayease.backend.service.impl;
+
+import com.stayease.backend.dto.ActivityDTO;
+import com.stayease.backend.dto.RecentBookingDTO;
+import com.stayease.backend.dto.RecentUserDTO;
+import com.stayease.backend.event.BookingStatusChangedEvent;
+import com.stayease.backend.event.UserRegisteredEvent;
+import com.stayease.backend.model.BookingStatus;
+import com.stayease.backend.repository.BookingRepository;
+import com.stayease.backend.repository.UserRepository;
+import com.stayease.backend.service.MetricsSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The admin "recent activity" list, kept in memory so reading it never touches the
+ * database. Sign-ups, new bookings and booking status changes are appended as their
+ * transactions commit; at startup the buffer is seeded from the newest bookings and
+ * users (two ORDER BY createdAt DESC LIMIT queries).
+ *
+ * A fixed ring of stayease.activity.capacity slots without locks: a writer claims the
+ * next sequence number and stores its entry, tagged with that number, in slot
+ * sequence % capacity. A reader walks back from the latest claimed sequence and skips
+ * any slot whose tag does not match, which is a writer that has not stored yet or one
+ * that has already lapped it.
+ */
+@Component
+public class ActivityFeed implements MetricsSource {
+
+    private record Slot(long sequence, ActivityDTO activity) {
+    }
+
+    private final BookingRepository bookingRepository;
+    private final UserRepository userRepository;
+    private final int capacity;
+    private final AtomicReferenceArray<Slot> slots;
+    private final AtomicLong cursor = new AtomicLong();
+
+    public ActivityFeed(BookingRepository bookingRepository,
+                        UserRepository userRepository,
+                        @Value("${stayease.activity.capacity:64}") int capacity) {
+        this.bookingRepository = bookingRepository;
+        this.userRepository = userRepository;
+        this.capacity = Math.max(1, capacity);
+        this.slots = new AtomicReferenceArray<>(this.capacity);
+    }
+
+    // Oldest first, so the newest seeded rows end up at the head of the ring
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<ActivityDTO> seeded = new ArrayList<>();
+        for (RecentBookingDTO booking : bookingRepository.findRecentBookings(capacity)) {
+            seeded.add(bookingCreated(booking.getBookingId(), booking.getUsername(), booking.getCreatedAt()));
+        }
+        for (RecentUserDTO user : userRepository.findRecentUsers(capacity)) {
+            seeded.add(userRegistered(user.getUserId(), user.getUsername(), user.getCreatedAt()));
+        }
+        seeded.sort(Comparator.comparing(ActivityDTO::getTimestamp));
+        int from = Math.max(0, seeded.size() - capacity);
+        seeded.subList(from, seeded.size()).forEach(this::append);
+        System.out.println("✅ Activity feed seeded with " + (seeded.size() - from) + " entries");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        LocalDateTime at = event.createdAt() != null ? event.createdAt() : LocalDateTime.now();
+        append(userRegistered(event.userId(), event.username(), at));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        if (event.previousStatus() == null) {
+            append(bookingCreated(event.bookingId(), event.username(), now));
+        } else {
+            append(statusChanged(event, now));
+        }
+    }
+
+    public void append(ActivityDTO activity) {
+        long sequence = cursor.getAndIncrement();
+        slots.set(index(sequence), new Slot(sequence, activity));
+    }
+
+    // Newest first, at most limit entries, without blocking writers
+    public List<ActivityDTO> recent(int limit) {
+        long head = cursor.get();
+        long oldest = Math.max(0, head - capacity);
+        List<ActivityDTO> activities = new ArrayList<>(Math.min(limit, capacity));
+        for (long sequence = head - 1; sequence >= oldest && activities.size() < limit; sequence--) {
+            Slot slot = slots.get(index(sequence));
+            if (slot != null && slot.sequence() == sequence) {
+                activities.add(slot.activity());
+            }
+        }
+        return activities;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    private static ActivityDTO bookingCreated(Long bookingId, String username, LocalDateTime at) {
+        return new ActivityDTO("booking_" + bookingId, "booking", "New booking #" + bookingId + " created",
+                at, username != null ? username : "Unknown User", "📋");
+    }
+
+    private static ActivityDTO userRegistered(Long userId, String username, LocalDateTime at) {
+        return new ActivityDTO("user_" + userId, "user", "New user registered: " + username, at, username, "👤");
+    }
+
+    private static ActivityDTO statusChanged(BookingStatusChangedEvent event, LocalDateTime at) {
+        BookingStatus status = event.status();
+        String icon = switch (status) {
+            case CONFIRMED -> "✅";
+            case CANCELLED -> "❌";
+            case EXPIRED -> "⌛";
+            default -> "🔄";
+        };
+        String user = event.username() != null ? event.username()
+                : status == BookingStatus.EXPIRED ? "System" : "Unknown User";
+        return new ActivityDTO("booking_" + event.bookingId() + "_" + status.name().toLowerCase(), "booking",
+                "Booking #" + event.bookingId() + " " + status.name().toLowerCase(), at, user, icon);
+    }
+
+    @Override
+    public String metricsName() {
+        return "activityFeed";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("capacity", capacity);
+        metrics.put("appended", cursor.get());
+        metrics.put("held", Math.min(cursor.get(), capacity));
+        return metrics;
+    }
+}
@@ -0,0 +1,324 @@
+package com.stayease.backend.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stayease.backend.dto.BookingRequest;
+import com.stayease.backend.exception.ServiceBusyException;
+import com.stayease.backend.repository.RoomRepository;
+import com.stayease.backend.service.MetricsSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Asynchronous booking: submit() validates a request, parks it on its hotel's lane
+ * and returns a ticket straight away, so no request thread or DB connection waits
+ * on the conflict check. The lane is the room's own hotel, looked up by primary key,
+ * so requests naming rooms or hotels that do not exist never get one, and a lane is
+ * dropped as soon as its last ticket is booked.
+ *
+ * Each hotel lane is bounded (stayease.booking.async.queueCapacity) and has a single
+ * writer: at most one worker drains it at a time, taking up to batchSize tickets and
+ * booking them through BookingServiceImpl.createEach, which checks and inserts the
+ * whole batch with a fixed number of statements. A worker handles one batch and then
+ * requeues the lane, so a hot hotel cannot starve the others and throughput grows
+ * with the number of hotels rather than contending on one hotel's rooms.
+ *
+ * Finished tickets stay readable for ticketTtlMinutes so clients can poll them.
+ *
+ * On shutdown new requests get 503, queued tickets are booked for up to
+ * shutdownWaitSeconds, and any still waiting after that are rejected, so every ticket
+ * answered with 202 reaches BOOKED or REJECTED before the process exits. Tickets live
+ * only in memory, so clients polling after the restart get 404 either way.
+ */
+@Component
+public class BookingPipeline implements MetricsSource {
+
+    public enum TicketStatus { QUEUED, BOOKED, REJECTED }
+
+    public static final class Ticket {
+        private final String id = UUID.randomUUID().toString();
+        private final Long userId;
+        private final Long hotelId;
+        private final BookingRequest request;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final CompletableFuture<Ticket> done = new CompletableFuture<>();
+        private volatile TicketStatus status = TicketStatus.QUEUED;
+        private volatile Long bookingId;
+        private volatile String message;
+
+        Ticket(Long userId, BookingRequest request) {
+            this.userId = userId;
+            this.hotelId = request.getHotelId();
+            this.request = request;
+        }
+
+        public String getId() { return id; }
+        public Long getUserId() { return userId; }
+        public Long getHotelId() { return hotelId; }
+        public Long getRoomId() { return request.getRoomId(); }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+        public TicketStatus getStatus() { return status; }
+        public Long getBookingId() { return bookingId; }
+        public String getMessage() { return message; }
+
+        // completes once the ticket is BOOKED or REJECTED
+        public CompletableFuture<Ticket> done() { return done; }
+
+        void finish(TicketStatus status, Long bookingId, String message) {
+            this.bookingId = bookingId;
+            this.message = message;
+            this.status = status;
+            done.complete(this);
+        }
+    }
+
+    // One hotel's queue; `size` counts tickets queued or in the batch being booked.
+    // Tickets count themselves in, and idle lanes are removed, inside lanes.compute,
+    // so a lane is never dropped while a ticket is on its way in.
+    private static final class Lane {
+        final Long hotelId;
+        final ConcurrentLinkedQueue<Ticket> queue = new ConcurrentLinkedQueue<>();
+        final AtomicInteger size = new AtomicInteger();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Lane(Long hotelId) {
+            this.hotelId = hotelId;
+        }
+    }
+
+    private final BookingServiceImpl bookingService;
+    private final RoomRepository roomRepository;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long retryAfterSeconds;
+    private final long shutdownWaitSeconds;
+    private final ExecutorService workers;
+    private final ConcurrentHashMap<Long, Lane> lanes = new ConcurrentHashMap<>();
+    private final Cache<String, Ticket> tickets;
+    private volatile boolean accepting = true;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder booked = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    @Autowired
+    public BookingPipeline(BookingServiceImpl bookingService,
+                           RoomRepository roomRepository,
+                           @Value("${stayease.booking.async.workers:4}") int workers,
+                           @Value("${stayease.booking.async.queueCapacity:500}") int queueCapacity,
+                           @Value("${stayease.booking.async.batchSize:50}") int batchSize,
+                           @Value("${stayease.booking.async.ticketTtlMinutes:30}") long ticketTtlMinutes,
+                           @Value("${stayease.booking.async.retryAfterSeconds:2}") long retryAfterSeconds,
+                           @Value("${stayease.booking.async.shutdownWaitSeconds:20}") long shutdownWaitSeconds) {
+        this.bookingService = bookingService;
+        this.roomRepository = roomRepository;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.shutdownWaitSeconds = shutdownWaitSeconds;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, workers), runnable -> {
+            Thread thread = new Thread(runnable, "booking-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.tickets = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(ticketTtlMinutes))
+                .build();
+    }
+
+    public Ticket submit(Long userId, BookingRequest request) {
+        if (!accepting) {
+            throw stopping();
+        }
+        BookingServiceImpl.validate(request);
+        if (request.getHotelId() == null) {
+            throw new IllegalArgumentException("Hotel not found");
+        }
+        Long hotelId = roomRepository.findHotelIdById(request.getRoomId())
+                .orElseThrow(() -> new IllegalArgumentException("Room not found: " + request.getRoomId()));
+        if (!hotelId.equals(request.getHotelId())) {
+            throw new IllegalArgumentException("Room " + request.getRoomId() + " does not belong to hotel " + request.getHotelId());
+        }
+
+        int[] position = new int[1];
+        Lane lane = lanes.compute(hotelId, (id, current) -> {
+            Lane held = current != null ? current : new Lane(id);
+            position[0] = held.size.incrementAndGet();
+            return held;
+        });
+        if (position[0] > queueCapacity) {
+            lane.size.decrementAndGet();
+            shed.increment();
+            throw new ServiceBusyException("Too many bookings waiting for this hotel, please retry shortly", retryAfterSeconds);
+        }
+        Ticket ticket = new Ticket(userId, request);
+        tickets.put(ticket.getId(), ticket);
+        lane.queue.offer(ticket);
+        // shutdown began after the check above and may have swept this lane already
+        if (!accepting && lane.queue.remove(ticket)) {
+            lane.size.decrementAndGet();
+            tickets.invalidate(ticket.getId());
+            throw stopping();
+        }
+        submitted.increment();
+        schedule(lane);
+        return ticket;
+    }
+
+    private ServiceBusyException stopping() {
+        return new ServiceBusyException("Bookings are paused while the server restarts, please retry shortly", retryAfterSeconds);
+    }
+
+    public Optional<Ticket> find(String ticketId) {
+        return Optional.ofNullable(tickets.getIfPresent(ticketId));
+    }
+
+    private void schedule(Lane lane) {
+        if (lane.scheduled.compareAndSet(false, true)) {
+            try {
+                workers.execute(() -> drain(lane));
+            } catch (RejectedExecutionException e) {
+                // shutting down: the tickets stay queued and shutdown() rejects them
+                lane.scheduled.set(false);
+            }
+        }
+    }
+
+    private void drain(Lane lane) {
+        try {
+            List<Ticket> batch = new ArrayList<>(batchSize);
+            Ticket next;
+            while (batch.size() < batchSize && (next = lane.queue.poll()) != null) {
+                batch.add(next);
+            }
+            if (!batch.isEmpty()) {
+                book(batch);
+                lane.size.addAndGet(-batch.size());
+            }
+        } finally {
+            lane.scheduled.set(false);
+            // tickets that arrived while this batch ran saw the lane as scheduled and did not requeue it
+            if (!lane.queue.isEmpty()) {
+                schedule(lane);
+            } else {
+                lanes.computeIfPresent(lane.hotelId, (id, current) ->
+                        current == lane && lane.size.get() == 0 ? null : current);
+            }
+        }
+    }
+
+    private void book(List<Ticket> batch) {
+        batches.increment();
+        try {
+            List<BookingServiceImpl.Attempt> attempts = batch.stream()
+                    .map(ticket -> new BookingServiceImpl.Attempt(ticket.userId, ticket.request))
+                    .toList();
+            List<BookingServiceImpl.Outcome> outcomes = bookingService.createEach(attempts);
+            for (int i = 0; i < batch.size(); i++) {
+                BookingServiceImpl.Outcome outcome = outcomes.get(i);
+                if (outcome.booking() != null) {
+                    booked.increment();
+                    batch.get(i).finish(TicketStatus.BOOKED, outcome.booking().getId(), "Booking created successfully");
+                } else {
+                    rejected.increment();
+                    batch.get(i).finish(TicketStatus.REJECTED, null, outcome.error());
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("❌ Booking batch failed: " + e.getMessage());
+            for (Ticket ticket : batch) {
+                if (!ticket.done.isDone()) {
+                    rejected.increment();
+                    ticket.finish(TicketStatus.REJECTED, null, "Booking failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        accepting = false;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(shutdownWaitSeconds);
+        try {
+            while (queued() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            workers.shutdown();
+            int dropped = rejectQueued();
+            if (dropped > 0) {
+                System.err.println("⚠️ Rejected " + dropped + " queued bookings on shutdown");
+            }
+            // the batch in flight, if any, gets as long again
+            if (!workers.awaitTermination(shutdownWaitSeconds, TimeUnit.SECONDS)) {
+                System.err.println("❌ Booking workers still running after " + shutdownWaitSeconds + "s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.shutdown();
+            rejectQueued();
+        }
+    }
+
+    private int rejectQueued() {
+        int dropped = 0;
+        for (Lane lane : lanes.values()) {
+            Ticket ticket;
+            while ((ticket = lane.queue.poll()) != null) {
+                lane.size.decrementAndGet();
+                rejected.increment();
+                ticket.finish(TicketStatus.REJECTED, null, "The server restarted before this booking was made, please try again");
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    private long queued() {
+        return lanes.values().stream().mapToLong(lane -> lane.size.get()).sum();
+    }
+
+    @Override
+    public String metricsName() {
+        return "bookingPipeline";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        long queued = queued();
+        long batchCount = batches.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("hotels", lanes.size());
+        metrics.put("queued", queued);
+        metrics.put("submitted", submitted.sum());
+        metrics.put("booked", booked.sum());
+        metrics.put("rejected", rejected.sum());
+        metrics.put("shed", shed.sum());
+        metrics.put("batches", batchCount);
+        metrics.put("avgBatchSize", batchCount == 0 ? 0.0 : (double) (booked.sum() + rejected.sum()) / batchCount);
+        return metrics;
+    }
+}
@@ -1,50 +1,112 @@
 package com.stayease.backend.service.impl;
 
+import com.stayease.backend.dto.BookedStayDTO;
 import com.stayease.backend.dto.BookingRequest;
+import com.stayease.backend.event.BookingStatusChangedEvent;
 import com.stayease.backend.model.*;
 import com.stayease.backend.repository.BookingRepository;
 import com.stayease.backend.repository.HotelRepository;
 import com.stayease.backend.repository.RoomRepository;
 import com.stayease.backend.repository.UserRepository;
 import com.stayease.backend.service.BookingService;
+import com.stayease.backend.service.RetryOnConflict;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 public class BookingServiceImpl implements BookingService {
 
+    private static final String INSERT_BOOKING = "INSERT INTO bookings (user_id, hotel_id, room_id, check_in, check_out, guests, " +
+            "total_amount, status, guest_name, guest_email, guest_phone, special_requests, hold_expires_at, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
     @Autowired private BookingRepository bookingRepository;
     @Autowired private UserRepository userRepository;
     @Autowired private HotelRepository hotelRepository;
     @Autowired private RoomRepository roomRepository;
+    @Autowired private RoomAvailabilityIndex availabilityIndex;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private RoomLocks roomLocks = new RoomLocks(1024);
+    private TransactionOperations transactions = TransactionOperations.withoutTransaction();
+    private Duration holdTtl = Duration.ofMinutes(15);
+    private int maxGroupSize = 50;
+    private ApplicationEventPublisher events = event -> { };
+
+    @Value("${stayease.booking.lockStripes:1024}")
+    void setLockStripes(int stripes) {
+        this.roomLocks = new RoomLocks(stripes);
+    }
+
+    // How long a PENDING booking reserves its room while waiting for payment
+    @Value("${stayease.booking.holdMinutes:15}")
+    void setHoldMinutes(long minutes) {
+        this.holdTtl = Duration.ofMinutes(minutes);
+    }
+
+    @Value("${stayease.booking.maxGroupSize:50}")
+    void setMaxGroupSize(int maxGroupSize) {
+        this.maxGroupSize = maxGroupSize;
+    }
+
+    @Autowired
+    void setEventPublisher(ApplicationEventPublisher events) {
+        this.events = events;
+    }
+
+    @Autowired
+    void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactions = new TransactionTemplate(transactionManager);
+    }
 
     // ✅ EXISTING METHOD - FIXED
+    // Same-room requests queue on a lock stripe here, then on the room row in the DB
+    // (which also covers other app instances), so the overlap check and the insert
+    // happen as one step. Other rooms never wait on this room.
     @Override
     public Booking createBooking(Long userId, BookingRequest req) {
         System.out.println("📅 Creating booking for user: " + userId);
 
+        validate(req);
+        Booking savedBooking = withRoomLock(req.getRoomId(), () -> insertBooking(userId, req));
+        bookingChanged(savedBooking, null);
+        System.out.println("✅ Booking created successfully: " + savedBooking.getId());
+        return savedBooking;
+    }
+
+    private Booking insertBooking(Long userId, BookingRequest req) {
         var user = userRepository.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found"));
         var hotel = hotelRepository.findById(req.getHotelId()).orElseThrow(() -> new IllegalArgumentException("Hotel not found"));
-        var room = roomRepository.findById(req.getRoomId()).orElseThrow(() -> new IllegalArgumentException("Room not found"));
-
-        // check date validity
-        if (req.getCheckIn() == null || req.getCheckOut() == null || !req.getCheckIn().isBefore(req.getCheckOut())) {
-            throw new IllegalArgumentException("Invalid dates");
-        }
-
-        // conflict check
-        List<Booking> conflicts = bookingRepository.findByRoomIdAndCheckInLessThanEqualAndCheckOutGreaterThanEqual(
-                room.getId(), req.getCheckOut().minusDays(1), req.getCheckIn().plusDays(1));
+        var room = roomRepository.findByIdForUpdate(req.getRoomId()).orElseThrow(() -> new IllegalArgumentException("Room not found"));
 
-        boolean hasConflict = conflicts.stream()
-                .anyMatch(b -> b.getStatus() == BookingStatus.CONFIRMED);
-
-        if (hasConflict) {
+        // conflict check, safe from races while we hold the room row
+        LocalDateTime now = LocalDateTime.now();
+        if (bookingRepository.existsOverlapping(room.getId(), req.getCheckIn(), req.getCheckOut(), BookingStatus.BLOCKING, null, now)) {
             throw new IllegalStateException("Room already booked for the selected dates");
         }
 
@@ -61,6 +123,7 @@ public class BookingServiceImpl implements BookingService {
                 .checkOut(req.getCheckOut())
                 .guests(req.getGuests())
                 .status(BookingStatus.PENDING)
+                .holdExpiresAt(now.plus(holdTtl))
                 .totalAmount(total)
                 .guestName(req.getGuestName())
                 .guestEmail(req.getGuestEmail())
@@ -70,9 +133,198 @@ public class BookingServiceImpl implements BookingService {
                 .updatedAt(LocalDateTime.now())
                 .build();
 
-        Booking savedBooking = bookingRepository.save(booking);
-        System.out.println("✅ Booking created successfully: " + savedBooking.getId());
-        return savedBooking;
+        return bookingRepository.save(booking);
+    }
+
+    static void validate(BookingRequest req) {
+        // check date validity
+        if (req == null || req.getCheckIn() == null || req.getCheckOut() == null || !req.getCheckIn().isBefore(req.getCheckOut())) {
+            throw new IllegalArgumentException("Invalid dates");
+        }
+        if (req.getRoomId() == null) {
+            throw new IllegalArgumentException("Room not found");
+        }
+    }
+
+    // One booking request inside a batch, and what became of it
+    public record Attempt(Long userId, BookingRequest request) {
+    }
+
+    public record Outcome(Booking booking, String error) {
+    }
+
+    // Group booking: every room or none. Takes the same stripes and row locks as single
+    // bookings, but for all rooms at once, then checks and inserts the whole group with a
+    // fixed number of statements however many rooms it has.
+    @Override
+    public List<Booking> createBookings(Long userId, List<BookingRequest> requests) {
+        System.out.println("📅 Creating group booking of " + (requests == null ? 0 : requests.size()) + " rooms for user: " + userId);
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("No rooms requested");
+        }
+        if (requests.size() > maxGroupSize) {
+            throw new IllegalArgumentException("A group booking can hold at most " + maxGroupSize + " rooms");
+        }
+        requests.forEach(BookingServiceImpl::validate);
+
+        List<Attempt> attempts = requests.stream().map(req -> new Attempt(userId, req)).toList();
+        List<Booking> saved = withRoomLocks(attempts, () -> insertBatch(attempts, true)).stream()
+                .map(Outcome::booking)
+                .toList();
+        saved.forEach(booking -> bookingChanged(booking, null));
+        System.out.println("✅ Group booking created: " + saved.size() + " rooms");
+        return saved;
+    }
+
+    // Batch of unrelated, already validated requests (the async pipeline): same statements
+    // as a group booking, but each request is accepted or turned down on its own
+    public List<Outcome> createEach(List<Attempt> attempts) {
+        List<Outcome> outcomes = withRoomLocks(attempts, () -> insertBatch(attempts, false));
+        outcomes.stream()
+                .filter(outcome -> outcome.booking() != null)
+                .forEach(outcome -> bookingChanged(outcome.booking(), null));
+        return outcomes;
+    }
+
+    private <T> T withRoomLocks(List<Attempt> attempts, Supplier<T> work) {
+        Set<Long> roomIds = attempts.stream().map(attempt -> attempt.request().getRoomId()).collect(Collectors.toSet());
+        List<ReentrantLock> locks = roomLocks.locksFor(roomIds);
+        locks.forEach(ReentrantLock::lock);
+        try {
+            return transactions.execute(status -> work.get());
+        } finally {
+            for (int i = locks.size() - 1; i >= 0; i--) {
+                locks.get(i).unlock();
+            }
+        }
+    }
+
+    private List<Outcome> insertBatch(List<Attempt> attempts, boolean allOrNothing) {
+        Set<Long> userIds = attempts.stream().map(Attempt::userId).collect(Collectors.toSet());
+        Set<Long> roomIds = attempts.stream().map(attempt -> attempt.request().getRoomId()).collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, user -> user));
+        Map<Long, Room> rooms = roomRepository.findAllByIdForUpdate(roomIds).stream()
+                .collect(Collectors.toMap(Room::getId, room -> room));
+        Set<Long> hotelIds = rooms.values().stream().map(room -> room.getHotel().getId()).collect(Collectors.toSet());
+        Map<Long, Hotel> hotels = hotelRepository.findAllById(hotelIds).stream()
+                .collect(Collectors.toMap(Hotel::getId, hotel -> hotel));
+
+        LocalDate from = attempts.stream().map(attempt -> attempt.request().getCheckIn()).min(LocalDate::compareTo).orElseThrow();
+        LocalDate to = attempts.stream().map(attempt -> attempt.request().getCheckOut()).max(LocalDate::compareTo).orElseThrow();
+        LocalDateTime now = LocalDateTime.now();
+        // existing stays per room; each accepted request joins them, so the batch cannot overlap itself either
+        Map<Long, List<BookedStayDTO>> taken = bookingRepository.findBookedStaysForRooms(roomIds, BookingStatus.BLOCKING, from, to, now)
+                .stream().collect(Collectors.groupingBy(BookedStayDTO::getRoomId));
+
+        List<Outcome> outcomes = new ArrayList<>(attempts.size());
+        List<Booking> accepted = new ArrayList<>(attempts.size());
+        for (Attempt attempt : attempts) {
+            BookingRequest req = attempt.request();
+            User user = users.get(attempt.userId());
+            Room room = rooms.get(req.getRoomId());
+            String problem = null;
+            if (user == null) {
+                problem = "User not found";
+            } else if (room == null) {
+                problem = "Room not found: " + req.getRoomId();
+            } else if (req.getHotelId() != null && !req.getHotelId().equals(room.getHotel().getId())) {
+                problem = "Room " + room.getId() + " does not belong to hotel " + req.getHotelId();
+            }
+            if (problem != null) {
+                if (allOrNothing) {
+                    throw new IllegalArgumentException(problem);
+                }
+                outcomes.add(new Outcome(null, problem));
+                continue;
+            }
+
+            List<BookedStayDTO> stays = taken.computeIfAbsent(room.getId(), id -> new ArrayList<>());
+            if (stays.stream().anyMatch(stay -> stay.getCheckIn().isBefore(req.getCheckOut()) && stay.getCheckOut().isAfter(req.getCheckIn()))) {
+                String conflict = "Room " + room.getRoomNumber() + " is already booked for the selected dates";
+                if (allOrNothing) {
+                    throw new IllegalStateException(conflict);
+                }
+                outcomes.add(new Outcome(null, conflict));
+                continue;
+            }
+            stays.add(new BookedStayDTO(room.getId(), req.getCheckIn(), req.getCheckOut()));
+
+            long nights = ChronoUnit.DAYS.between(req.getCheckIn(), req.getCheckOut());
+            Booking booking = Booking.builder()
+                    .user(user)
+                    .hotel(hotels.get(room.getHotel().getId()))
+                    .room(room)
+                    .checkIn(req.getCheckIn())
+                    .checkOut(req.getCheckOut())
+                    .guests(req.getGuests() == null ? 1 : req.getGuests())
+                    .status(BookingStatus.PENDING)
+                    .holdExpiresAt(now.plus(holdTtl))
+                    .totalAmount(nights * room.getPricePerNight())
+                    .guestName(req.getGuestName())
+                    .guestEmail(req.getGuestEmail())
+                    .guestPhone(req.getGuestPhone())
+                    .specialRequests(req.getSpecialRequests())
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build();
+            accepted.add(booking);
+            outcomes.add(new Outcome(booking, null));
+        }
+        if (!accepted.isEmpty()) {
+            batchInsert(accepted);
+        }
+        return outcomes;
+    }
+
+    // One JDBC batch for the whole group. Hibernate cannot batch inserts of IDENTITY ids,
+    // so this goes through JdbcTemplate and reads the generated keys back.
+    private void batchInsert(List<Booking> bookings) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_BOOKING, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Booking b = bookings.get(i);
+                        ps.setLong(1, b.getUser().getId());
+                        ps.setLong(2, b.getHotel().getId());
+                        ps.setLong(3, b.getRoom().getId());
+                        ps.setObject(4, b.getCheckIn());
+                        ps.setObject(5, b.getCheckOut());
+                        ps.setInt(6, b.getGuests());
+                        ps.setDouble(7, b.getTotalAmount());
+                        ps.setString(8, b.getStatus().name());
+                        ps.setString(9, b.getGuestName());
+                        ps.setString(10, b.getGuestEmail());
+                        ps.setString(11, b.getGuestPhone());
+                        ps.setString(12, b.getSpecialRequests());
+                        ps.setObject(13, b.getHoldExpiresAt());
+                        ps.setObject(14, b.getCreatedAt());
+                        ps.setObject(15, b.getUpdatedAt());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return bookings.size();
+                    }
+                }, keys);
+        List<Map<String, Object>> ids = keys.getKeyList();
+        for (int i = 0; i < bookings.size(); i++) {
+            bookings.get(i).setId(((Number) ids.get(i).get("id")).longValue());
+            // the column default; lets later saves of these instances pass the version check
+            bookings.get(i).setVersion(0L);
+        }
+    }
+
+    // Runs work in one transaction while holding this JVM's stripe for the room
+    private <T> T withRoomLock(Long roomId, Supplier<T> work) {
+        ReentrantLock lock = roomLocks.lockFor(roomId);
+        lock.lock();
+        try {
+            return transactions.execute(status -> work.get());
+        } finally {
+            lock.unlock();
+        }
     }
 
     @Override
@@ -81,14 +333,18 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    @RetryOnConflict
     public Booking cancelBooking(Long userId, Long bookingId) {
         var booking = bookingRepository.findById(bookingId).orElseThrow(() -> new IllegalArgumentException("Booking not found"));
         if (!booking.getUser().getId().equals(userId)) {
             throw new SecurityException("Not allowed");
         }
+        BookingStatus previousStatus = booking.getStatus();
         booking.setStatus(BookingStatus.CANCELLED);
         booking.setUpdatedAt(LocalDateTime.now());
-        return bookingRepository.save(booking);
+        Booking saved = bookingRepository.save(booking);
+        bookingChanged(saved, previousStatus);
+        return saved;
     }
 
     // ✅ NEW METHOD: Get booking by ID
@@ -104,19 +360,78 @@ public class BookingServiceImpl implements BookingService {
     }
 
     // ✅ NEW METHOD: Update booking status (for admin)
+    @RetryOnConflict
     public Booking updateBookingStatus(Long bookingId, BookingStatus status) {
+        return updateBookingStatus(bookingId, status, null);
+    }
+
+    // A retry after a lost race re-reads the booking, so the expected status is checked
+    // again against whatever won the race rather than overwriting it
+    @Override
+    @RetryOnConflict
+    public Booking updateBookingStatus(Long bookingId, BookingStatus status, BookingStatus expectedStatus) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
 
-        booking.setStatus(status);
-        booking.setUpdatedAt(LocalDateTime.now());
+        BookingStatus previousStatus = booking.getStatus();
+        if (expectedStatus != null && previousStatus != expectedStatus) {
+            throw new IllegalStateException("Booking #" + bookingId + " is now " + previousStatus
+                    + ", not " + expectedStatus + "; reload it and try again");
+        }
+        Booking saved;
+        if (BookingStatus.BLOCKING.contains(status) && !booking.holdsRoom(LocalDateTime.now())) {
+            // reopening a cancelled stay or a lapsed hold claims the room again, so it goes through the same guard
+            saved = withRoomLock(booking.getRoom().getId(), () -> reopenBooking(bookingId, status));
+        } else {
+            applyStatus(booking, status, LocalDateTime.now());
+            saved = bookingRepository.save(booking);
+        }
+        bookingChanged(saved, previousStatus);
+        return saved;
+    }
 
+    private Booking reopenBooking(Long bookingId, BookingStatus status) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
+        roomRepository.findByIdForUpdate(booking.getRoom().getId());
+        LocalDateTime now = LocalDateTime.now();
+        if (bookingRepository.existsOverlapping(booking.getRoom().getId(), booking.getCheckIn(), booking.getCheckOut(),
+                BookingStatus.BLOCKING, booking.getId(), now)) {
+            throw new IllegalStateException("Room already booked for the selected dates");
+        }
+        applyStatus(booking, status, now);
         return bookingRepository.save(booking);
     }
 
+    // After every committed create or status change: the availability index, then the dashboard counters
+    private void bookingChanged(Booking saved, BookingStatus previousStatus) {
+        availabilityIndex.onBookingChanged(saved, previousStatus);
+        if (saved.getStatus() != previousStatus) {
+            events.publishEvent(BookingStatusChangedEvent.of(saved, previousStatus));
+        }
+    }
+
+    // Moving into PENDING starts a fresh hold; other statuses leave the old deadline as a record
+    private void applyStatus(Booking booking, BookingStatus status, LocalDateTime now) {
+        if (status == BookingStatus.PENDING && booking.getStatus() != BookingStatus.PENDING) {
+            booking.setHoldExpiresAt(now.plus(holdTtl));
+        }
+        booking.setStatus(status);
+        booking.setUpdatedAt(now);
+    }
+
     // ✅ NEW METHOD: Confirm booking (specific method for admin)
+    // Confirms a pending booking or a lapsed hold, never one that was cancelled or completed.
+    // Reopening those is an explicit status change.
+    @RetryOnConflict
     public Booking confirmBooking(Long bookingId) {
-        return updateBookingStatus(bookingId, BookingStatus.CONFIRMED);
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
+        BookingStatus current = booking.getStatus();
+        if (current == BookingStatus.CANCELLED || current == BookingStatus.COMPLETED) {
+            throw new IllegalStateException("Booking #" + bookingId + " is " + current + " and cannot be confirmed");
+        }
+        return updateBookingStatus(bookingId, BookingStatus.CONFIRMED, current);
     }
 
     // ✅ NEW METHOD: Get bookings by hotel
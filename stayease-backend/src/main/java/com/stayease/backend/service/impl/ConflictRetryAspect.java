@@ -0,0 +1,109 @@
+package com.stayease.backend.service.impl;
+
+import com.stayease.backend.service.MetricsSource;
+import jakarta.persistence.OptimisticLockException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reruns @RetryOnConflict methods when a versioned save finds the row was changed
+ * underneath it. Attempts are capped (stayease.retry.maxAttempts) and spaced with
+ * full jitter, a random pause up to baseDelayMs doubled per attempt and capped at
+ * maxDelayMs, so two requests that collided do not collide again in lockstep.
+ *
+ * Ordered ahead of the transaction advice so each attempt gets a fresh transaction.
+ * A nested @RetryOnConflict call runs once and leaves retrying to the outermost one.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class ConflictRetryAspect implements MetricsSource {
+
+    private static final ThreadLocal<Boolean> RETRYING = new ThreadLocal<>();
+
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder recovered = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+    private final Map<String, LongAdder> conflictsByMethod = new ConcurrentHashMap<>();
+
+    public ConflictRetryAspect(@Value("${stayease.retry.maxAttempts:4}") int maxAttempts,
+                               @Value("${stayease.retry.baseDelayMs:10}") long baseDelayMs,
+                               @Value("${stayease.retry.maxDelayMs:200}") long maxDelayMs) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    @Around("@annotation(com.stayease.backend.service.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint call) throws Throwable {
+        if (RETRYING.get() != null) {
+            return call.proceed();
+        }
+        RETRYING.set(Boolean.TRUE);
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    Object result = call.proceed();
+                    if (attempt > 1) {
+                        recovered.increment();
+                    }
+                    return result;
+                } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                    String method = call.getSignature().toShortString();
+                    conflicts.increment();
+                    conflictsByMethod.computeIfAbsent(method, m -> new LongAdder()).increment();
+                    if (attempt >= maxAttempts) {
+                        exhausted.increment();
+                        System.err.println("❌ " + method + " still conflicting after " + attempt + " attempts");
+                        throw e;
+                    }
+                    retries.increment();
+                    System.out.println("🔁 " + method + " lost an update race, retrying (attempt " + (attempt + 1) + ")");
+                    Thread.sleep(backoff(attempt));
+                }
+            }
+        } finally {
+            RETRYING.remove();
+        }
+    }
+
+    private long backoff(int attempt) {
+        long ceiling = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt - 1, 20));
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    @Override
+    public String metricsName() {
+        return "optimisticRetry";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        Map<String, Long> byMethod = new LinkedHashMap<>();
+        conflictsByMethod.forEach((method, count) -> byMethod.put(method, count.sum()));
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("conflicts", conflicts.sum());
+        metrics.put("retries", retries.sum());
+        metrics.put("recovered", recovered.sum());
+        metrics.put("exhausted", exhausted.sum());
+        metrics.put("conflictsByMethod", byMethod);
+        return metrics;
+    }
+}
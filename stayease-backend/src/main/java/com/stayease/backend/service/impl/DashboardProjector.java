@@ -0,0 +1,309 @@
+package com.stayease.backend.service.impl;
+
+import com.stayease.backend.dto.BookingStatusTotalsDTO;
+import com.stayease.backend.dto.HotelTotalsDTO;
+import com.stayease.backend.event.BookingStatusChangedEvent;
+import com.stayease.backend.event.PaymentCompletedEvent;
+import com.stayease.backend.event.RowCountChangedEvent;
+import com.stayease.backend.model.BookingStatus;
+import com.stayease.backend.model.Hotel;
+import com.stayease.backend.model.StatsCounter;
+import com.stayease.backend.model.User;
+import com.stayease.backend.repository.BookingRepository;
+import com.stayease.backend.repository.HotelRepository;
+import com.stayease.backend.repository.PaymentRepository;
+import com.stayease.backend.repository.StatsCounterRepository;
+import com.stayease.backend.repository.UserRepository;
+import com.stayease.backend.service.MetricsSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dashboard counters kept up to date from booking, payment and row count events, so
+ * the admin dashboard reads a handful of numbers instead of scanning or counting tables.
+ *
+ * Each counter is a LongAdder of every change this instance has seen plus a base, the
+ * stats_counters total minus the part of those changes already added to it. Every
+ * checkpoint (stayease.stats.checkpointMs) adds the unwritten changes to the table and
+ * publishes new bases in one swap, so a reader never sees a total that has lost or
+ * doubled the changes in flight. Several instances share one set of totals and each
+ * sees the others' changes within a checkpoint. Amounts are kept in paise so every
+ * counter is an exact long.
+ *
+ * An empty table is seeded once from GROUP BY aggregates over bookings and payments;
+ * the user and hotel counters are seeded from count() whenever the table lacks them.
+ * Changes not yet checkpointed are lost if the process dies without shutting down.
+ */
+@Component
+public class DashboardProjector implements MetricsSource {
+
+    public static final String PAID_COUNT = "payments.completed.count";
+    public static final String PAID_AMOUNT = "payments.completed.amount";
+    public static final String USER_COUNT = rowCount(User.class);
+    public static final String HOTEL_COUNT = rowCount(Hotel.class);
+
+    private final BookingRepository bookingRepository;
+    private final PaymentRepository paymentRepository;
+    private final UserRepository userRepository;
+    private final HotelRepository hotelRepository;
+    private final StatsCounterRepository counterRepository;
+    private final TransactionTemplate transactions;
+
+    private final ConcurrentHashMap<String, LongAdder> changes = new ConcurrentHashMap<>();
+    // how much of each counter's changes has been added to the table; only checkpoint() moves it
+    private final ConcurrentHashMap<String, Long> written = new ConcurrentHashMap<>();
+    private volatile Map<String, Long> base = Map.of();
+
+    private final AtomicLong eventsApplied = new AtomicLong();
+    private final AtomicLong checkpoints = new AtomicLong();
+    private final AtomicLong lastCheckpointMs = new AtomicLong();
+
+    public DashboardProjector(BookingRepository bookingRepository,
+                              PaymentRepository paymentRepository,
+                              UserRepository userRepository,
+                              HotelRepository hotelRepository,
+                              StatsCounterRepository counterRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.paymentRepository = paymentRepository;
+        this.userRepository = userRepository;
+        this.hotelRepository = hotelRepository;
+        this.counterRepository = counterRepository;
+        this.transactions = new TransactionTemplate(transactionManager);
+    }
+
+    public static String statusCount(BookingStatus status) {
+        return "bookings." + status.name() + ".count";
+    }
+
+    public static String statusAmount(BookingStatus status) {
+        return "bookings." + status.name() + ".amount";
+    }
+
+    public static String hotelBookings(Long hotelId) {
+        return "hotel." + hotelId + ".bookings";
+    }
+
+    public static String hotelBookedAmount(Long hotelId) {
+        return "hotel." + hotelId + ".bookedAmount";
+    }
+
+    public static String hotelPaidAmount(Long hotelId) {
+        return "hotel." + hotelId + ".paidAmount";
+    }
+
+    public static String rowCount(Class<?> entityType) {
+        return "rows." + entityType.getSimpleName() + ".count";
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        if (counterRepository.count() == 0) {
+            seed();
+        }
+        reloadBase();
+        if (!base.containsKey(USER_COUNT) || !base.containsKey(HOTEL_COUNT)) {
+            seedRowCounts();
+            reloadBase();
+        }
+        System.out.println("✅ Dashboard counters loaded: " + base.size() + " counters");
+    }
+
+    // One pass of aggregates for a fresh table. Another instance seeding at the same
+    // time makes our insert fail on the primary key, and its rows are used instead.
+    // Bookings and payments made before startup finished are in the aggregates and
+    // also in our changes, which the next checkpoint adds, so they are taken off.
+    private void seed() {
+        Map<String, Long> seeded = new HashMap<>();
+        for (BookingStatusTotalsDTO row : bookingRepository.summarizeByStatus()) {
+            if (row.getStatus() != null) {
+                seeded.put(statusCount(row.getStatus()), row.getCount());
+                seeded.put(statusAmount(row.getStatus()), toPaise(row.getRevenue()));
+            }
+        }
+        for (HotelTotalsDTO row : bookingRepository.summarizeByHotel()) {
+            seeded.put(hotelBookings(row.getHotelId()), row.getCount());
+            seeded.put(hotelBookedAmount(row.getHotelId()), toPaise(row.getAmount()));
+        }
+        long paidCount = 0;
+        long paidAmount = 0;
+        for (HotelTotalsDTO row : paymentRepository.summarizeCompletedByHotel()) {
+            seeded.put(hotelPaidAmount(row.getHotelId()), toPaise(row.getAmount()));
+            paidCount += row.getCount();
+            paidAmount += toPaise(row.getAmount());
+        }
+        seeded.put(PAID_COUNT, paidCount);
+        seeded.put(PAID_AMOUNT, paidAmount);
+        for (String name : changes.keySet()) {
+            long early = unwritten(name);
+            if (early != 0 && !name.equals(USER_COUNT) && !name.equals(HOTEL_COUNT)) {
+                seeded.merge(name, -early, Long::sum);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            transactions.executeWithoutResult(status -> seeded.forEach((name, value) -> counterRepository.insert(name, value, now)));
+            System.out.println("📊 Seeded " + seeded.size() + " dashboard counters from bookings and payments");
+        } catch (DataIntegrityViolationException e) {
+            System.out.println("📊 Dashboard counters were seeded by another instance");
+        }
+    }
+
+    // Tables seeded before users and hotels were counted get those counters here. The
+    // rows inserted since startup are already in count() and also in our changes, which
+    // the next checkpoint adds, so they are taken off the seeded value.
+    private void seedRowCounts() {
+        Map<String, Long> seeded = new HashMap<>();
+        seeded.put(USER_COUNT, userRepository.count() - unwritten(USER_COUNT));
+        seeded.put(HOTEL_COUNT, hotelRepository.count() - unwritten(HOTEL_COUNT));
+        seeded.keySet().removeAll(base.keySet());
+
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            transactions.executeWithoutResult(status -> seeded.forEach((name, value) -> counterRepository.insert(name, value, now)));
+            System.out.println("📊 Seeded user and hotel counters: " + seeded);
+        } catch (DataIntegrityViolationException e) {
+            System.out.println("📊 User and hotel counters were seeded by another instance");
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        long paise = toPaise(event.totalAmount());
+        if (event.previousStatus() != null) {
+            add(statusCount(event.previousStatus()), -1);
+            add(statusAmount(event.previousStatus()), -paise);
+        }
+        if (event.status() != null) {
+            add(statusCount(event.status()), 1);
+            add(statusAmount(event.status()), paise);
+        }
+        if (event.previousStatus() == null && event.hotelId() != null) {
+            add(hotelBookings(event.hotelId()), 1);
+            add(hotelBookedAmount(event.hotelId()), paise);
+        }
+        eventsApplied.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentCompleted(PaymentCompletedEvent event) {
+        long paise = toPaise(event.amount());
+        add(PAID_COUNT, 1);
+        add(PAID_AMOUNT, paise);
+        if (event.hotelId() != null) {
+            add(hotelPaidAmount(event.hotelId()), paise);
+        }
+        eventsApplied.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRowCountChanged(RowCountChangedEvent event) {
+        add(rowCount(event.entityType()), event.delta());
+        eventsApplied.incrementAndGet();
+    }
+
+    public long value(String name) {
+        LongAdder seen = changes.get(name);
+        return base.getOrDefault(name, 0L) + (seen == null ? 0 : seen.sum());
+    }
+
+    public double amount(String name) {
+        return value(name) / 100.0;
+    }
+
+    // Adds each counter's unwritten changes to the table, then reloads the shared totals.
+    // Readers keep using the old bases, which leave our writes to the adders, until the
+    // reloaded ones, which leave out exactly what was written, replace them in one swap.
+    @Scheduled(fixedDelayString = "${stayease.stats.checkpointMs:30000}",
+            initialDelayString = "${stayease.stats.checkpointMs:30000}")
+    public synchronized int checkpoint() {
+        long started = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        int flushed = 0;
+        for (Map.Entry<String, LongAdder> entry : changes.entrySet()) {
+            long seen = entry.getValue().sum();
+            long delta = seen - written.getOrDefault(entry.getKey(), 0L);
+            if (delta == 0) {
+                continue;
+            }
+            if (counterRepository.addTo(entry.getKey(), delta, now) == 0) {
+                try {
+                    counterRepository.insert(entry.getKey(), delta, now);
+                } catch (DataIntegrityViolationException e) {
+                    // created by another instance since our update; add to that row instead
+                    counterRepository.addTo(entry.getKey(), delta, now);
+                }
+            }
+            written.put(entry.getKey(), seen);
+            flushed++;
+        }
+        reloadBase();
+        checkpoints.incrementAndGet();
+        lastCheckpointMs.set(System.currentTimeMillis() - started);
+        return flushed;
+    }
+
+    @PreDestroy
+    public void flush() {
+        try {
+            checkpoint();
+        } catch (RuntimeException e) {
+            System.err.println("❌ Could not checkpoint dashboard counters on shutdown: " + e.getMessage());
+        }
+    }
+
+    private void reloadBase() {
+        Map<String, Long> fresh = new HashMap<>();
+        for (StatsCounter counter : counterRepository.findAll()) {
+            fresh.put(counter.getName(), counter.getTotal());
+        }
+        written.forEach((name, value) -> fresh.merge(name, -value, Long::sum));
+        base = fresh;
+    }
+
+    private long unwritten(String name) {
+        LongAdder seen = changes.get(name);
+        return (seen == null ? 0 : seen.sum()) - written.getOrDefault(name, 0L);
+    }
+
+    private void add(String name, long delta) {
+        changes.computeIfAbsent(name, key -> new LongAdder()).add(delta);
+    }
+
+    private static long toPaise(Double amount) {
+        return amount == null ? 0 : Math.round(amount * 100);
+    }
+
+    @Override
+    public String metricsName() {
+        return "dashboardProjection";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        long dirty = changes.keySet().stream().filter(name -> unwritten(name) != 0).count();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("counters", base.size());
+        metrics.put("pendingCounters", dirty);
+        metrics.put("eventsApplied", eventsApplied.get());
+        metrics.put("checkpoints", checkpoints.get());
+        metrics.put("lastCheckpointMs", lastCheckpointMs.get());
+        return metrics;
+    }
+}
@@ -0,0 +1,53 @@
+package com.stayease.backend.service.impl;
+
+import com.stayease.backend.dto.DashboardStatsDTO;
+import com.stayease.backend.dto.HotelStatsDTO;
+import com.stayease.backend.model.BookingStatus;
+import com.stayease.backend.service.DashboardStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Every figure comes from the event-fed counters; nothing here reads or counts a table
+@Service
+public class DashboardStatsServiceImpl implements DashboardStatsService {
+
+    @Autowired private DashboardProjector projector;
+
+    @Override
+    public DashboardStatsDTO getDashboardStats() {
+        long totalBookings = 0;
+        long totalPaise = 0;
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (BookingStatus status : BookingStatus.values()) {
+            long count = projector.value(DashboardProjector.statusCount(status));
+            byStatus.put(status.name(), count);
+            totalBookings += count;
+            totalPaise += projector.value(DashboardProjector.statusAmount(status));
+        }
+
+        return DashboardStatsDTO.builder()
+                .totalUsers(projector.value(DashboardProjector.USER_COUNT))
+                .totalHotels(projector.value(DashboardProjector.HOTEL_COUNT))
+                .totalBookings(totalBookings)
+                .totalRevenue(totalPaise / 100.0)
+                .pendingBookings(byStatus.get(BookingStatus.PENDING.name()))
+                .confirmedBookings(byStatus.get(BookingStatus.CONFIRMED.name()))
+                .completedPayments(projector.value(DashboardProjector.PAID_COUNT))
+                .paidRevenue(projector.amount(DashboardProjector.PAID_AMOUNT))
+                .bookingsByStatus(byStatus)
+                .build();
+    }
+
+    @Override
+    public HotelStatsDTO getHotelStats(Long hotelId) {
+        return HotelStatsDTO.builder()
+                .hotelId(hotelId)
+                .totalBookings(projector.value(DashboardProjector.hotelBookings(hotelId)))
+                .bookedAmount(projector.amount(DashboardProjector.hotelBookedAmount(hotelId)))
+                .paidRevenue(projector.amount(DashboardProjector.hotelPaidAmount(hotelId)))
+                .build();
+    }
+}
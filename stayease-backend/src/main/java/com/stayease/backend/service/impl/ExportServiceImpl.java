@@ -0,0 +1,127 @@
+package com.stayease.backend.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stayease.backend.dto.BookingExportRowDTO;
+import com.stayease.backend.dto.ExportFormat;
+import com.stayease.backend.dto.PaymentExportRowDTO;
+import com.stayease.backend.repository.BookingRepository;
+import com.stayease.backend.repository.PaymentRepository;
+import com.stayease.backend.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Finance exports. Rows come from a forward-only cursor (see the streamForExport
+ * queries) as flat DTOs, so nothing is kept in the persistence context, and each row
+ * is written out as soon as it is read. The writer is flushed every
+ * stayease.export.flushRows rows so the client sees data while the export runs.
+ * Heap use stays flat however many rows are exported.
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final String BOOKING_HEADER =
+            "id,hotelId,hotelName,username,email,checkIn,checkOut,guests,totalAmount,status,createdAt";
+    private static final String PAYMENT_HEADER =
+            "id,bookingId,hotelId,hotelName,amount,status,paymentMethod,transactionId,createdAt";
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private int flushRows = 1000;
+
+    @Value("${stayease.export.flushRows:1000}")
+    void setFlushRows(int flushRows) {
+        this.flushRows = Math.max(1, flushRows);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportBookings(ExportFormat format, LocalDate from, LocalDate to, Writer out) throws IOException {
+        try (Stream<BookingExportRowDTO> rows = bookingRepository.streamForExport(startOf(from), endOf(to))) {
+            return write(format, BOOKING_HEADER, rows, row -> String.join(",",
+                    number(row.id()), number(row.hotelId()), text(row.hotelName()), text(row.username()),
+                    text(row.email()), value(row.checkIn()), value(row.checkOut()), number(row.guests()),
+                    amount(row.totalAmount()), value(row.status()), value(row.createdAt())), out);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportPayments(ExportFormat format, LocalDate from, LocalDate to, Writer out) throws IOException {
+        try (Stream<PaymentExportRowDTO> rows = paymentRepository.streamForExport(startOf(from), endOf(to))) {
+            return write(format, PAYMENT_HEADER, rows, row -> String.join(",",
+                    number(row.id()), number(row.bookingId()), number(row.hotelId()), text(row.hotelName()),
+                    amount(row.amount()), value(row.status()), text(row.paymentMethod()),
+                    text(row.transactionId()), value(row.createdAt())), out);
+        }
+    }
+
+    private <T> long write(ExportFormat format, String header, Stream<T> rows, Function<T, String> csvLine,
+                           Writer out) throws IOException {
+        if (format == ExportFormat.CSV) {
+            out.write(header);
+            out.write('\n');
+        }
+        long written = 0;
+        for (T row : (Iterable<T>) rows::iterator) {
+            out.write(format == ExportFormat.CSV ? csvLine.apply(row) : objectMapper.writeValueAsString(row));
+            out.write('\n');
+            if (++written % flushRows == 0) {
+                out.flush();
+            }
+        }
+        out.flush();
+        return written;
+    }
+
+    private static LocalDateTime startOf(LocalDate day) {
+        return day == null ? null : day.atStartOfDay();
+    }
+
+    // to is inclusive, so the range ends at the start of the next day
+    private static LocalDateTime endOf(LocalDate day) {
+        return day == null ? null : day.plusDays(1).atStartOfDay();
+    }
+
+    private static String number(Number value) {
+        return value == null ? "" : value.toString();
+    }
+
+    // Plain digits, never scientific notation, for spreadsheets
+    private static String amount(Double value) {
+        return value == null ? "" : BigDecimal.valueOf(value).toPlainString();
+    }
+
+    private static String value(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    // Quotes fields that need it, and defuses user-entered text a spreadsheet would run as a formula
+    private static String text(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        String cell = "=+-@\t\r".indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+        if (cell.indexOf(',') >= 0 || cell.indexOf('"') >= 0 || cell.indexOf('\n') >= 0 || cell.indexOf('\r') >= 0) {
+            return '"' + cell.replace("\"", "\"\"") + '"';
+        }
+        return cell;
+    }
+}
@@ -0,0 +1,108 @@
+package com.stayease.backend.service.impl;
+
+import com.stayease.backend.dto.ExpiredHoldDTO;
+import com.stayease.backend.event.BookingStatusChangedEvent;
+import com.stayease.backend.model.BookingStatus;
+import com.stayease.backend.repository.BookingRepository;
+import com.stayease.backend.service.MetricsSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Releases PENDING bookings whose payment hold has run out. Each pass is two
+ * set-based statements over the (status, holdExpiresAt) index, in one transaction:
+ * one that locks and collects the lapsed rows, one UPDATE that flips them all to
+ * EXPIRED. Only the rooms involved are then reloaded into the availability index,
+ * and each released booking is published for the dashboard counters.
+ *
+ * Reads already ignore lapsed holds, so a late sweep never blocks a new booking;
+ * it only keeps the table and the in-memory index honest.
+ */
+@Component
+public class HoldExpirySweeper implements MetricsSource {
+
+    private final BookingRepository bookingRepository;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate transactions;
+    private final Duration holdTtl;
+
+    private final AtomicLong sweeps = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong lastSweepMs = new AtomicLong();
+
+    public HoldExpirySweeper(BookingRepository bookingRepository,
+                             RoomAvailabilityIndex availabilityIndex,
+                             ApplicationEventPublisher events,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${stayease.booking.holdMinutes:15}") long holdMinutes) {
+        this.bookingRepository = bookingRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.events = events;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.holdTtl = Duration.ofMinutes(holdMinutes);
+    }
+
+    @Scheduled(fixedDelayString = "${stayease.booking.holdSweepMs:60000}",
+            initialDelayString = "${stayease.booking.holdSweepMs:60000}")
+    public int sweep() {
+        long started = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+
+        int assigned = bookingRepository.assignMissingHolds(now.plus(holdTtl));
+        if (assigned > 0) {
+            System.out.println("⏳ Gave " + assigned + " older pending bookings a payment hold");
+        }
+
+        List<ExpiredHoldDTO> lapsed = transactions.execute(status -> {
+            List<ExpiredHoldDTO> rows = bookingRepository.findExpiredHoldsForUpdate(now);
+            if (!rows.isEmpty()) {
+                bookingRepository.expireHolds(now);
+                // delivered once the transaction commits
+                rows.forEach(row -> events.publishEvent(new BookingStatusChangedEvent(row.getBookingId(), row.getHotelId(),
+                        BookingStatus.PENDING, BookingStatus.EXPIRED, row.getTotalAmount(), null)));
+            }
+            return rows;
+        });
+        int released = lapsed.size();
+        Set<Long> roomIds = new TreeSet<>();
+        lapsed.forEach(row -> roomIds.add(row.getRoomId()));
+        roomIds.forEach(availabilityIndex::refreshRoom);
+
+        sweeps.incrementAndGet();
+        expired.addAndGet(released);
+        lastSweepMs.set(System.currentTimeMillis() - started);
+        if (released > 0) {
+            System.out.println("⌛ Released " + released + " expired holds across " + roomIds.size() + " rooms");
+        }
+        return released;
+    }
+
+    @Override
+    public String metricsName() {
+        return "holdExpiry";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("holdMinutes", holdTtl.toMinutes());
+        metrics.put("sweeps", sweeps.get());
+        metrics.put("expired", expired.get());
+        metrics.put("lastSweepMs", lastSweepMs.get());
+        return metrics;
+    }
+}
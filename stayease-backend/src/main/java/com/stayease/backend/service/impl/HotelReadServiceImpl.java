@@ -0,0 +1,116 @@
+package com.stayease.backend.service.impl;
+
+import com.stayease.backend.dto.HotelResponseDTO;
+import com.stayease.backend.dto.OwnedValueDTO;
+import com.stayease.backend.dto.RoomResponseDTO;
+import com.stayease.backend.model.Hotel;
+import com.stayease.backend.model.Room;
+import com.stayease.backend.repository.HotelRepository;
+import com.stayease.backend.repository.RoomRepository;
+import com.stayease.backend.service.HotelReadService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Maps hotels and rooms to response DTOs without touching their lazy collections.
+ * Amenities, images, rooms, room features and room images are each fetched with
+ * one IN query for the whole batch, so a page of hotels costs the same handful of
+ * statements whether it holds 5 hotels or 50.
+ */
+@Service
+public class HotelReadServiceImpl implements HotelReadService {
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Override
+    public List<HotelResponseDTO> toHotelDTOs(List<Hotel> hotels, boolean withRooms) {
+        if (hotels.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = hotels.stream().map(Hotel::getId).collect(Collectors.toList());
+        Map<Long, List<String>> amenities = group(hotelRepository.findAmenities(ids));
+        Map<Long, List<String>> images = group(hotelRepository.findImages(ids));
+
+        Map<Long, List<RoomResponseDTO>> roomsByHotel = new HashMap<>();
+        if (withRooms) {
+            for (RoomResponseDTO room : toRoomDTOs(roomRepository.findByHotelIdIn(ids))) {
+                roomsByHotel.computeIfAbsent(room.getHotelId(), id -> new ArrayList<>()).add(room);
+            }
+        }
+
+        List<HotelResponseDTO> dtos = new ArrayList<>(hotels.size());
+        for (Hotel hotel : hotels) {
+            HotelResponseDTO dto = new HotelResponseDTO();
+            dto.setId(hotel.getId());
+            dto.setName(hotel.getName());
+            dto.setAddress(hotel.getAddress());
+            dto.setCity(hotel.getCity());
+            dto.setState(hotel.getState());
+            dto.setPincode(hotel.getPincode());
+            dto.setDescription(hotel.getDescription());
+            dto.setRating(hotel.getRating());
+            dto.setTotalReviews(hotel.getTotalReviews());
+            dto.setMinPricePerNight(hotel.getMinPricePerNight());
+            dto.setMaxPricePerNight(hotel.getMaxPricePerNight());
+            dto.setAmenities(amenities.getOrDefault(hotel.getId(), new ArrayList<>()));
+            dto.setImages(images.getOrDefault(hotel.getId(), new ArrayList<>()));
+            dto.setContactEmail(hotel.getContactEmail());
+            dto.setContactPhone(hotel.getContactPhone());
+            dto.setWebsite(hotel.getWebsite());
+            if (withRooms) {
+                dto.setRooms(roomsByHotel.getOrDefault(hotel.getId(), new ArrayList<>()));
+            }
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    @Override
+    public HotelResponseDTO toHotelDTO(Hotel hotel) {
+        if (hotel == null) return null;
+        return toHotelDTOs(List.of(hotel), true).get(0);
+    }
+
+    @Override
+    public List<RoomResponseDTO> toRoomDTOs(List<Room> rooms) {
+        if (rooms.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = rooms.stream().map(Room::getId).collect(Collectors.toList());
+        Map<Long, List<String>> features = group(roomRepository.findFeatures(ids));
+        Map<Long, List<String>> images = group(roomRepository.findImages(ids));
+
+        List<RoomResponseDTO> dtos = new ArrayList<>(rooms.size());
+        for (Room room : rooms) {
+            RoomResponseDTO dto = new RoomResponseDTO();
+            dto.setId(room.getId());
+            dto.setRoomNumber(room.getRoomNumber());
+            dto.setType(room.getType());
+            dto.setPricePerNight(room.getPricePerNight());
+            dto.setCapacity(room.getCapacity());
+            dto.setSize(room.getSize());
+            dto.setAvailable(room.getAvailable());
+            dto.setFeatures(features.getOrDefault(room.getId(), new ArrayList<>()));
+            dto.setImages(images.getOrDefault(room.getId(), new ArrayList<>()));
+            // reading the id of the lazy hotel proxy does not load it
+            dto.setHotelId(room.getHotel() != null ? room.getHotel().getId() : null);
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    private static Map<Long, List<String>> group(List<OwnedValueDTO> values) {
+        return values.stream().collect(Collectors.groupingBy(OwnedValueDTO::getOwnerId,
+                Collectors.mapping(OwnedValueDTO::getValue, Collectors.toList())));
+    }
+}
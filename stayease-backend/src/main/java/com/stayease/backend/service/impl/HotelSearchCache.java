@@ -0,0 +1,135 @@
+package com.stayease.backend.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.stayease.backend.service.MetricsSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Result cache for hotel location searches, holding ranked hotel ids per
+ * normalized (location, minPrice, maxPrice, minRating). Ids rather than entities
+ * are cached so callers always rehydrate current rows inside their own session.
+ *
+ * Caffeine's W-TinyLFU policy bounds it by total cached ids, so a handful of huge
+ * result sets cannot push out all the popular small ones. Writes evict only the
+ * entries they can affect:
+ * - hotel create/update/delete: entries that contain the hotel, or whose location
+ *   query matches it now
+ * - room add/delete: the same, but only for price-filtered entries, since rooms
+ *   never change location-only or rating-only results
+ */
+@Component
+public class HotelSearchCache implements MetricsSource {
+
+    private final LocationSearchIndex locationIndex;
+    private final Cache<SearchKey, List<Long>> cache;
+
+    // bumped by every invalidation; a load that raced with one is not stored
+    private final AtomicLong writes = new AtomicLong();
+    private final LongAdder invalidations = new LongAdder();
+
+    public HotelSearchCache(LocationSearchIndex locationIndex,
+                            @Value("${stayease.search.cache.maxWeight:50000}") long maxWeight,
+                            @Value("${stayease.search.cache.ttlMinutes:10}") long ttlMinutes) {
+        this.locationIndex = locationIndex;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((SearchKey key, List<Long> ids) -> 1 + ids.size())
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+    }
+
+    public List<Long> get(SearchKey key, Supplier<List<Long>> loader) {
+        List<Long> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = writes.get();
+        List<Long> ids = List.copyOf(loader.get());
+        if (writes.get() != generation) {
+            return ids;
+        }
+        cache.put(key, ids);
+        // An invalidation that bumped `writes` after the check above may have swept the
+        // map before our put landed, so look again; one that bumps it later sweeps after
+        // the put and removes the entry itself.
+        if (writes.get() != generation) {
+            cache.asMap().remove(key, ids);
+        }
+        return ids;
+    }
+
+    // Call after the location index has seen the change
+    public void onHotelChanged(Long hotelId) {
+        evict(hotelId, false);
+    }
+
+    public void onRoomsChanged(Long hotelId) {
+        evict(hotelId, true);
+    }
+
+    public void clear() {
+        writes.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private void evict(Long hotelId, boolean priceFilteredOnly) {
+        writes.incrementAndGet();
+        cache.asMap().entrySet().removeIf(entry -> {
+            SearchKey key = entry.getKey();
+            if (priceFilteredOnly && !key.hasPriceFilter()) {
+                return false;
+            }
+            boolean affected = entry.getValue().contains(hotelId)
+                    || (key.location().isEmpty() || locationIndex.matches(key.location(), hotelId));
+            if (affected) {
+                invalidations.increment();
+            }
+            return affected;
+        });
+    }
+
+    @Override
+    public String metricsName() {
+        return "hotelSearchCache";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("entries", cache.estimatedSize());
+        metrics.put("hits", stats.hitCount());
+        metrics.put("misses", stats.missCount());
+        metrics.put("hitRate", stats.hitRate());
+        metrics.put("evictions", stats.evictionCount());
+        metrics.put("invalidations", invalidations.sum());
+        return metrics;
+    }
+
+    /**
+     * Normalized search parameters. The location goes through the same word
+     * normalization as the index, so "Patna", " patna " and "PATNA!" share an entry.
+     */
+    public record SearchKey(String location, Double minPrice, Double maxPrice, Double minRating) {
+
+        public static SearchKey of(String location, Double minPrice, Double maxPrice, Double minRating) {
+            return new SearchKey(String.join(" ", LocationSearchIndex.words(location)), minPrice, maxPrice, minRating);
+        }
+
+        boolean hasPriceFilter() {
+            return minPrice != null || maxPrice != null;
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package com.stayease.backend.service.impl;
 
+import com.stayease.backend.dto.HotelCursor;
 import com.stayease.backend.model.Hotel;
 import com.stayease.backend.model.Room;
 import com.stayease.backend.repository.HotelRepository;
-import com.stayease.backend.repository.RoomRepository;
 import com.stayease.backend.service.HotelService;
+import com.stayease.backend.service.impl.HotelSearchCache.SearchKey;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,11 +24,29 @@ public class HotelServiceImpl implements HotelService {
     private HotelRepository hotelRepository;
 
     @Autowired
-    private RoomRepository roomRepository;
+    private LocationSearchIndex locationIndex;
+
+    @Autowired
+    private HotelSearchCache searchCache;
 
     @Override
     public Hotel create(Hotel hotel) {
-        return hotelRepository.save(hotel);
+        // a hotel posted together with its rooms gets its price columns up front
+        if (hotel.getRooms() != null && !hotel.getRooms().isEmpty()) {
+            hotel.setMinPricePerNight(hotel.getRooms().stream().mapToDouble(Room::getPricePerNight).min().getAsDouble());
+            hotel.setMaxPricePerNight(hotel.getRooms().stream().mapToDouble(Room::getPricePerNight).max().getAsDouble());
+            hotel.setMaxCapacity(hotel.getRooms().stream().mapToInt(r -> r.getCapacity() != null ? r.getCapacity() : 0).max().getAsInt());
+        }
+        Hotel saved = hotelRepository.save(hotel);
+        locationIndex.put(saved);
+        searchCache.onHotelChanged(saved.getId());
+        return saved;
+    }
+
+    @Override
+    public void refreshRoomStats(Long hotelId) {
+        hotelRepository.refreshRoomStats(hotelId);
+        searchCache.onRoomsChanged(hotelId);
     }
 
     @Override
@@ -43,12 +67,17 @@ public class HotelServiceImpl implements HotelService {
         existing.setContactPhone(hotel.getContactPhone());
         existing.setWebsite(hotel.getWebsite());
 
-        return hotelRepository.save(existing);
+        Hotel saved = hotelRepository.save(existing);
+        locationIndex.put(saved);
+        searchCache.onHotelChanged(saved.getId());
+        return saved;
     }
 
     @Override
     public void delete(Long id) {
         hotelRepository.deleteById(id);
+        locationIndex.remove(id);
+        searchCache.onHotelChanged(id);
     }
 
     @Override
@@ -62,36 +91,76 @@ public class HotelServiceImpl implements HotelService {
         return hotelRepository.findAll();
     }
 
+    @Override
+    public List<Hotel> getPage(String sort, HotelCursor after, int limit) {
+        PageRequest first = PageRequest.of(0, limit);
+        if (HotelCursor.BY_NAME.equals(sort)) {
+            return after == null
+                    ? hotelRepository.findNamePage(first)
+                    : hotelRepository.findNamePageAfter(after.getKey(), after.getId(), first);
+        }
+        return after == null
+                ? hotelRepository.findRatingPage(first)
+                : hotelRepository.findRatingPageAfter(after.getRating(), after.getId(), first);
+    }
+
     @Override
     public List<Hotel> searchByLocation(String location) {
-        return hotelRepository.findByAddressContainingIgnoreCaseOrCityContainingIgnoreCase(location, location);
+        if (!locationIndex.isReady()) {
+            return hotelRepository.findByAddressContainingIgnoreCaseOrCityContainingIgnoreCase(location, location);
+        }
+
+        // ranked ids from the trigram index (or the cache), then one primary-key lookup
+        List<Long> ids = searchCache.get(SearchKey.of(location, null, null, null), () -> locationIndex.search(location));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return inRankOrder(ids, hotelRepository.findAllById(ids));
     }
 
     @Override
     public List<Hotel> searchHotels(String location, Double minPrice, Double maxPrice, Double minRating) {
-        List<Hotel> hotels = searchByLocation(location);
-
-        return hotels.stream()
-                .filter(hotel -> {
-                    // Filter by rating
-                    if (minRating != null && hotel.getRating() < minRating) {
-                        return false;
-                    }
-
-                    // Filter by price
-                    if (minPrice != null || maxPrice != null) {
-                        List<Room> rooms = roomRepository.findByHotelId(hotel.getId());
-                        double minRoomPrice = rooms.stream()
-                                .mapToDouble(Room::getPricePerNight)
-                                .min()
-                                .orElse(Double.MAX_VALUE);
-
-                        if (minPrice != null && minRoomPrice < minPrice) return false;
-                        if (maxPrice != null && minRoomPrice > maxPrice) return false;
-                    }
-
-                    return true;
-                })
+        if (location == null || location.isBlank()) {
+            return hotelRepository.filterAllByPriceAndRating(minPrice, maxPrice, minRating);
+        }
+        if (!locationIndex.isReady()) {
+            return searchByLocation(location).stream()
+                    .filter(hotel -> matches(hotel, minPrice, maxPrice, minRating))
+                    .collect(Collectors.toList());
+        }
+
+        // location from the index, price and rating in a single query on the denormalized columns;
+        // on a miss the filtered hotels are used directly, on a hit only the ids are looked up
+        AtomicReference<List<Hotel>> loaded = new AtomicReference<>();
+        List<Long> ids = searchCache.get(SearchKey.of(location, minPrice, maxPrice, minRating), () -> {
+            List<Long> ranked = locationIndex.search(location);
+            List<Hotel> hotels = ranked.isEmpty()
+                    ? List.of()
+                    : inRankOrder(ranked, hotelRepository.filterByPriceAndRating(ranked, minPrice, maxPrice, minRating));
+            loaded.set(hotels);
+            return hotels.stream().map(Hotel::getId).collect(Collectors.toList());
+        });
+        if (loaded.get() != null) {
+            return loaded.get();
+        }
+        return ids.isEmpty() ? List.of() : inRankOrder(ids, hotelRepository.findAllById(ids));
+    }
+
+    private static List<Hotel> inRankOrder(List<Long> ids, List<Hotel> hotels) {
+        Map<Long, Hotel> byId = hotels.stream()
+                .collect(Collectors.toMap(Hotel::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    // Same predicates as filterByPriceAndRating, for the LIKE fallback
+    private static boolean matches(Hotel hotel, Double minPrice, Double maxPrice, Double minRating) {
+        if (minRating != null && (hotel.getRating() == null || hotel.getRating() < minRating)) return false;
+        Double cheapest = hotel.getMinPricePerNight();
+        if (minPrice != null && (cheapest == null || cheapest < minPrice)) return false;
+        if (maxPrice != null && (cheapest == null || cheapest > maxPrice)) return false;
+        return true;
+    }
+}
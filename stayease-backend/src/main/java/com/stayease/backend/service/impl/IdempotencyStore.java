@@ -0,0 +1,232 @@
+package com.stayease.backend.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stayease.backend.model.IdempotencyRecord;
+import com.stayease.backend.repository.IdempotencyRecordRepository;
+import com.stayease.backend.service.MetricsSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the responses of requests sent with an Idempotency-Key so a retry gets
+ * the first answer back instead of running again.
+ *
+ * Finished responses live in a Caffeine cache backed by the idempotency_keys table,
+ * which survives restarts and is shared by every node. A request that is still
+ * running is a future in this JVM: duplicates arriving meanwhile wait on it (up to
+ * stayease.idempotency.waitSeconds) and then replay its result. On another node
+ * the same key hits the table's unique constraint and is answered as in progress.
+ */
+@Component
+public class IdempotencyStore implements MetricsSource {
+
+    public enum Outcome { EXECUTE, REPLAY, MISMATCH, IN_PROGRESS }
+
+    public record StoredResponse(String fingerprint, int status, String contentType, String body) {
+    }
+
+    public record Claim(Outcome outcome, StoredResponse response) {
+    }
+
+    // handed to local waiters when the key is being run by another node
+    private static final StoredResponse CONFLICT = new StoredResponse("", 0, null, null);
+
+    private final IdempotencyRecordRepository repository;
+    private final Duration ttl;
+    private final long waitNanos;
+    private final Duration staleAfter;
+    private final Cache<String, StoredResponse> completed;
+    private final ConcurrentHashMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder waited = new LongAdder();
+    private final LongAdder mismatched = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+                            @Value("${stayease.idempotency.ttlHours:24}") long ttlHours,
+                            @Value("${stayease.idempotency.waitSeconds:10}") long waitSeconds,
+                            @Value("${stayease.idempotency.staleSeconds:120}") long staleSeconds,
+                            @Value("${stayease.idempotency.cacheSize:10000}") long cacheSize) {
+        this.repository = repository;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.waitNanos = TimeUnit.SECONDS.toNanos(waitSeconds);
+        this.staleAfter = Duration.ofSeconds(staleSeconds);
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Decides what to do with a keyed request. EXECUTE means the caller now owns the
+     * key and must finish with complete() or abandon().
+     */
+    public Claim begin(String requestKey, String fingerprint) {
+        long deadline = System.nanoTime() + waitNanos;
+        while (true) {
+            StoredResponse done = completed.getIfPresent(requestKey);
+            if (done != null) {
+                return replay(done, fingerprint);
+            }
+
+            CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(requestKey, mine);
+            if (running == null) {
+                return claim(requestKey, fingerprint);
+            }
+
+            waited.increment();
+            StoredResponse result;
+            try {
+                result = running.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                conflicts.increment();
+                return new Claim(Outcome.IN_PROGRESS, null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new Claim(Outcome.IN_PROGRESS, null);
+            } catch (ExecutionException e) {
+                result = null;
+            }
+            if (result == CONFLICT) {
+                return new Claim(Outcome.IN_PROGRESS, null);
+            }
+            if (result != null) {
+                return replay(result, fingerprint);
+            }
+            // the first attempt ended without a response worth keeping, so this one may run it
+        }
+    }
+
+    public void complete(String requestKey, String fingerprint, int status, String contentType, String body) {
+        StoredResponse stored = new StoredResponse(fingerprint, status, contentType, body);
+        try {
+            repository.findByRequestKey(requestKey).ifPresent(record -> {
+                record.setCompleted(true);
+                record.setResponseStatus(status);
+                record.setResponseContentType(contentType);
+                record.setResponseBody(body);
+                repository.save(record);
+            });
+        } catch (RuntimeException e) {
+            System.err.println("❌ Could not persist idempotent response for " + requestKey + ": " + e.getMessage());
+        } finally {
+            completed.put(requestKey, stored);
+            release(requestKey, stored);
+        }
+    }
+
+    // The request failed in a way a retry should run again
+    public void abandon(String requestKey) {
+        try {
+            repository.deleteByRequestKey(requestKey);
+        } finally {
+            release(requestKey, null);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${stayease.idempotency.purgeMs:3600000}",
+            initialDelayString = "${stayease.idempotency.purgeMs:3600000}")
+    public int purgeExpired() {
+        int removed = repository.deleteExpired(LocalDateTime.now());
+        if (removed > 0) {
+            System.out.println("🧹 Purged " + removed + " expired idempotency keys");
+        }
+        return removed;
+    }
+
+    private Claim claim(String requestKey, String fingerprint) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Optional<IdempotencyRecord> existing = repository.findByRequestKey(requestKey);
+            if (existing.isPresent()) {
+                IdempotencyRecord record = existing.get();
+                boolean live = record.getExpiresAt().isAfter(now);
+                if (live && record.isCompleted()) {
+                    StoredResponse stored = new StoredResponse(record.getFingerprint(), record.getResponseStatus(),
+                            record.getResponseContentType(), record.getResponseBody());
+                    completed.put(requestKey, stored);
+                    release(requestKey, stored);
+                    return replay(stored, fingerprint);
+                }
+                if (live && record.getCreatedAt().isAfter(now.minus(staleAfter))) {
+                    return conflict(requestKey);
+                }
+                // expired, or left behind by a node that died mid-request
+                repository.deleteByRequestKey(requestKey);
+            }
+
+            repository.saveAndFlush(IdempotencyRecord.builder()
+                    .requestKey(requestKey)
+                    .fingerprint(fingerprint)
+                    .completed(false)
+                    .createdAt(now)
+                    .expiresAt(now.plus(ttl))
+                    .build());
+            executed.increment();
+            return new Claim(Outcome.EXECUTE, null);
+        } catch (DataIntegrityViolationException e) {
+            return conflict(requestKey);
+        } catch (RuntimeException e) {
+            release(requestKey, null);
+            throw e;
+        }
+    }
+
+    private Claim conflict(String requestKey) {
+        conflicts.increment();
+        release(requestKey, CONFLICT);
+        return new Claim(Outcome.IN_PROGRESS, null);
+    }
+
+    private Claim replay(StoredResponse stored, String fingerprint) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            mismatched.increment();
+            return new Claim(Outcome.MISMATCH, null);
+        }
+        replayed.increment();
+        return new Claim(Outcome.REPLAY, stored);
+    }
+
+    private void release(String requestKey, StoredResponse result) {
+        CompletableFuture<StoredResponse> running = inFlight.remove(requestKey);
+        if (running != null) {
+            running.complete(result);
+        }
+    }
+
+    @Override
+    public String metricsName() {
+        return "idempotency";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("cached", completed.estimatedSize());
+        metrics.put("inFlight", inFlight.size());
+        metrics.put("executed", executed.sum());
+        metrics.put("replayed", replayed.sum());
+        metrics.put("waited", waited.sum());
+        metrics.put("mismatched", mismatched.sum());
+        metrics.put("conflicts", conflicts.sum());
+        return metrics;
+    }
+}
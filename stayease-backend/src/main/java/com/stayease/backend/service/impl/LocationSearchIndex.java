@@ -0,0 +1,277 @@
+package com.stayease.backend.service.impl;
+
+import com.stayease.backend.model.Hotel;
+import com.stayease.backend.repository.HotelRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process location search over hotel city, address, state and pincode.
+ *
+ * Every normalized word is split into pg_trgm style trigrams ("  pa", " pat", ...)
+ * and kept in an inverted index trigram -> hotel ids. A query only scores the
+ * hotels that share at least one trigram with it, so a search no longer scans
+ * the whole hotels table. Scoring favours exact, prefix and substring word
+ * matches and falls back to trigram / edit-distance similarity, which is what
+ * lets "ptna" or "dehli" still find Patna and Delhi.
+ *
+ * Built at startup and updated incrementally by HotelServiceImpl.
+ */
+@Component
+public class LocationSearchIndex {
+
+    // How much a match in each field counts; a city hit beats a street name hit
+    private static final double CITY_WEIGHT = 1.0;
+    private static final double PINCODE_WEIGHT = 1.0;
+    private static final double ADDRESS_WEIGHT = 0.9;
+    private static final double STATE_WEIGHT = 0.8;
+
+    private final HotelRepository hotelRepository;
+    private final double threshold;
+
+    private volatile Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private volatile Map<Long, HotelDoc> docs = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+
+    public LocationSearchIndex(HotelRepository hotelRepository,
+                               @Value("${stayease.search.similarityThreshold:0.3}") double threshold) {
+        this.hotelRepository = hotelRepository;
+        this.threshold = threshold;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Map<String, Set<Long>> freshPostings = new ConcurrentHashMap<>();
+        Map<Long, HotelDoc> freshDocs = new ConcurrentHashMap<>();
+        for (Hotel hotel : hotelRepository.findAll()) {
+            HotelDoc doc = HotelDoc.of(hotel);
+            freshDocs.put(doc.id, doc);
+            addPostings(freshPostings, doc);
+        }
+        postings = freshPostings;
+        docs = freshDocs;
+        ready = true;
+        System.out.println("✅ Location index built: " + freshDocs.size() + " hotels, " + freshPostings.size() + " trigrams");
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public synchronized void put(Hotel hotel) {
+        if (hotel == null || hotel.getId() == null) {
+            return;
+        }
+        HotelDoc doc = HotelDoc.of(hotel);
+        HotelDoc previous = docs.put(doc.id, doc);
+        if (previous != null) {
+            removePostings(postings, previous);
+        }
+        addPostings(postings, doc);
+    }
+
+    public synchronized void remove(Long hotelId) {
+        HotelDoc previous = docs.remove(hotelId);
+        if (previous != null) {
+            removePostings(postings, previous);
+        }
+    }
+
+    /**
+     * Hotel ids matching the query, best match first. Ties go to the better rated
+     * hotel, then the lower id so results are stable.
+     */
+    public List<Long> search(String query) {
+        List<String> queryWords = words(query);
+        if (queryWords.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> candidates = new HashSet<>();
+        for (String word : queryWords) {
+            for (String trigram : trigrams(word)) {
+                Set<Long> ids = postings.get(trigram);
+                if (ids != null) {
+                    candidates.addAll(ids);
+                }
+            }
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        List<HotelDoc> matches = new ArrayList<>();
+        for (Long id : candidates) {
+            HotelDoc doc = docs.get(id);
+            if (doc == null) {
+                continue;
+            }
+            double score = score(queryWords, doc);
+            if (score >= threshold) {
+                scores.put(id, score);
+                matches.add(doc);
+            }
+        }
+
+        matches.sort(Comparator.<HotelDoc>comparingDouble(d -> scores.get(d.id)).reversed()
+                .thenComparing(d -> d.rating, Comparator.reverseOrder())
+                .thenComparing(d -> d.id));
+        return matches.stream().map(d -> d.id).toList();
+    }
+
+    // Whether search(query) would return this hotel, from its current indexed state
+    public boolean matches(String query, Long hotelId) {
+        List<String> queryWords = words(query);
+        HotelDoc doc = docs.get(hotelId);
+        return doc != null && !queryWords.isEmpty() && score(queryWords, doc) >= threshold;
+    }
+
+    // Average over query words of the best weighted match anywhere in the hotel
+    static double score(List<String> queryWords, HotelDoc doc) {
+        double total = 0;
+        for (String queryWord : queryWords) {
+            double best = 0;
+            for (Field field : doc.fields) {
+                for (String word : field.words) {
+                    best = Math.max(best, field.weight * similarity(queryWord, word));
+                }
+            }
+            total += best;
+        }
+        return total / queryWords.size();
+    }
+
+    static double similarity(String queryWord, String word) {
+        if (word.equals(queryWord)) {
+            return 1.0;
+        }
+        if (word.startsWith(queryWord)) {
+            return 0.95;
+        }
+        if (word.contains(queryWord)) {
+            return 0.9;
+        }
+        // pincodes are exact or prefix only, "800001" is not a typo of "110001"
+        if (queryWord.chars().allMatch(Character::isDigit)) {
+            return 0;
+        }
+        double trigram = trigramSimilarity(queryWord, word);
+        // a small edit distance catches transpositions ("dehli") that share few trigrams
+        if (queryWord.length() >= 4) {
+            int maxEdits = queryWord.length() <= 6 ? 1 : 2;
+            int distance = editDistance(queryWord, word);
+            if (distance <= maxEdits) {
+                double edit = 1.0 - (double) distance / Math.max(queryWord.length(), word.length());
+                return Math.max(trigram, 0.85 * edit);
+            }
+        }
+        return trigram;
+    }
+
+    static double trigramSimilarity(String a, String b) {
+        Set<String> ta = trigrams(a);
+        Set<String> tb = trigrams(b);
+        int common = 0;
+        for (String t : ta) {
+            if (tb.contains(t)) {
+                common++;
+            }
+        }
+        int union = ta.size() + tb.size() - common;
+        return union == 0 ? 0 : (double) common / union;
+    }
+
+    // Optimal string alignment distance: Levenshtein plus adjacent transpositions
+    static int editDistance(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) d[i][0] = i;
+        for (int j = 0; j <= b.length(); j++) d[0][j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+
+    static Set<String> trigrams(String word) {
+        String padded = "  " + word + " ";
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    // Lowercase, strip accents, split on anything that is not a letter or digit
+    static List<String> words(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase();
+        List<String> words = new ArrayList<>();
+        for (String word : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static void addPostings(Map<String, Set<Long>> postings, HotelDoc doc) {
+        for (String trigram : doc.trigrams()) {
+            postings.computeIfAbsent(trigram, t -> ConcurrentHashMap.newKeySet()).add(doc.id);
+        }
+    }
+
+    private static void removePostings(Map<String, Set<Long>> postings, HotelDoc doc) {
+        for (String trigram : doc.trigrams()) {
+            postings.computeIfPresent(trigram, (t, ids) -> {
+                ids.remove(doc.id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    record Field(double weight, List<String> words) {
+    }
+
+    record HotelDoc(Long id, double rating, List<Field> fields) {
+
+        static HotelDoc of(Hotel hotel) {
+            return new HotelDoc(hotel.getId(),
+                    hotel.getRating() != null ? hotel.getRating() : 0.0,
+                    List.of(new Field(CITY_WEIGHT, words(hotel.getCity())),
+                            new Field(PINCODE_WEIGHT, words(hotel.getPincode())),
+                            new Field(ADDRESS_WEIGHT, words(hotel.getAddress())),
+                            new Field(STATE_WEIGHT, words(hotel.getState()))));
+        }
+
+        Set<String> trigrams() {
+            Set<String> trigrams = new HashSet<>();
+            for (Field field : fields) {
+                for (String word : field.words) {
+                    trigrams.addAll(LocationSearchIndex.trigrams(word));
+                }
+            }
+            return trigrams;
+        }
+    }
+}
@@ -3,14 +3,20 @@ package com.stayease.backend.service.impl;
 import com.razorpay.Order;
 import com.razorpay.RazorpayClient;
 import com.razorpay.RazorpayException;
+import com.stayease.backend.event.BookingStatusChangedEvent;
+import com.stayease.backend.event.PaymentCompletedEvent;
 import com.stayease.backend.model.*;
 import com.stayease.backend.model.PaymentStatus;
 import com.stayease.backend.repository.BookingRepository;
 import com.stayease.backend.repository.PaymentRepository;
+import com.stayease.backend.service.BookingService;
 import com.stayease.backend.service.PaymentService;
+import com.stayease.backend.service.RetryOnConflict;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -26,6 +32,19 @@ public class PaymentServiceImpl implements PaymentService {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private RoomAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private BookingService bookingService;
+
+    private ApplicationEventPublisher events = event -> { };
+
+    @Autowired
+    void setEventPublisher(ApplicationEventPublisher events) {
+        this.events = events;
+    }
+
     @Value("${razorpay.key.id}")
     private String razorpayKeyId;
 
@@ -89,6 +108,7 @@ public class PaymentServiceImpl implements PaymentService {
     }
 
     @Override
+    @RetryOnConflict
     public Payment verifyPayment(String razorpayPaymentId, String razorpayOrderId, String razorpaySignature) {
         try {
             // In real scenario, verify signature with Razorpay
@@ -97,6 +117,9 @@ public class PaymentServiceImpl implements PaymentService {
             Payment payment = paymentRepository.findByRazorpayOrderId(razorpayOrderId)
                     .orElseThrow(() -> new RuntimeException("Payment not found for order: " + razorpayOrderId));
 
+            // a repeated verification of a completed payment is not new revenue
+            boolean firstCompletion = payment.getStatus() != PaymentStatus.COMPLETED;
+
             // Update payment status
             payment.setStatus(PaymentStatus.COMPLETED);
             payment.setRazorpayPaymentId(razorpayPaymentId);
@@ -104,19 +127,47 @@ public class PaymentServiceImpl implements PaymentService {
             payment.setUpdatedAt(LocalDateTime.now());
 
             // Update booking status
-            Booking booking = payment.getBooking();
-            booking.setStatus(BookingStatus.CONFIRMED);
-            booking.setUpdatedAt(LocalDateTime.now());
-            bookingRepository.save(booking);
+            confirmBooking(payment.getBooking());
 
-            return paymentRepository.save(payment);
+            Payment saved = paymentRepository.save(payment);
+            if (firstCompletion) {
+                paymentCompleted(saved);
+            }
+            return saved;
 
+        } catch (OptimisticLockingFailureException e) {
+            // left as is so the retry aspect can run the verification again on fresh rows
+            throw e;
         } catch (Exception e) {
             System.err.println("❌ Payment verification failed: " + e.getMessage());
             throw new RuntimeException("Payment verification failed: " + e.getMessage());
         }
     }
 
+    // A booking whose hold has lapsed no longer owns its nights, so confirming it
+    // goes back through the booking service's overlap guard instead of a plain save
+    private Booking confirmBooking(Booking booking) {
+        if (!booking.holdsRoom(LocalDateTime.now())) {
+            return bookingService.confirmBooking(booking.getId());
+        }
+        BookingStatus previousStatus = booking.getStatus();
+        booking.setStatus(BookingStatus.CONFIRMED);
+        booking.setUpdatedAt(LocalDateTime.now());
+        Booking saved = bookingRepository.save(booking);
+        availabilityIndex.onBookingChanged(saved, previousStatus);
+        if (previousStatus != BookingStatus.CONFIRMED) {
+            events.publishEvent(BookingStatusChangedEvent.of(saved, previousStatus));
+        }
+        return saved;
+    }
+
+    private void paymentCompleted(Payment payment) {
+        Booking booking = payment.getBooking();
+        Long hotelId = booking == null || booking.getHotel() == null ? null : booking.getHotel().getId();
+        events.publishEvent(new PaymentCompletedEvent(payment.getId(), booking == null ? null : booking.getId(),
+                hotelId, payment.getAmount()));
+    }
+
     @Override
     public Payment getPaymentByBookingId(Long bookingId) {
         return paymentRepository.findByBookingId(bookingId)
@@ -124,6 +175,7 @@ public class PaymentServiceImpl implements PaymentService {
     }
 
     @Override
+    @RetryOnConflict
     public Payment mockPaymentSuccess(Long bookingId) {
         try {
             System.out.println("🔄 Processing mock payment for booking: " + bookingId);
@@ -136,9 +188,7 @@ public class PaymentServiceImpl implements PaymentService {
             Booking booking = bookingOpt.get();
 
             // Update booking status to CONFIRMED
-            booking.setStatus(BookingStatus.CONFIRMED);
-            booking.setUpdatedAt(LocalDateTime.now());
-            Booking updatedBooking = bookingRepository.save(booking);
+            Booking updatedBooking = confirmBooking(booking);
 
             System.out.println("✅ Booking status updated to CONFIRMED");
 
@@ -154,11 +204,14 @@ public class PaymentServiceImpl implements PaymentService {
                     .build();
 
             Payment savedPayment = paymentRepository.save(payment);
+            paymentCompleted(savedPayment);
 
             System.out.println("✅ Mock payment completed for booking: " + bookingId);
 
             return savedPayment;
 
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (Exception e) {
             System.err.println("❌ Mock payment failed: " + e.getMessage());
             throw new RuntimeException("Mock payment failed: " + e.getMessage());
@@ -0,0 +1,361 @@
+package com.stayease.backend.service.impl;
+
+import com.stayease.backend.dto.BookedStayDTO;
+import com.stayease.backend.model.Booking;
+import com.stayease.backend.model.BookingStatus;
+import com.stayease.backend.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory availability index: one bitset per room, one bit per night, covering
+ * a rolling horizon that starts today. Bit i of a room is set when the night of
+ * (baseDay + i) is taken by a blocking booking.
+ *
+ * Built once at startup from the bookings table and kept in sync by the booking
+ * and payment services, so an availability check is a word-wise AND over the stay
+ * range with no database round-trip. Stays outside the horizon (or before the
+ * index is built) are reported as not covered and callers fall back to the DB.
+ * A PENDING stay stays marked until HoldExpirySweeper releases it and refreshes
+ * the room, so for at most one sweep interval the index errs on the side of busy.
+ *
+ * Database reads run outside the write lock. Every change bumps a write counter
+ * under the lock, and a reload is only applied if the counters it started from
+ * are unchanged. After a few lost races the reload runs under the lock instead.
+ * When the date moves on, the nights that enter the end of the horizon are loaded
+ * with one query, so stays booked beyond the old horizon are not missed.
+ */
+@Component
+public class RoomAvailabilityIndex {
+
+    private final BookingRepository bookingRepository;
+    private final int horizonDays;
+    private final int words;
+    private final Clock clock;
+
+    private static final int OPTIMISTIC_TRIES = 3;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, long[]> nightsByRoom = new HashMap<>();
+    private long baseDay = -1; // epoch day of bit 0, -1 until built
+    private long writes; // all changes, guarded by lock
+    private final Map<Long, Long> roomWrites = new HashMap<>(); // changes per room, guarded by lock
+    private final AtomicBoolean rolling = new AtomicBoolean();
+
+    @Autowired
+    public RoomAvailabilityIndex(BookingRepository bookingRepository,
+                                 @Value("${stayease.availability.horizonDays:365}") int horizonDays) {
+        this(bookingRepository, horizonDays, Clock.systemDefaultZone());
+    }
+
+    public RoomAvailabilityIndex(BookingRepository bookingRepository, int horizonDays, Clock clock) {
+        this.bookingRepository = bookingRepository;
+        this.horizonDays = horizonDays;
+        this.words = (horizonDays + 63) >>> 6;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocalDate today = LocalDate.now(clock);
+        List<BookedStayDTO> stays = bookingRepository.findBookedStays(BookingStatus.BLOCKING, today, LocalDateTime.now(clock));
+
+        Map<Long, long[]> fresh = new HashMap<>();
+        long base = today.toEpochDay();
+        for (BookedStayDTO stay : stays) {
+            markStay(fresh.computeIfAbsent(stay.getRoomId(), id -> new long[words]), base, stay.getCheckIn(), stay.getCheckOut());
+        }
+
+        lock.writeLock().lock();
+        try {
+            nightsByRoom = fresh;
+            baseDay = base;
+            writes++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        System.out.println("✅ Availability index built: " + fresh.size() + " rooms, " + stays.size() + " stays");
+    }
+
+    // True when every night of [checkIn, checkOut) falls inside the indexed horizon
+    public boolean covers(LocalDate checkIn, LocalDate checkOut) {
+        if (checkIn == null || checkOut == null || !checkIn.isBefore(checkOut)) {
+            return false;
+        }
+        roll();
+        lock.readLock().lock();
+        try {
+            return baseDay >= 0
+                    && checkIn.toEpochDay() >= baseDay
+                    && checkOut.toEpochDay() - baseDay <= horizonDays;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Only meaningful when covers(checkIn, checkOut) is true
+    public boolean isAvailable(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        lock.readLock().lock();
+        try {
+            long[] nights = nightsByRoom.get(roomId);
+            if (nights == null) {
+                return true;
+            }
+            int from = (int) (checkIn.toEpochDay() - baseDay);
+            int to = (int) (checkOut.toEpochDay() - baseDay);
+            return !anySet(nights, Math.max(from, 0), Math.min(to, horizonDays));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a booking write. Blocking stays are marked in place; a stay that
+     * stops blocking is cleared by reloading that room, since another booking may
+     * still hold some of the same nights.
+     */
+    public void onBookingChanged(Booking booking, BookingStatus previousStatus) {
+        if (booking == null || booking.getRoom() == null || booking.getRoom().getId() == null) {
+            return;
+        }
+        boolean blocksNow = BookingStatus.BLOCKING.contains(booking.getStatus());
+        boolean blockedBefore = previousStatus != null && BookingStatus.BLOCKING.contains(previousStatus);
+
+        if (blocksNow) {
+            // marking is idempotent, and a lapsed hold being confirmed may already have been dropped by a refresh
+            markBooking(booking.getRoom().getId(), booking.getCheckIn(), booking.getCheckOut());
+        } else if (blockedBefore) {
+            refreshRoom(booking.getRoom().getId());
+        }
+    }
+
+    public void refreshRoom(Long roomId) {
+        for (int attempt = 1; ; attempt++) {
+            long base;
+            long seen;
+            lock.readLock().lock();
+            try {
+                if (baseDay < 0) {
+                    return;
+                }
+                base = baseDay;
+                seen = roomWrites.getOrDefault(roomId, 0L);
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            if (attempt == OPTIMISTIC_TRIES) {
+                lock.writeLock().lock();
+                try {
+                    putRoom(roomId, loadRoom(roomId, baseDay));
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                return;
+            }
+
+            // read from the older base, so a roll meanwhile only leaves extra past nights to clip
+            List<BookedStayDTO> stays = loadRoom(roomId, base);
+            lock.writeLock().lock();
+            try {
+                if (roomWrites.getOrDefault(roomId, 0L) == seen) {
+                    putRoom(roomId, stays);
+                    return;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private List<BookedStayDTO> loadRoom(Long roomId, long base) {
+        return bookingRepository.findBookedStaysForRoom(roomId, BookingStatus.BLOCKING, LocalDate.ofEpochDay(base), LocalDateTime.now(clock));
+    }
+
+    // Caller holds the write lock
+    private void putRoom(Long roomId, List<BookedStayDTO> stays) {
+        long[] fresh = new long[words];
+        for (BookedStayDTO stay : stays) {
+            markStay(fresh, baseDay, stay.getCheckIn(), stay.getCheckOut());
+        }
+        nightsByRoom.put(roomId, fresh);
+        changed(roomId);
+    }
+
+    // Caller holds the write lock
+    private void changed(Long roomId) {
+        writes++;
+        roomWrites.merge(roomId, 1L, Long::sum);
+    }
+
+    public void removeRoom(Long roomId) {
+        lock.writeLock().lock();
+        try {
+            nightsByRoom.remove(roomId);
+            changed(roomId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void markBooking(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        lock.writeLock().lock();
+        try {
+            if (baseDay < 0) {
+                return;
+            }
+            markStay(nightsByRoom.computeIfAbsent(roomId, id -> new long[words]), baseDay, checkIn, checkOut);
+            changed(roomId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Once the date moves on: drops the nights now in the past and loads the ones that
+    // entered the end of the horizon. One thread rolls; the others keep using the old
+    // window meanwhile, which covers fewer future nights but is otherwise still right.
+    private void roll() {
+        long today = LocalDate.now(clock).toEpochDay();
+        lock.readLock().lock();
+        try {
+            if (baseDay < 0 || today <= baseDay) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!rolling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            for (int attempt = 1; ; attempt++) {
+                long oldBase;
+                long seen;
+                lock.readLock().lock();
+                try {
+                    if (today <= baseDay) {
+                        return;
+                    }
+                    oldBase = baseDay;
+                    seen = writes;
+                } finally {
+                    lock.readLock().unlock();
+                }
+
+                if (attempt == OPTIMISTIC_TRIES) {
+                    lock.writeLock().lock();
+                    try {
+                        shiftTo(today, loadEntering(baseDay, today));
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                    return;
+                }
+
+                List<BookedStayDTO> entering = loadEntering(oldBase, today);
+                lock.writeLock().lock();
+                try {
+                    // a booking marked meanwhile was clipped to the old horizon, so read again
+                    if (writes == seen) {
+                        shiftTo(today, entering);
+                        return;
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        } finally {
+            rolling.set(false);
+        }
+    }
+
+    // Stays on the nights [oldBase + horizon, today + horizon), or the whole new horizon after a long gap
+    private List<BookedStayDTO> loadEntering(long oldBase, long today) {
+        LocalDate from = LocalDate.ofEpochDay(Math.max(oldBase + horizonDays, today));
+        LocalDate to = LocalDate.ofEpochDay(today + horizonDays);
+        return bookingRepository.findBookedStaysBetween(BookingStatus.BLOCKING, from, to, LocalDateTime.now(clock));
+    }
+
+    // Caller holds the write lock
+    private void shiftTo(long today, List<BookedStayDTO> entering) {
+        long days = today - baseDay;
+        for (long[] nights : nightsByRoom.values()) {
+            shiftDown(nights, days);
+        }
+        baseDay = today;
+        for (BookedStayDTO stay : entering) {
+            markStay(nightsByRoom.computeIfAbsent(stay.getRoomId(), id -> new long[words]), baseDay, stay.getCheckIn(), stay.getCheckOut());
+        }
+        writes++;
+    }
+
+    private void markStay(long[] nights, long base, LocalDate checkIn, LocalDate checkOut) {
+        if (checkIn == null || checkOut == null) {
+            return;
+        }
+        int from = (int) Math.max(checkIn.toEpochDay() - base, 0);
+        int to = (int) Math.min(checkOut.toEpochDay() - base, horizonDays);
+        if (from >= to) {
+            return;
+        }
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (firstWord == lastWord) {
+            nights[firstWord] |= firstMask & lastMask;
+            return;
+        }
+        nights[firstWord] |= firstMask;
+        for (int i = firstWord + 1; i < lastWord; i++) {
+            nights[i] = -1L;
+        }
+        nights[lastWord] |= lastMask;
+    }
+
+    static boolean anySet(long[] nights, int from, int to) {
+        if (from >= to) {
+            return false;
+        }
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (firstWord == lastWord) {
+            return (nights[firstWord] & firstMask & lastMask) != 0;
+        }
+        if ((nights[firstWord] & firstMask) != 0) {
+            return true;
+        }
+        for (int i = firstWord + 1; i < lastWord; i++) {
+            if (nights[i] != 0) {
+                return true;
+            }
+        }
+        return (nights[lastWord] & lastMask) != 0;
+    }
+
+    // bit i becomes bit (i - days); nights shifted past the end come back empty
+    static void shiftDown(long[] nights, long days) {
+        int wordShift = (int) Math.min(days >>> 6, nights.length);
+        int bitShift = (int) (days & 63);
+        for (int i = 0; i < nights.length; i++) {
+            int src = i + wordShift;
+            long low = src < nights.length ? nights[src] : 0L;
+            long high = src + 1 < nights.length ? nights[src + 1] : 0L;
+            nights[i] = bitShift == 0 ? low : (low >>> bitShift) | (high << (64 - bitShift));
+        }
+    }
+}
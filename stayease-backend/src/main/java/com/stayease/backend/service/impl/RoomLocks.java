@@ -0,0 +1,50 @@
+package com.stayease.backend.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed table of locks indexed by room id. Requests for the same room queue on
+ * the same lock in this JVM, so they reach the database one at a time instead of
+ * all piling onto the room's row lock; requests for different rooms almost always
+ * land on different stripes and run in parallel.
+ */
+class RoomLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    RoomLocks(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    ReentrantLock lockFor(Long roomId) {
+        return stripes[index(roomId)];
+    }
+
+    // Distinct stripes for several rooms, always in stripe order so two callers cannot deadlock
+    List<ReentrantLock> locksFor(Collection<Long> roomIds) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (Long roomId : roomIds) {
+            indexes.add(index(roomId));
+        }
+        List<ReentrantLock> locks = new ArrayList<>(indexes.size());
+        for (int i : indexes) {
+            locks.add(stripes[i]);
+        }
+        return locks;
+    }
+
+    private int index(Long roomId) {
+        long h = roomId * 0x9E3779B97F4A7C15L; // spread sequential ids across stripes
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -1,41 +1,136 @@
 package com.stayease.backend.service.impl;
 
-import com.stayease.backend.model.Booking;
+import com.stayease.backend.dto.HotelAvailabilityDTO;
+import com.stayease.backend.dto.RoomTypeAvailabilityDTO;
 import com.stayease.backend.model.BookingStatus;
+import com.stayease.backend.model.Hotel;
 import com.stayease.backend.model.Room;
-import com.stayease.backend.repository.BookingRepository;
 import com.stayease.backend.repository.RoomRepository;
+import com.stayease.backend.service.HotelService;
 import com.stayease.backend.service.SearchService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.util.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 
 @Service
 public class SearchServiceImpl implements SearchService {
 
+    private static final int DEFAULT_DB_PERMITS = 8;
+
     @Autowired private RoomRepository roomRepository;
-    @Autowired private BookingRepository bookingRepository;
+    @Autowired private HotelService hotelService;
+    @Autowired private RoomAvailabilityIndex availabilityIndex;
+
+    // Shared across requests: caps how many fan-out tasks hold a DB connection at once
+    private Semaphore dbPermits = new Semaphore(DEFAULT_DB_PERMITS);
+
+    @Value("${stayease.search.dbPermits:" + DEFAULT_DB_PERMITS + "}")
+    void setDbPermits(int permits) {
+        this.dbPermits = new Semaphore(permits);
+    }
 
     @Override
     public List<Room> findAvailableRooms(Long hotelId, LocalDate checkIn, LocalDate checkOut) {
-        // get all rooms for hotel
-        var rooms = roomRepository.findByHotelId(hotelId);
-        List<Room> available = new ArrayList<>();
-        for (Room r : rooms) {
-            // find bookings that overlap
-            List<Booking> overlapping = bookingRepository.findByRoomIdAndCheckInLessThanEqualAndCheckOutGreaterThanEqual(
-                    r.getId(), checkOut.minusDays(1), checkIn.plusDays(1));
-            // above query is defensive; simpler approach: check by iterating bookings in java
-            boolean conflict = bookingRepository.findByRoomIdAndCheckInLessThanEqualAndCheckOutGreaterThanEqual(
-                            r.getId(), checkOut.minusDays(1), checkIn.plusDays(1)).stream()
-                    .anyMatch(b -> b.getStatus() == BookingStatus.CONFIRMED);
-            if (!conflict) {
-                available.add(r);
+        // fast path: answer from the in-memory night bitmaps, no booking queries
+        if (availabilityIndex.covers(checkIn, checkOut)) {
+            return roomRepository.findByHotelId(hotelId).stream()
+                    .filter(r -> availabilityIndex.isAvailable(r.getId(), checkIn, checkOut))
+                    .collect(Collectors.toList());
+        }
+
+        // stay outside the indexed horizon: one anti-join against the bookings table
+        return roomRepository.findAvailableRooms(hotelId, checkIn, checkOut, BookingStatus.BLOCKING, LocalDateTime.now());
+    }
+
+    @Override
+    public List<HotelAvailabilityDTO> searchAvailability(String location, LocalDate checkIn, LocalDate checkOut, Integer guests) {
+        if (checkIn == null || checkOut == null || !checkIn.isBefore(checkOut)) {
+            throw new IllegalArgumentException("Invalid dates");
+        }
+        int minCapacity = guests != null && guests > 0 ? guests : 1;
+        // hotels whose biggest room is too small never need a room lookup
+        List<Hotel> hotels = hotelService.searchByLocation(location).stream()
+                .filter(h -> h.getMaxCapacity() == null || h.getMaxCapacity() >= minCapacity)
+                .collect(Collectors.toList());
+
+        // one virtual thread per hotel; the semaphore keeps us inside the connection pool
+        List<List<Room>> roomsPerHotel = new ArrayList<>(hotels.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<Room>>> futures = new ArrayList<>(hotels.size());
+            for (Hotel hotel : hotels) {
+                Long hotelId = hotel.getId();
+                futures.add(executor.submit(() -> findAvailableRoomsWithPermit(hotelId, checkIn, checkOut)));
+            }
+            for (Future<List<Room>> future : futures) {
+                roomsPerHotel.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Availability search interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Availability search failed: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        List<HotelAvailabilityDTO> results = new ArrayList<>();
+        for (int i = 0; i < hotels.size(); i++) {
+            List<Room> fitting = roomsPerHotel.get(i).stream()
+                    .filter(r -> r.getCapacity() == null || r.getCapacity() >= minCapacity)
+                    .collect(Collectors.toList());
+            if (!fitting.isEmpty()) {
+                results.add(toAvailabilityDTO(hotels.get(i), fitting));
             }
         }
-        return available;
+        return results;
+    }
+
+    private List<Room> findAvailableRoomsWithPermit(Long hotelId, LocalDate checkIn, LocalDate checkOut) throws InterruptedException {
+        dbPermits.acquire();
+        try {
+            return findAvailableRooms(hotelId, checkIn, checkOut);
+        } finally {
+            dbPermits.release();
+        }
+    }
+
+    private HotelAvailabilityDTO toAvailabilityDTO(Hotel hotel, List<Room> rooms) {
+        Map<String, List<Room>> byType = rooms.stream()
+                .collect(Collectors.groupingBy(Room::getType, LinkedHashMap::new, Collectors.toList()));
+
+        List<RoomTypeAvailabilityDTO> roomTypes = new ArrayList<>();
+        byType.forEach((type, typeRooms) -> {
+            RoomTypeAvailabilityDTO dto = new RoomTypeAvailabilityDTO();
+            dto.setType(type);
+            dto.setLowestPrice(typeRooms.stream().mapToDouble(Room::getPricePerNight).min().orElse(0));
+            dto.setMaxCapacity(typeRooms.stream().mapToInt(r -> r.getCapacity() != null ? r.getCapacity() : 0).max().orElse(0));
+            dto.setAvailableRooms(typeRooms.size());
+            roomTypes.add(dto);
+        });
+        roomTypes.sort(Comparator.comparing(RoomTypeAvailabilityDTO::getLowestPrice));
+
+        HotelAvailabilityDTO dto = new HotelAvailabilityDTO();
+        dto.setHotelId(hotel.getId());
+        dto.setName(hotel.getName());
+        dto.setAddress(hotel.getAddress());
+        dto.setCity(hotel.getCity());
+        dto.setState(hotel.getState());
+        dto.setRating(hotel.getRating());
+        dto.setLowestPrice(roomTypes.get(0).getLowestPrice());
+        dto.setAvailableRooms(rooms.size());
+        dto.setRoomTypes(roomTypes);
+        return dto;
     }
 }
@@ -0,0 +1,93 @@
+package com.stayease.backend.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.stayease.backend.event.UserChangedEvent;
+import com.stayease.backend.model.User;
+import com.stayease.backend.repository.UserRepository;
+import com.stayease.backend.service.MetricsSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Username -> user cache in front of the users table, used by login and
+ * UserDetailsServiceImpl. Misses are cached too, so a burst of bad usernames
+ * does not reach the database either.
+ *
+ * Entries are dropped after the transaction that changed the user commits (see
+ * UserChangeListener); the TTL is only a safety net. Callers get their own copy,
+ * so nothing they set leaks into the cached instance.
+ */
+@Component
+public class UserCache implements MetricsSource {
+
+    private final UserRepository userRepository;
+    private final Cache<String, Optional<User>> byUsername;
+    private final LongAdder invalidations = new LongAdder();
+
+    public UserCache(UserRepository userRepository,
+                     @Value("${stayease.users.cache.maxSize:10000}") long maxSize,
+                     @Value("${stayease.users.cache.ttlMinutes:10}") long ttlMinutes) {
+        this.userRepository = userRepository;
+        this.byUsername = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+    }
+
+    public Optional<User> findByUsername(String username) {
+        return byUsername.get(username, userRepository::findByUsername).map(UserCache::copy);
+    }
+
+    // After commit, so a reload can never pick up the old row again
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.username() != null) {
+            byUsername.invalidate(event.username());
+        }
+        // covers a renamed user, whose entry sits under the old username
+        byUsername.asMap().values().removeIf(user -> user.isPresent() && user.get().getId().equals(event.userId()));
+        invalidations.increment();
+    }
+
+    private static User copy(User user) {
+        return User.builder()
+                .id(user.getId())
+                .fullName(user.getFullName())
+                .email(user.getEmail())
+                .username(user.getUsername())
+                .password(user.getPassword())
+                .role(user.getRole())
+                .phone(user.getPhone())
+                .address(user.getAddress())
+                .createdAt(user.getCreatedAt())
+                .build();
+    }
+
+    @Override
+    public String metricsName() {
+        return "userCache";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        CacheStats stats = byUsername.stats();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("entries", byUsername.estimatedSize());
+        metrics.put("hits", stats.hitCount());
+        metrics.put("misses", stats.missCount());
+        metrics.put("hitRate", stats.hitRate());
+        metrics.put("evictions", stats.evictionCount());
+        metrics.put("invalidations", invalidations.sum());
+        return metrics;
+    }
+}
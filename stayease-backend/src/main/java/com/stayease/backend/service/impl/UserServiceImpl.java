@@ -1,11 +1,13 @@
 package com.stayease.backend.service.impl;
 
 import com.stayease.backend.dto.RegisterRequest;
+import com.stayease.backend.event.UserRegisteredEvent;
 import com.stayease.backend.model.Role;
 import com.stayease.backend.model.User;
 import com.stayease.backend.repository.UserRepository;
 import com.stayease.backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -18,6 +20,13 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    private ApplicationEventPublisher events = event -> { };
+
+    @Autowired
+    void setEventPublisher(ApplicationEventPublisher events) {
+        this.events = events;
+    }
+
     @Override
     public User register(RegisterRequest dto) {
         // Check if username already exists
@@ -43,6 +52,8 @@ public class UserServiceImpl implements UserService {
                 .role(userRole)
                 .build();
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        events.publishEvent(new UserRegisteredEvent(saved.getId(), saved.getUsername(), saved.getCreatedAt()));
+        return saved;
     }
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.stayease.backend.config;
+
+import com.stayease.backend.model.Role;
+import com.stayease.backend.model.User;
+import com.stayease.backend.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class AuthenticatedUserResolverTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final JwtUtils jwtUtils = new JwtUtils("test-secret-test-secret-test-secret", 60_000);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testPrincipalComesFromClaimsWithoutQuery() {
+        AuthenticatedUserResolver resolver = new AuthenticatedUserResolver(userRepository, 0, 100);
+
+        AuthenticatedUser user = resolver.resolve(claims(7L, "john", "USER"));
+
+        assertEquals(7L, user.id());
+        assertEquals("john", user.getName());
+        assertEquals("ROLE_USER", user.authorities().get(0).getAuthority());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testRecheckReadsUserOncePerIntervalAndDatabaseWins() {
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user(7L, "john", Role.USER)));
+        AuthenticatedUserResolver resolver = new AuthenticatedUserResolver(userRepository, 300, 100);
+
+        // token still says ADMIN, but the role was taken away since it was issued
+        Claims claims = claims(7L, "john", "ADMIN");
+        AuthenticatedUser first = resolver.resolve(claims);
+        AuthenticatedUser second = resolver.resolve(claims);
+
+        assertEquals(Set.of("USER"), first.roles());
+        assertSame(first, second);
+        verify(userRepository, times(1)).findByUsername("john");
+    }
+
+    @Test
+    void testDeletedUserIsRejectedAndEvictForcesRecheck() {
+        when(userRepository.findByUsername("john")).thenReturn(Optional.empty());
+        AuthenticatedUserResolver resolver = new AuthenticatedUserResolver(userRepository, 300, 100);
+
+        assertNull(resolver.resolve(claims(7L, "john", "USER")));
+
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user(7L, "john", Role.USER)));
+        assertNull(resolver.resolve(claims(7L, "john", "USER")));
+        resolver.evict("john");
+        assertNotNull(resolver.resolve(claims(7L, "john", "USER")));
+        verify(userRepository, times(2)).findByUsername(anyString());
+    }
+
+    @Test
+    void testFilterPutsClaimsPrincipalInSecurityContext() throws Exception {
+        AuthenticatedUserResolver resolver = new AuthenticatedUserResolver(userRepository, 0, 100);
+        JwtAuthFilter filter = new JwtAuthFilter(new JwtVerifier(jwtUtils, 100), resolver);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/bookings/my");
+        request.setServletPath("/api/bookings/my");
+        request.addHeader("Authorization", "Bearer " + jwtUtils.generateToken(7L, "john", Set.of("USER")));
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals("john", auth.getName());
+        assertEquals(7L, ((AuthenticatedUser) auth.getPrincipal()).id());
+        verifyNoInteractions(userRepository);
+    }
+
+    private Claims claims(Long id, String username, String role) {
+        return jwtUtils.parseClaims(jwtUtils.generateToken(id, username, Set.of(role)));
+    }
+
+    private static User user(Long id, String username, Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,83 @@
+package com.stayease.backend.config;
+
+import com.stayease.backend.exception.GlobalExceptionHandler;
+import com.stayease.backend.exception.ServiceBusyException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void testEncodeAndMatchRunOnHashPool() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4, 2);
+
+        String hash = encoder.encode("secret");
+
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertEquals(3L, encoder.metrics().get("hashes"));
+        encoder.shutdown();
+    }
+
+    @Test
+    void testFullQueueIsRejectedWithRetryAfter() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BlockingEncoder(started, release), 1, 1, 7);
+
+        // one hash running, one queued, the third has nowhere to go
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        waitForQueueDepth(encoder, 1);
+
+        ServiceBusyException busy = assertThrows(ServiceBusyException.class, () -> encoder.encode("c"));
+        assertEquals(1L, encoder.metrics().get("rejected"));
+
+        ResponseEntity<Map<String, String>> response = new GlobalExceptionHandler().handleServiceBusyException(busy);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("7", response.getHeaders().getFirst("Retry-After"));
+
+        release.countDown();
+        assertEquals("hashed-a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed-b", queued.get(5, TimeUnit.SECONDS));
+        encoder.shutdown();
+    }
+
+    private static void waitForQueueDepth(BoundedPasswordEncoder encoder, int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!Integer.valueOf(depth).equals(encoder.metrics().get("queueDepth"))) {
+            assertTrue(System.currentTimeMillis() < deadline, "hash never queued");
+            Thread.sleep(5);
+        }
+    }
+
+    private record BlockingEncoder(CountDownLatch started, CountDownLatch release) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed-" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
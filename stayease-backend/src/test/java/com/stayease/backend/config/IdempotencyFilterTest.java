@@ -0,0 +1,133 @@
+package com.stayease.backend.config;
+
+import com.stayease.backend.repository.IdempotencyRecordRepository;
+import com.stayease.backend.service.impl.IdempotencyStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class IdempotencyFilterTest {
+
+    private final IdempotencyStore store = new IdempotencyStore(mock(IdempotencyRecordRepository.class), 24, 1, 120, 100);
+    private final IdempotencyFilter filter = new IdempotencyFilter(store, 64);
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void testRetryIsReplayedWithoutReachingTheController() throws Exception {
+        FilterChain controller = (req, res) -> {
+            String body = new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            res.setContentType("application/json");
+            res.getWriter().write("{\"booking\":" + executions.incrementAndGet() + ",\"echo\":" + body + "}");
+        };
+
+        MockHttpServletResponse first = send("{\"roomId\":1}", "key-1", controller);
+        MockHttpServletResponse retry = send("{\"roomId\":1}", "key-1", controller);
+
+        assertEquals(1, executions.get());
+        assertEquals("{\"booking\":1,\"echo\":{\"roomId\":1}}", first.getContentAsString());
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertEquals("true", retry.getHeader("Idempotent-Replayed"));
+
+        assertEquals(422, send("{\"roomId\":2}", "key-1", controller).getStatus());
+        send("{\"roomId\":1}", "key-2", controller);
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void testFailedRequestIsNotStored() throws Exception {
+        FilterChain failing = (req, res) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) res).setStatus(400);
+        };
+
+        send("{}", "key-1", failing);
+        send("{}", "key-1", failing);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void testOversizedBodyIsRefusedWithoutClaimingTheKey() throws Exception {
+        FilterChain controller = (req, res) -> executions.incrementAndGet();
+
+        MockHttpServletResponse tooLarge = send("{\"note\":\"" + "x".repeat(100) + "\"}", "key-1", controller);
+        assertEquals(413, tooLarge.getStatus());
+        assertTrue(tooLarge.getContentAsString().contains("must not exceed 64 bytes"));
+
+        // without a Content-Length the body is read only one byte past the limit
+        MockHttpServletRequest chunked = new MockHttpServletRequest("POST", "/api/bookings") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        chunked.setServletPath("/api/bookings");
+        chunked.addHeader(IdempotencyFilter.HEADER, "key-1");
+        chunked.setContent(new byte[1_000_000]);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(chunked, response, controller);
+        assertEquals(413, response.getStatus());
+        assertEquals(1_000_000 - 65, chunked.getInputStream().available());
+
+        assertEquals(0, executions.get());
+        assertEquals(200, send("{}", "key-1", controller).getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void testNonBlockingReaderGetsTheCachedBody() throws Exception {
+        List<String> calls = new ArrayList<>();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        FilterChain asyncController = (req, res) -> {
+            ServletInputStream in = req.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    calls.add("data");
+                    while (in.isReady() && !in.isFinished()) {
+                        read.write(in.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    calls.add("done");
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    calls.add("error");
+                }
+            });
+        };
+
+        send("{\"roomId\":3}", "key-1", asyncController);
+
+        assertEquals(List.of("data", "done"), calls);
+        assertEquals("{\"roomId\":3}", read.toString(StandardCharsets.UTF_8));
+    }
+
+    private MockHttpServletResponse send(String body, String key, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/bookings");
+        request.setServletPath("/api/bookings");
+        request.addHeader(IdempotencyFilter.HEADER, key);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
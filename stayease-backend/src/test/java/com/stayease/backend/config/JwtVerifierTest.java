@@ -0,0 +1,59 @@
+package com.stayease.backend.config;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class JwtVerifierTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret";
+
+    private JwtUtils jwtUtils;
+    private JwtVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = spy(new JwtUtils(SECRET, 60_000));
+        verifier = new JwtVerifier(jwtUtils, 100);
+    }
+
+    @Test
+    void testRepeatedTokenIsParsedOnce() {
+        String token = jwtUtils.generateToken("john", Set.of("USER"));
+
+        Claims first = verifier.verify(token);
+        Claims second = verifier.verify(token);
+
+        assertEquals("john", first.getSubject());
+        assertEquals("USER", second.get("roles"));
+        verify(jwtUtils, times(1)).parseClaims(anyString());
+        assertEquals(1L, verifier.metrics().get("hits"));
+    }
+
+    @Test
+    void testTamperedTokenIsRejectedAndNotCached() {
+        String token = jwtUtils.generateToken("john", Set.of("USER"));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertNull(verifier.verify(tampered));
+        assertNull(verifier.verify(tampered));
+        verify(jwtUtils, times(2)).parseClaims(anyString());
+        assertEquals(0L, verifier.metrics().get("entries"));
+    }
+
+    @Test
+    void testExpiredAndForeignTokensAreRejected() {
+        String expired = new JwtUtils(SECRET, -1_000).generateToken("john", Set.of("USER"));
+        String foreign = new JwtUtils("another-secret-another-secret-xx", 60_000).generateToken("john", Set.of("USER"));
+
+        assertNull(verifier.verify(expired));
+        assertNull(verifier.verify(foreign));
+        assertNull(verifier.verify("not-a-jwt"));
+    }
+}
@@ -0,0 +1,142 @@
+package com.stayease.backend.config;
+
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServlet;
+import org.apache.catalina.filters.RemoteIpFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final RateLimiter limiter = new RateLimiter(true,
+            Map.of(RateLimiter.AUTH, new RateLimiter.Limit(3, 60), RateLimiter.BOOKING, new RateLimiter.Limit(2, 1)),
+            60_000, now::get, false);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testBucketEmptiesAndRefillsOverTime() {
+        assertEquals(2, limiter.tryAcquire(RateLimiter.AUTH, "ip:1").remaining());
+        assertTrue(limiter.tryAcquire(RateLimiter.AUTH, "ip:1").allowed());
+        assertTrue(limiter.tryAcquire(RateLimiter.AUTH, "ip:1").allowed());
+
+        RateLimiter.Decision denied = limiter.tryAcquire(RateLimiter.AUTH, "ip:1");
+        assertFalse(denied.allowed());
+        assertEquals(1, denied.retryAfterSeconds());
+        assertEquals(3, denied.resetSeconds());
+
+        // other clients have their own bucket
+        assertTrue(limiter.tryAcquire(RateLimiter.AUTH, "ip:2").allowed());
+
+        // 60 per minute is one token per second
+        now.addAndGet(1000);
+        assertTrue(limiter.tryAcquire(RateLimiter.AUTH, "ip:1").allowed());
+        assertFalse(limiter.tryAcquire(RateLimiter.AUTH, "ip:1").allowed());
+    }
+
+    @Test
+    void testUnknownGroupIsNotLimitedAndIdleBucketsAreSwept() {
+        assertNull(limiter.tryAcquire("search", "ip:1"));
+
+        limiter.tryAcquire(RateLimiter.AUTH, "ip:1");
+        now.addAndGet(30_000);
+        limiter.tryAcquire(RateLimiter.AUTH, "ip:2");
+        now.addAndGet(30_000);
+        limiter.sweep();
+
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    void testFilterLimitsSignedInUserAndSetsHeaders() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(limiter);
+        AuthenticatedUser user = new AuthenticatedUser(7L, "john", Set.of("USER"));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.authorities()));
+
+        MockHttpServletResponse first = post(filter, "/api/bookings", "10.0.0.1");
+        assertEquals(200, first.getStatus());
+        assertEquals("2", first.getHeader("RateLimit-Limit"));
+        assertEquals("1", first.getHeader("RateLimit-Remaining"));
+
+        post(filter, "/api/bookings", "10.0.0.2");
+        // same user from a third IP is still the same bucket
+        MockHttpServletResponse limited = post(filter, "/api/bookings", "10.0.0.3");
+        assertEquals(429, limited.getStatus());
+        assertEquals("60", limited.getHeader("Retry-After"));
+        assertTrue(limited.getContentAsString().contains("\"success\":false"));
+    }
+
+    // forward-headers-strategy=native resolves X-Forwarded-For with Tomcat's RemoteIp rules;
+    // RemoteIpFilter applies the same rules in front of the filter here
+    @Test
+    void testForwardedClientsBehindTheProxyGetSeparateBuckets() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(limiter);
+        RemoteIpFilter remoteIp = new RemoteIpFilter();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, forwarded(remoteIp, filter, "10.0.0.9", "203.0.113.7").getStatus());
+        }
+        assertEquals(429, forwarded(remoteIp, filter, "10.0.0.9", "203.0.113.7").getStatus());
+        // another client arriving through the same proxy is not locked out
+        assertEquals(200, forwarded(remoteIp, filter, "10.0.0.9", "198.51.100.4").getStatus());
+        // a header sent straight from the internet is not trusted, so it cannot pick a fresh bucket
+        forwarded(remoteIp, filter, "192.0.2.50", "203.0.113.1");
+        forwarded(remoteIp, filter, "192.0.2.50", "203.0.113.2");
+        forwarded(remoteIp, filter, "192.0.2.50", "203.0.113.3");
+        assertEquals(429, forwarded(remoteIp, filter, "192.0.2.50", "203.0.113.4").getStatus());
+    }
+
+    @Test
+    void testFilterSkipsReadsAndUnlistedRoutes() {
+        assertNull(RateLimitFilter.group(request("GET", "/api/bookings/my")));
+        assertNull(RateLimitFilter.group(request("POST", "/api/search/availability")));
+        assertEquals(RateLimiter.AUTH, RateLimitFilter.group(request("POST", "/api/auth/login")));
+        assertEquals(RateLimiter.PAYMENT, RateLimitFilter.group(request("POST", "/api/payments/create-order")));
+    }
+
+    private static MockHttpServletResponse post(RateLimitFilter filter, String path, String ip) throws Exception {
+        MockHttpServletRequest request = request("POST", path);
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletResponse forwarded(RemoteIpFilter remoteIp, RateLimitFilter filter,
+                                                     String proxy, String client) throws Exception {
+        MockHttpServletRequest request = request("POST", "/api/auth/login");
+        request.setRemoteAddr(proxy);
+        request.addHeader("X-Forwarded-For", client);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpServlet endpoint = new HttpServlet() {
+            @Override
+            public void service(ServletRequest req, ServletResponse res) {
+            }
+        };
+        new MockFilterChain(endpoint, remoteIp, filter).doFilter(request, response);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        return request;
+    }
+}
@@ -2,14 +2,31 @@ package com.stayease.backend.controller;
 
 import com.stayease.backend.model.*;
 import com.stayease.backend.repository.*;
+import com.stayease.backend.dto.ActivityDTO;
+import com.stayease.backend.dto.AdminBookingRowDTO;
+import com.stayease.backend.dto.DashboardStatsDTO;
+import com.stayease.backend.dto.ExportFormat;
+import com.stayease.backend.dto.HotelStatsDTO;
+import com.stayease.backend.service.BookingService;
+import com.stayease.backend.service.DashboardStatsService;
+import com.stayease.backend.service.ExportService;
+import com.stayease.backend.service.HotelService;
+import com.stayease.backend.service.impl.ActivityFeed;
+import com.stayease.backend.service.impl.RoomAvailabilityIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
 
+import java.io.Writer;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -31,6 +48,24 @@ class AdminControllerTest {
     @Mock
     private RoomRepository roomRepository;
 
+    @Mock
+    private BookingService bookingService;
+
+    @Mock
+    private HotelService hotelService;
+
+    @Mock
+    private DashboardStatsService dashboardStatsService;
+
+    @Mock
+    private RoomAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private ActivityFeed activityFeed;
+
+    @Mock
+    private ExportService exportService;
+
     @InjectMocks
     private AdminController adminController;
 
@@ -85,23 +120,93 @@ class AdminControllerTest {
     @Test
     void testGetDashboardStats_Success() {
         // Arrange
-        when(userRepository.count()).thenReturn(10L);
-        when(hotelRepository.count()).thenReturn(5L);
-        when(bookingRepository.count()).thenReturn(20L);
-        when(bookingRepository.findAll()).thenReturn(Arrays.asList(testBooking));
+        when(dashboardStatsService.getDashboardStats()).thenReturn(DashboardStatsDTO.builder()
+                .totalUsers(10L)
+                .totalHotels(5L)
+                .totalBookings(20L)
+                .totalRevenue(200.0)
+                .pendingBookings(1L)
+                .build());
 
         // Act
-        ResponseEntity<Map<String, Object>> response = adminController.getDashboardStats();
+        ResponseEntity<DashboardStatsDTO> response = adminController.getDashboardStats();
 
         // Assert
         assertNotNull(response);
         assertEquals(200, response.getStatusCodeValue());
-        Map<String, Object> body = response.getBody();
+        DashboardStatsDTO body = response.getBody();
         assertNotNull(body);
-        assertEquals(10L, body.get("totalUsers"));
-        assertEquals(5L, body.get("totalHotels"));
-        assertEquals(20L, body.get("totalBookings"));
+        assertEquals(10L, body.getTotalUsers());
+        assertEquals(5L, body.getTotalHotels());
+        assertEquals(20L, body.getTotalBookings());
+        assertTrue(body.isSuccess());
+        verify(bookingRepository, never()).findAll();
+    }
+
+    @Test
+    void testGetHotelStats_Success() {
+        HotelStatsDTO stats = HotelStatsDTO.builder().hotelId(1L).totalBookings(3L).paidRevenue(450.0).build();
+        when(dashboardStatsService.getHotelStats(1L)).thenReturn(stats);
+
+        ResponseEntity<?> response = adminController.getHotelStats(1L);
+
+        assertEquals(200, response.getStatusCodeValue());
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
         assertTrue((Boolean) body.get("success"));
+        assertSame(stats, body.get("stats"));
+    }
+
+    @Test
+    void testGetRecentActivity_ServedFromFeed() {
+        ActivityDTO activity = new ActivityDTO("booking_1", "booking", "New booking #1 created",
+                LocalDateTime.now(), "testuser", "📋");
+        when(activityFeed.recent(10)).thenReturn(List.of(activity));
+
+        ResponseEntity<?> response = adminController.getRecentActivity();
+
+        assertEquals(200, response.getStatusCodeValue());
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertEquals(List.of(activity), body.get("activity"));
+        assertEquals(1, body.get("count"));
+        verifyNoInteractions(bookingRepository, userRepository);
+    }
+
+    @Test
+    void testGetAllBookings_PagesThroughProjection() {
+        AdminBookingRowDTO row = new AdminBookingRowDTO(1L, "Test Hotel", "testuser", LocalDate.now().plusDays(1),
+                LocalDate.now().plusDays(3), 200.0, BookingStatus.CONFIRMED, LocalDateTime.now());
+        when(bookingRepository.findAdminRows(eq(BookingStatus.CONFIRMED), eq(1L), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(row), PageRequest.of(0, 200), true));
+
+        ResponseEntity<?> response = adminController.getAllBookings(BookingStatus.CONFIRMED, 1L, null, null, 0, 5000);
+
+        assertEquals(200, response.getStatusCodeValue());
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertEquals(List.of(row), body.get("bookings"));
+        assertEquals(true, body.get("hasNext"));
+        // oversized pages are capped
+        verify(bookingRepository).findAdminRows(BookingStatus.CONFIRMED, 1L, null, null, PageRequest.of(0, 200));
+        verify(bookingRepository, never()).findAll();
+    }
+
+    @Test
+    void testExportBookings_StreamsToResponse() throws Exception {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 1, 31);
+        when(exportService.exportBookings(eq(ExportFormat.CSV), eq(from), eq(to), any(Writer.class))).thenAnswer(call -> {
+            Writer out = call.getArgument(3);
+            out.write("id,hotelId\n1,1\n");
+            out.flush();
+            return 1L;
+        });
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        adminController.exportBookings(ExportFormat.CSV, from, to, response);
+
+        assertEquals("text/csv;charset=UTF-8", response.getContentType());
+        assertTrue(response.getHeader("Content-Disposition").startsWith("attachment; filename=\"bookings-"));
+        assertEquals("id,hotelId\n1,1\n", response.getContentAsString());
+        verify(bookingRepository, never()).findAll();
     }
 
     @Test
@@ -135,7 +240,7 @@ class AdminControllerTest {
         hotelData.put("amenities", Arrays.asList("WiFi", "Pool"));
         hotelData.put("images", Arrays.asList("img1.jpg"));
 
-        when(hotelRepository.save(any(Hotel.class))).thenReturn(testHotel);
+        when(hotelService.create(any(Hotel.class))).thenReturn(testHotel);
 
         // Act
         ResponseEntity<?> response = adminController.addHotel(hotelData);
@@ -160,7 +265,7 @@ class AdminControllerTest {
         // Assert
         assertNotNull(response);
         assertEquals(200, response.getStatusCodeValue());
-        verify(hotelRepository, times(1)).deleteById(1L);
+        verify(hotelService, times(1)).delete(1L);
     }
 
     @Test
@@ -182,8 +287,7 @@ class AdminControllerTest {
     @Test
     void testConfirmBooking_Success() {
         // Arrange
-        when(bookingRepository.findById(1L)).thenReturn(Optional.of(testBooking));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
+        when(bookingService.confirmBooking(1L)).thenReturn(testBooking);
 
         // Act
         ResponseEntity<?> response = adminController.confirmBooking(1L);
@@ -6,7 +6,7 @@ import com.stayease.backend.dto.LoginRequest;
 import com.stayease.backend.dto.RegisterRequest;
 import com.stayease.backend.model.User;
 import com.stayease.backend.model.Role;
-import com.stayease.backend.repository.UserRepository;
+import com.stayease.backend.service.impl.UserCache;
 import com.stayease.backend.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -43,7 +43,7 @@ public class AuthControllerTest {
     private JwtUtils jwtUtils;
 
     @Mock
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @Mock
     private Authentication authentication;
@@ -121,8 +121,8 @@ public class AuthControllerTest {
         user.setRole(Role.USER);
 
         when(authenticationManager.authenticate(any())).thenReturn(authentication);
-        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
-        when(jwtUtils.generateToken(eq("john"), any(Set.class))).thenReturn("fake-jwt-token");
+        when(userCache.findByUsername("john")).thenReturn(Optional.of(user));
+        when(jwtUtils.generateToken(any(), eq("john"), any(Set.class))).thenReturn("fake-jwt-token");
 
         mockMvc.perform(post("/api/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
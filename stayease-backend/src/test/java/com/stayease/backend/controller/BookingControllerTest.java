@@ -6,7 +6,10 @@ import com.stayease.backend.dto.BookingRequest;
 import com.stayease.backend.model.Booking;
 import com.stayease.backend.model.User;
 import com.stayease.backend.service.BookingService;
+import com.stayease.backend.repository.RoomRepository;
 import com.stayease.backend.repository.UserRepository;
+import com.stayease.backend.service.impl.BookingPipeline;
+import com.stayease.backend.service.impl.BookingServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,12 +20,17 @@ import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -153,4 +161,78 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.success").value(false))
                 .andExpect(jsonPath("$.message").value("Room unavailable"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testBookingRequestEventsStreamUntilDecided() throws Exception {
+        mockUser();
+
+        CountDownLatch release = new CountDownLatch(1);
+        BookingServiceImpl worker = mock(BookingServiceImpl.class);
+        Booking booking = new Booking();
+        booking.setId(400L);
+        when(worker.createEach(anyList())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return List.of(new BookingServiceImpl.Outcome(booking, null));
+        });
+        RoomRepository rooms = mock(RoomRepository.class);
+        when(rooms.findHotelIdById(10L)).thenReturn(Optional.of(1L));
+        BookingPipeline pipeline = new BookingPipeline(worker, rooms, 1, 10, 10, 5, 2, 1);
+        ReflectionTestUtils.setField(bookingController, "bookingPipeline", pipeline);
+        try {
+            BookingRequest request = new BookingRequest();
+            request.setHotelId(1L);
+            request.setRoomId(10L);
+            request.setCheckIn(LocalDate.parse("2024-12-12"));
+            request.setCheckOut(LocalDate.parse("2024-12-15"));
+            BookingPipeline.Ticket ticket = pipeline.submit(1L, request);
+
+            MvcResult result = mockMvc.perform(get("/api/bookings/requests/" + ticket.getId() + "/events"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            // the current status goes out at once, before the worker has decided
+            String opened = result.getResponse().getContentAsString();
+            assertTrue(opened.startsWith("event:status\ndata:"));
+            assertTrue(opened.contains("\"status\":\"QUEUED\""));
+
+            release.countDown();
+            result.getAsyncResult(10_000);
+            String events = result.getResponse().getContentAsString();
+            assertTrue(events.contains("\"status\":\"BOOKED\""));
+            assertTrue(events.contains("\"bookingId\":400"));
+            assertEquals(2, events.split("event:status").length - 1);
+        } finally {
+            release.countDown();
+            pipeline.shutdown();
+        }
+    }
+
+    @Test
+    void testBookingRequestEventsForAnotherUsersTicketReportAnError() throws Exception {
+        mockUser();
+
+        BookingServiceImpl worker = mock(BookingServiceImpl.class);
+        when(worker.createEach(anyList())).thenReturn(List.of(new BookingServiceImpl.Outcome(null, "sold out")));
+        RoomRepository rooms = mock(RoomRepository.class);
+        when(rooms.findHotelIdById(10L)).thenReturn(Optional.of(1L));
+        BookingPipeline pipeline = new BookingPipeline(worker, rooms, 1, 10, 10, 5, 2, 1);
+        ReflectionTestUtils.setField(bookingController, "bookingPipeline", pipeline);
+        try {
+            BookingRequest request = new BookingRequest();
+            request.setHotelId(1L);
+            request.setRoomId(10L);
+            request.setCheckIn(LocalDate.parse("2024-12-12"));
+            request.setCheckOut(LocalDate.parse("2024-12-15"));
+            BookingPipeline.Ticket someoneElses = pipeline.submit(2L, request);
+
+            MvcResult result = mockMvc.perform(get("/api/bookings/requests/" + someoneElses.getId() + "/events"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            result.getAsyncResult(10_000);
+            String events = result.getResponse().getContentAsString();
+            assertTrue(events.startsWith("event:error\ndata:"));
+            assertTrue(events.contains("Booking request not found"));
+        } finally {
+            pipeline.shutdown();
+        }
+    }
+}
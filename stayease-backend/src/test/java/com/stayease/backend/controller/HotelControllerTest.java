@@ -1,23 +1,29 @@
 package com.stayease.backend.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stayease.backend.dto.HotelCursor;
 import com.stayease.backend.dto.HotelResponseDTO;
 import com.stayease.backend.dto.RoomResponseDTO;
 import com.stayease.backend.model.Hotel;
 import com.stayease.backend.model.Room;
+import com.stayease.backend.repository.HotelRepository;
 import com.stayease.backend.repository.RoomRepository;
 import com.stayease.backend.service.HotelService;
+import com.stayease.backend.service.impl.HotelReadServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -33,6 +39,13 @@ public class HotelControllerTest {
     @Mock
     private RoomRepository roomRepository;
 
+    @Mock
+    private HotelRepository hotelRepository;
+
+    // real mapper over the mocked repositories, batched collections come back empty
+    @InjectMocks
+    private HotelReadServiceImpl hotelReadService;
+
     @InjectMocks
     private HotelController hotelController;
 
@@ -41,6 +54,7 @@ public class HotelControllerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(hotelController, "hotelReadService", hotelReadService);
         mockMvc = MockMvcBuilders.standaloneSetup(hotelController).build();
     }
 
@@ -53,14 +67,51 @@ public class HotelControllerTest {
         hotel.setId(1L);
         hotel.setName("Taj");
 
-        when(hotelService.getAll()).thenReturn(List.of(hotel));
+        when(hotelService.getPage("rating", null, 21)).thenReturn(List.of(hotel));
 
         mockMvc.perform(get("/api/hotels"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1))
-                .andExpect(jsonPath("$[0].name").value("Taj"));
+                .andExpect(jsonPath("$.hotels[0].id").value(1))
+                .andExpect(jsonPath("$.hotels[0].name").value("Taj"))
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        verify(hotelService, never()).getAll();
+    }
+
+    @Test
+    void testGetAllHotels_NextPageFromCursor() throws Exception {
+        Hotel a = new Hotel();
+        a.setId(1L);
+        a.setName("Alpha");
+        Hotel b = new Hotel();
+        b.setId(2L);
+        b.setName("Beta");
+        Hotel c = new Hotel();
+        c.setId(3L);
+        c.setName("Gamma");
+
+        when(hotelService.getPage("name", null, 3)).thenReturn(List.of(a, b, c));
+
+        String body = mockMvc.perform(get("/api/hotels").param("sort", "name").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hotels.length()").value(2))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(body).get("nextCursor").asText();
+
+        when(hotelService.getPage(eq("name"), any(HotelCursor.class), eq(3))).thenReturn(List.of(c));
 
-        verify(hotelService, times(1)).getAll();
+        mockMvc.perform(get("/api/hotels").param("sort", "name").param("size", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hotels[0].name").value("Gamma"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        // the second call's cursor carries the last hotel of the first page
+        ArgumentCaptor<HotelCursor> after = ArgumentCaptor.forClass(HotelCursor.class);
+        verify(hotelService, times(2)).getPage(eq("name"), after.capture(), eq(3));
+        assertEquals("Beta", after.getValue().getKey());
+        assertEquals(2L, after.getValue().getId());
     }
 
     // --------------------------------------------------------
@@ -1,5 +1,6 @@
 package com.stayease.backend.controller;
 
+import com.stayease.backend.dto.HotelAvailabilityDTO;
 import com.stayease.backend.model.Room;
 import com.stayease.backend.service.SearchService;
 import org.junit.jupiter.api.BeforeEach;
@@ -54,4 +55,27 @@ public class SearchControllerTest {
                 .andExpect(jsonPath("$[0].id").value(1))
                 .andExpect(jsonPath("$[0].roomNumber").value("101"));
     }
+
+    // --------------------------------------------------------
+    // 2️⃣ Test city-wide availability search
+    // --------------------------------------------------------
+    @Test
+    void testAvailabilitySearch() throws Exception {
+        HotelAvailabilityDTO hotel = new HotelAvailabilityDTO();
+        hotel.setHotelId(1L);
+        hotel.setName("Grand Palace Hotel");
+        hotel.setLowestPrice(2500.0);
+
+        when(searchService.searchAvailability(eq("Patna"), any(LocalDate.class), any(LocalDate.class), eq(2)))
+                .thenReturn(List.of(hotel));
+
+        mockMvc.perform(get("/api/search/availability")
+                        .param("location", "Patna")
+                        .param("checkIn", "2025-01-01")
+                        .param("checkOut", "2025-01-05")
+                        .param("guests", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].hotelId").value(1))
+                .andExpect(jsonPath("$[0].lowestPrice").value(2500.0));
+    }
 }
@@ -1,13 +1,23 @@
 package com.stayease.backend.repository;
 
+import com.stayease.backend.dto.AdminBookingRowDTO;
+import com.stayease.backend.dto.BookingStatusTotalsDTO;
 import com.stayease.backend.model.*;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.TestPropertySource;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -19,7 +29,8 @@ import static org.assertj.core.api.Assertions.assertThat;
         "spring.datasource.password=",
         "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
         "spring.jpa.hibernate.ddl-auto=create-drop",
-        "spring.jpa.defer-datasource-initialization=true"
+        "spring.jpa.defer-datasource-initialization=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
 })
 class BookingRepositoryTest {
 
@@ -35,6 +46,9 @@ class BookingRepositoryTest {
     @Autowired
     private RoomRepository roomRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     void testFindByUserId() {
         // Create User
@@ -98,4 +112,119 @@ class BookingRepositoryTest {
 
         assertThat(results).hasSize(1);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSummarizeByStatus() {
+        User user = new User();
+        user.setUsername("statsuser");
+        user.setEmail("stats@example.com");
+        user.setPassword("password");
+        user.setRole(Role.USER);
+        User savedUser = userRepository.save(user);
+
+        Hotel hotel = new Hotel();
+        hotel.setName("Stats Hotel");
+        hotel.setAddress("Stats Address");
+        hotel.setCity("Stats City");
+        Hotel savedHotel = hotelRepository.save(hotel);
+
+        Room room = new Room();
+        room.setRoomNumber("201");
+        room.setType("Deluxe");
+        room.setPricePerNight(100.0);
+        room.setHotel(savedHotel);
+        Room savedRoom = roomRepository.save(room);
+
+        double[] amounts = {200.0, 300.0, 150.0, 400.0};
+        BookingStatus[] statuses = {BookingStatus.CONFIRMED, BookingStatus.CONFIRMED, BookingStatus.PENDING, BookingStatus.CANCELLED};
+        for (int i = 0; i < amounts.length; i++) {
+            Booking booking = new Booking();
+            booking.setUser(savedUser);
+            booking.setHotel(savedHotel);
+            booking.setRoom(savedRoom);
+            booking.setCheckIn(LocalDate.now().plusDays(10 + i * 3));
+            booking.setCheckOut(LocalDate.now().plusDays(12 + i * 3));
+            booking.setTotalAmount(amounts[i]);
+            booking.setStatus(statuses[i]);
+            bookingRepository.save(booking);
+        }
+
+        Map<BookingStatus, BookingStatusTotalsDTO> totals = bookingRepository.summarizeByStatus().stream()
+                .collect(Collectors.toMap(BookingStatusTotalsDTO::getStatus, row -> row));
+
+        assertThat(totals).hasSize(3);
+        assertThat(totals.get(BookingStatus.CONFIRMED).getCount()).isEqualTo(2L);
+        assertThat(totals.get(BookingStatus.CONFIRMED).getRevenue()).isEqualTo(500.0);
+        assertThat(totals.get(BookingStatus.PENDING).getCount()).isEqualTo(1L);
+        assertThat(totals.get(BookingStatus.CANCELLED).getRevenue()).isEqualTo(400.0);
+    }
+
+    @Test
+    void testAdminRowsAreOneQueryPerPage() {
+        User user = new User();
+        user.setUsername("lister");
+        user.setEmail("lister@example.com");
+        user.setPassword("password");
+        user.setRole(Role.USER);
+        User savedUser = userRepository.save(user);
+
+        Hotel[] hotels = new Hotel[2];
+        Room[] rooms = new Room[2];
+        for (int h = 0; h < 2; h++) {
+            Hotel hotel = new Hotel();
+            hotel.setName("List Hotel " + h);
+            hotel.setAddress("List Address");
+            hotel.setCity("List City");
+            hotels[h] = hotelRepository.save(hotel);
+
+            Room room = new Room();
+            room.setRoomNumber("30" + h);
+            room.setType("Deluxe");
+            room.setPricePerNight(100.0);
+            room.setHotel(hotels[h]);
+            rooms[h] = roomRepository.save(room);
+        }
+
+        LocalDateTime created = LocalDateTime.now().minusDays(1);
+        for (int i = 0; i < 6; i++) {
+            Booking booking = new Booking();
+            booking.setUser(savedUser);
+            booking.setHotel(hotels[i % 2]);
+            booking.setRoom(rooms[i % 2]);
+            booking.setCheckIn(LocalDate.now().plusDays(10 + i * 3));
+            booking.setCheckOut(LocalDate.now().plusDays(12 + i * 3));
+            booking.setTotalAmount(200.0);
+            booking.setStatus(i < 4 ? BookingStatus.CONFIRMED : BookingStatus.CANCELLED);
+            booking.setCreatedAt(created.plusMinutes(i));
+            bookingRepository.save(booking);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics stats = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        Slice<AdminBookingRowDTO> firstPage = bookingRepository.findAdminRows(null, null, null, null, PageRequest.of(0, 4));
+
+        // names come from the join, with no per-row hotel or user loads
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(stats.getEntityLoadCount()).isZero();
+        assertThat(firstPage.getContent()).hasSize(4);
+        assertThat(firstPage.hasNext()).isTrue();
+        assertThat(firstPage.getContent().get(0).hotelName()).isEqualTo("List Hotel 1");
+        assertThat(firstPage.getContent().get(0).userName()).isEqualTo("lister");
+        assertThat(firstPage.getContent().get(0).createdAt()).isAfter(firstPage.getContent().get(1).createdAt());
+
+        Slice<AdminBookingRowDTO> filtered = bookingRepository.findAdminRows(BookingStatus.CONFIRMED, hotels[0].getId(),
+                LocalDate.now().plusDays(14), LocalDate.now().plusDays(30), PageRequest.of(0, 10));
+        // hotel 0 has confirmed stays starting on days 10 and 16, and only the second overlaps the range
+        assertThat(filtered.getContent()).extracting(AdminBookingRowDTO::checkIn)
+                .containsExactly(LocalDate.now().plusDays(16));
+        assertThat(filtered.hasNext()).isFalse();
+
+        // rows written before status was always set are listed as PENDING, as before
+        entityManager.createNativeQuery("UPDATE bookings SET status = NULL WHERE id = :id")
+                .setParameter("id", firstPage.getContent().get(0).id()).executeUpdate();
+        assertThat(bookingRepository.findAdminRows(null, null, null, null, PageRequest.of(0, 1))
+                .getContent().get(0).status()).isEqualTo(BookingStatus.PENDING);
+    }
+}
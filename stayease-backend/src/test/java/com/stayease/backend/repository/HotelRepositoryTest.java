@@ -1,11 +1,14 @@
 package com.stayease.backend.repository;
 
 import com.stayease.backend.model.Hotel;
+import com.stayease.backend.model.Room;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.TestPropertySource;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -27,6 +30,9 @@ class HotelRepositoryTest {
     @Autowired
     private HotelRepository hotelRepository;
 
+    @Autowired
+    private RoomRepository roomRepository;
+
     @Test
     void testSearchByLocation() {
         // Create and save hotel with minimal required fields
@@ -62,4 +68,83 @@ class HotelRepositoryTest {
 
         assertThat(result).hasSize(1);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testRefreshRoomStatsAndFilterByPrice() {
+        Hotel budget = saveHotel("Budget Inn", 3.5);
+        Hotel luxury = saveHotel("Luxury Palace", 4.8);
+        Hotel empty = saveHotel("No Rooms Yet", 4.9);
+        saveRoom(budget, 1500.0, 2);
+        saveRoom(budget, 2500.0, 3);
+        saveRoom(luxury, 9000.0, 4);
+
+        hotelRepository.refreshAllRoomStats();
+        Hotel refreshed = hotelRepository.findById(budget.getId()).orElseThrow();
+        assertThat(refreshed.getMinPricePerNight()).isEqualTo(1500.0);
+        assertThat(refreshed.getMaxPricePerNight()).isEqualTo(2500.0);
+        assertThat(refreshed.getMaxCapacity()).isEqualTo(3);
+
+        List<Long> ids = List.of(budget.getId(), luxury.getId(), empty.getId());
+        assertThat(hotelRepository.filterByPriceAndRating(ids, null, 3000.0, null))
+                .extracting(Hotel::getName).containsExactly("Budget Inn");
+        assertThat(hotelRepository.filterByPriceAndRating(ids, 2000.0, null, 4.0))
+                .extracting(Hotel::getName).containsExactly("Luxury Palace");
+        // rating only: a hotel without rooms is still listed
+        assertThat(hotelRepository.filterByPriceAndRating(ids, null, null, 4.0))
+                .extracting(Hotel::getName).containsExactlyInAnyOrder("Luxury Palace", "No Rooms Yet");
+
+        // a new cheaper room only moves its own hotel
+        saveRoom(luxury, 800.0, 1);
+        hotelRepository.refreshRoomStats(luxury.getId());
+        assertThat(hotelRepository.filterAllByPriceAndRating(null, 1000.0, null))
+                .extracting(Hotel::getName).containsExactly("Luxury Palace");
+    }
+
+    @Test
+    void testKeysetPagesWalkTheWholeCatalogOnce() {
+        saveHotel("Cedar", 4.5);
+        saveHotel("Apple", 4.5);
+        saveHotel("Birch", 3.0);
+        saveHotel("Elm", 4.9);
+        saveHotel("Dune", 4.5);
+
+        // rating desc, ties broken by id: page by page with two rows each
+        List<Hotel> byRating = new ArrayList<>(hotelRepository.findRatingPage(PageRequest.of(0, 2)));
+        while (byRating.size() < 5) {
+            Hotel last = byRating.get(byRating.size() - 1);
+            List<Hotel> next = hotelRepository.findRatingPageAfter(last.getRating(), last.getId(), PageRequest.of(0, 2));
+            assertThat(next).isNotEmpty();
+            byRating.addAll(next);
+        }
+        assertThat(byRating).extracting(Hotel::getName).containsExactly("Elm", "Cedar", "Apple", "Dune", "Birch");
+
+        List<Hotel> byName = new ArrayList<>(hotelRepository.findNamePage(PageRequest.of(0, 2)));
+        while (byName.size() < 5) {
+            Hotel last = byName.get(byName.size() - 1);
+            byName.addAll(hotelRepository.findNamePageAfter(last.getName(), last.getId(), PageRequest.of(0, 2)));
+        }
+        assertThat(byName).extracting(Hotel::getName).containsExactly("Apple", "Birch", "Cedar", "Dune", "Elm");
+
+        Hotel lastByName = byName.get(4);
+        assertThat(hotelRepository.findNamePageAfter(lastByName.getName(), lastByName.getId(), PageRequest.of(0, 2))).isEmpty();
+    }
+
+    private Hotel saveHotel(String name, double rating) {
+        Hotel hotel = new Hotel();
+        hotel.setName(name);
+        hotel.setAddress("1 Test Street");
+        hotel.setCity("Patna");
+        hotel.setRating(rating);
+        return hotelRepository.save(hotel);
+    }
+
+    private void saveRoom(Hotel hotel, double price, int capacity) {
+        Room room = new Room();
+        room.setRoomNumber("R" + price);
+        room.setType("Deluxe");
+        room.setPricePerNight(price);
+        room.setCapacity(capacity);
+        room.setHotel(hotel);
+        roomRepository.save(room);
+    }
+}
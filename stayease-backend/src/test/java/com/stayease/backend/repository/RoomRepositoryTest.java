@@ -1,12 +1,16 @@
 package com.stayease.backend.repository;
 
-import com.stayease.backend.model.Room;
-import com.stayease.backend.model.Hotel;
+import com.stayease.backend.model.*;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.TestPropertySource;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -19,7 +23,8 @@ import static org.assertj.core.api.Assertions.assertThat;
         "spring.datasource.password=",
         "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
         "spring.jpa.hibernate.ddl-auto=create-drop",
-        "spring.jpa.defer-datasource-initialization=true"
+        "spring.jpa.defer-datasource-initialization=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
 })
 class RoomRepositoryTest {
 
@@ -29,6 +34,15 @@ class RoomRepositoryTest {
     @Autowired
     private HotelRepository hotelRepository;
 
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     void testFindByHotelId() {
         Hotel hotel = new Hotel();
@@ -53,4 +67,101 @@ class RoomRepositoryTest {
         assertThat(rooms).hasSize(1);
         assertThat(rooms.get(0).getRoomNumber()).isEqualTo("101");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFindAvailableRooms_ExcludesConfirmedAndLiveHolds() {
+        Hotel hotel = saveHotel();
+        Room confirmedRoom = saveRoom(hotel, "101");
+        Room heldRoom = saveRoom(hotel, "102");
+        Room lapsedRoom = saveRoom(hotel, "103");
+        Room backToBackRoom = saveRoom(hotel, "104");
+        Room freeRoom = saveRoom(hotel, "105");
+        User user = saveUser();
+
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        LocalDate checkOut = checkIn.plusDays(3);
+        LocalDateTime now = LocalDateTime.now();
+        saveBooking(user, hotel, confirmedRoom, checkIn.plusDays(1), checkOut.plusDays(1), BookingStatus.CONFIRMED);
+        saveBooking(user, hotel, heldRoom, checkIn, checkOut, BookingStatus.PENDING).setHoldExpiresAt(now.plusMinutes(5));
+        saveBooking(user, hotel, lapsedRoom, checkIn, checkOut, BookingStatus.PENDING).setHoldExpiresAt(now.minusMinutes(5));
+        saveBooking(user, hotel, backToBackRoom, checkOut, checkOut.plusDays(2), BookingStatus.CONFIRMED);
+        entityManager.flush();
+
+        List<Room> available = roomRepository.findAvailableRooms(hotel.getId(), checkIn, checkOut, BookingStatus.BLOCKING, now);
+
+        assertThat(available).extracting(Room::getId)
+                .containsExactlyInAnyOrder(lapsedRoom.getId(), backToBackRoom.getId(), freeRoom.getId());
+    }
+
+    @Test
+    void testFindAvailableRooms_OneStatementRegardlessOfRoomCount() {
+        User user = saveUser();
+        LocalDate checkIn = LocalDate.now().plusDays(5);
+        LocalDate checkOut = checkIn.plusDays(2);
+
+        Hotel small = saveHotel();
+        saveRoom(small, "1");
+
+        Hotel large = saveHotel();
+        for (int i = 0; i < 40; i++) {
+            Room room = saveRoom(large, "L" + i);
+            if (i % 3 == 0) {
+                saveBooking(user, large, room, checkIn, checkOut, BookingStatus.CONFIRMED);
+            }
+        }
+
+        assertThat(statementsFor(small.getId(), checkIn, checkOut)).isEqualTo(1);
+        assertThat(statementsFor(large.getId(), checkIn, checkOut)).isEqualTo(1);
+    }
+
+    private long statementsFor(Long hotelId, LocalDate checkIn, LocalDate checkOut) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics stats = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        roomRepository.findAvailableRooms(hotelId, checkIn, checkOut, BookingStatus.BLOCKING, LocalDateTime.now());
+
+        return stats.getPrepareStatementCount();
+    }
+
+    private Hotel saveHotel() {
+        Hotel hotel = new Hotel();
+        hotel.setName("Test Hotel");
+        hotel.setAddress("Test Address");
+        hotel.setCity("Test City");
+        hotel.setRating(4.5);
+        return hotelRepository.save(hotel);
+    }
+
+    private Room saveRoom(Hotel hotel, String number) {
+        Room room = new Room();
+        room.setRoomNumber(number);
+        room.setType("Deluxe");
+        room.setPricePerNight(100.0);
+        room.setCapacity(2);
+        room.setAvailable(true);
+        room.setHotel(hotel);
+        return roomRepository.save(room);
+    }
+
+    private User saveUser() {
+        User user = new User();
+        user.setUsername("guest" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        user.setPassword("password");
+        user.setRole(Role.USER);
+        return userRepository.save(user);
+    }
+
+    private Booking saveBooking(User user, Hotel hotel, Room room, LocalDate checkIn, LocalDate checkOut, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setUser(user);
+        booking.setHotel(hotel);
+        booking.setRoom(room);
+        booking.setCheckIn(checkIn);
+        booking.setCheckOut(checkOut);
+        booking.setStatus(status);
+        return bookingRepository.save(booking);
+    }
+}
@@ -0,0 +1,168 @@
+package com.stayease.backend.service;
+
+import com.stayease.backend.dto.ActivityDTO;
+import com.stayease.backend.dto.BookingRequest;
+import com.stayease.backend.event.UserRegisteredEvent;
+import com.stayease.backend.model.*;
+import com.stayease.backend.repository.*;
+import com.stayease.backend.service.impl.ActivityFeed;
+import com.stayease.backend.service.impl.BookingServiceImpl;
+import com.stayease.backend.service.impl.RoomAvailabilityIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not transactional: feed entries are appended once the change commits
+@DataJpaTest
+@Import({ActivityFeed.class, BookingServiceImpl.class, RoomAvailabilityIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:activityfeed;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ActivityFeedTest {
+
+    @Autowired private ActivityFeed feed;
+    @Autowired private BookingServiceImpl bookingService;
+    @Autowired private ApplicationEventPublisher events;
+    @Autowired private BookingRepository bookingRepository;
+    @Autowired private RoomRepository roomRepository;
+    @Autowired private HotelRepository hotelRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private Hotel hotel;
+    private Room room;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder().username("owner").email("owner@test.com")
+                .password("x").role(Role.USER).build());
+        hotel = hotelRepository.save(Hotel.builder().name("Feed Hotel").address("2 Lake Rd").city("Udaipur").build());
+        room = roomRepository.save(Room.builder().roomNumber("101").type("Deluxe")
+                .pricePerNight(900.0).hotel(hotel).build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+        hotelRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testSeededFromNewestBookingsAndUsers() {
+        Booking older = saveBooking(LocalDateTime.now().minusHours(2));
+        Booking newer = saveBooking(LocalDateTime.now().minusHours(1));
+
+        ActivityFeed fresh = new ActivityFeed(bookingRepository, userRepository, 64);
+        fresh.load();
+        List<ActivityDTO> activity = fresh.recent(10);
+
+        assertEquals(List.of("user_" + user.getId(), "booking_" + newer.getId(), "booking_" + older.getId()),
+                activity.stream().map(ActivityDTO::getId).toList());
+        assertEquals("owner", activity.get(1).getUser());
+
+        // a smaller ring keeps only the newest entries
+        ActivityFeed small = new ActivityFeed(bookingRepository, userRepository, 2);
+        small.load();
+        assertEquals(List.of("user_" + user.getId(), "booking_" + newer.getId()),
+                small.recent(10).stream().map(ActivityDTO::getId).toList());
+    }
+
+    @Test
+    void testChangesAreAppendedAndReadWithoutTheDatabase() {
+        LocalDate checkIn = LocalDate.now().plusDays(6);
+        BookingRequest request = new BookingRequest();
+        request.setHotelId(hotel.getId());
+        request.setRoomId(room.getId());
+        request.setCheckIn(checkIn);
+        request.setCheckOut(checkIn.plusDays(2));
+        request.setGuests(2);
+
+        Booking booking = bookingService.createBooking(user.getId(), request);
+        bookingService.confirmBooking(booking.getId());
+        events.publishEvent(new UserRegisteredEvent(99L, "newcomer", LocalDateTime.now()));
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        List<ActivityDTO> activity = feed.recent(3);
+
+        assertEquals(0, stats.getPrepareStatementCount());
+        assertEquals(List.of("user_99", "booking_" + booking.getId() + "_confirmed", "booking_" + booking.getId()),
+                activity.stream().map(ActivityDTO::getId).toList());
+        assertEquals("owner", activity.get(2).getUser());
+    }
+
+    @Test
+    void testConcurrentWritersNeverTearTheSnapshot() throws Exception {
+        ActivityFeed ring = new ActivityFeed(null, null, 8);
+        ExecutorService pool = Executors.newFixedThreadPool(5);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            int writer = w;
+            writers.add(pool.submit(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    ring.append(new ActivityDTO(writer + "_" + i, "test", "entry", LocalDateTime.now(), "w" + writer, "🧪"));
+                }
+            }));
+        }
+        Future<?> reader = pool.submit(() -> {
+            while (writing.get()) {
+                List<ActivityDTO> snapshot = ring.recent(100);
+                assertTrue(snapshot.size() <= 8);
+                assertFalse(snapshot.contains(null));
+            }
+        });
+        for (Future<?> writer : writers) {
+            writer.get(10, TimeUnit.SECONDS);
+        }
+        writing.set(false);
+        reader.get(10, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        List<ActivityDTO> last = ring.recent(100);
+        assertEquals(8, last.size());
+        assertEquals(8, new HashSet<>(last).size());
+        assertEquals(8000L, ring.metrics().get("appended"));
+    }
+
+    private Booking saveBooking(LocalDateTime createdAt) {
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        return bookingRepository.save(Booking.builder().user(user).hotel(hotel).room(room)
+                .checkIn(checkIn).checkOut(checkIn.plusDays(1)).guests(1).totalAmount(900.0)
+                .status(BookingStatus.CANCELLED).createdAt(createdAt).build());
+    }
+}
@@ -0,0 +1,132 @@
+package com.stayease.backend.service;
+
+import com.stayease.backend.dto.BookingRequest;
+import com.stayease.backend.model.*;
+import com.stayease.backend.repository.BookingRepository;
+import com.stayease.backend.repository.HotelRepository;
+import com.stayease.backend.repository.RoomRepository;
+import com.stayease.backend.repository.UserRepository;
+import com.stayease.backend.service.impl.BookingServiceImpl;
+import com.stayease.backend.service.impl.RoomAvailabilityIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not transactional: every booking commits on its own, like real requests
+@DataJpaTest
+@Import({BookingServiceImpl.class, RoomAvailabilityIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bookingrace;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        // the prod profile pins the PostgreSQL dialect, whose FOR NO KEY UPDATE H2 does not parse
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.hikari.maximum-pool-size=16"
+})
+class BookingConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int REQUESTS = 3000;
+
+    @Autowired private BookingServiceImpl bookingService;
+    @Autowired private AutowireCapableBeanFactory beanFactory;
+    @Autowired private BookingRepository bookingRepository;
+    @Autowired private RoomRepository roomRepository;
+    @Autowired private HotelRepository hotelRepository;
+    @Autowired private UserRepository userRepository;
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+        hotelRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testConflictingRequestsNeverDoubleBook() throws Exception {
+        User user = userRepository.save(User.builder().username("racer").email("racer@test.com")
+                .password("x").role(Role.USER).build());
+        Hotel hotel = hotelRepository.save(Hotel.builder().name("Race Hotel").address("1 Main St").city("Patna").build());
+        List<Room> rooms = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            rooms.add(roomRepository.save(Room.builder().roomNumber("10" + i).type("Deluxe")
+                    .pricePerNight(1000.0).hotel(hotel).build()));
+        }
+
+        // a second service instance has its own lock stripes, like a second app node;
+        // only the room row lock stands between the two
+        BookingServiceImpl otherNode = beanFactory.createBean(BookingServiceImpl.class);
+        LocalDate start = LocalDate.now().plusDays(10);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            BookingService service = t % 2 == 0 ? bookingService : otherNode;
+            SplittableRandom random = new SplittableRandom(t);
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < REQUESTS / THREADS; i++) {
+                    Room room = rooms.get(random.nextInt(rooms.size()));
+                    LocalDate checkIn = start.plusDays(random.nextInt(30));
+                    BookingRequest req = new BookingRequest();
+                    req.setHotelId(hotel.getId());
+                    req.setRoomId(room.getId());
+                    req.setCheckIn(checkIn);
+                    req.setCheckOut(checkIn.plusDays(1 + random.nextInt(3)));
+                    req.setGuests(1);
+                    try {
+                        service.createBooking(user.getId(), req);
+                        created.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        assertEquals(REQUESTS / THREADS * THREADS, created.get() + rejected.get());
+        assertTrue(created.get() > 0);
+        assertTrue(rejected.get() > 0);
+
+        Map<Long, List<Booking>> byRoom = bookingRepository.findAll().stream()
+                .collect(Collectors.groupingBy(b -> b.getRoom().getId()));
+        assertEquals(created.get(), byRoom.values().stream().mapToInt(List::size).sum());
+        for (List<Booking> stays : byRoom.values()) {
+            stays.sort((a, b) -> a.getCheckIn().compareTo(b.getCheckIn()));
+            for (int i = 1; i < stays.size(); i++) {
+                assertFalse(stays.get(i).getCheckIn().isBefore(stays.get(i - 1).getCheckOut()),
+                        "double booking on room " + stays.get(i).getRoom().getId());
+            }
+        }
+    }
+}
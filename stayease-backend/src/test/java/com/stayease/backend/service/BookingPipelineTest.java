@@ -0,0 +1,217 @@
+package com.stayease.backend.service;
+
+import com.stayease.backend.dto.BookingRequest;
+import com.stayease.backend.exception.ServiceBusyException;
+import com.stayease.backend.model.*;
+import com.stayease.backend.repository.BookingRepository;
+import com.stayease.backend.repository.HotelRepository;
+import com.stayease.backend.repository.RoomRepository;
+import com.stayease.backend.repository.UserRepository;
+import com.stayease.backend.service.impl.BookingPipeline;
+import com.stayease.backend.service.impl.BookingPipeline.Ticket;
+import com.stayease.backend.service.impl.BookingPipeline.TicketStatus;
+import com.stayease.backend.service.impl.BookingServiceImpl;
+import com.stayease.backend.service.impl.RoomAvailabilityIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Not transactional: the workers book on their own threads and commit
+@DataJpaTest
+@Import({BookingServiceImpl.class, RoomAvailabilityIndex.class, BookingPipeline.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bookingpipeline;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class BookingPipelineTest {
+
+    @Autowired private BookingPipeline pipeline;
+    @Autowired private BookingRepository bookingRepository;
+    @Autowired private RoomRepository roomRepository;
+    @Autowired private HotelRepository hotelRepository;
+    @Autowired private UserRepository userRepository;
+
+    private final LocalDate checkIn = LocalDate.now().plusDays(20);
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+        hotelRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testFlashSaleBooksEachRoomOnceAcrossHotels() throws Exception {
+        List<Room> rooms = new ArrayList<>();
+        for (int h = 0; h < 3; h++) {
+            Hotel hotel = hotelRepository.save(Hotel.builder().name("Sale Hotel " + h).address("1 Beach Rd").city("Goa").build());
+            for (int r = 0; r < 2; r++) {
+                rooms.add(roomRepository.save(Room.builder().roomNumber(h + "0" + r).type("Deluxe")
+                        .pricePerNight(1500.0).hotel(hotel).build()));
+            }
+        }
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            users.add(userRepository.save(User.builder().username("fan" + i).email("fan" + i + "@test.com")
+                    .password("x").role(Role.USER).build()));
+        }
+
+        // every user goes for every room on the same night
+        List<Ticket> tickets = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Void>> submits = new ArrayList<>();
+        for (User user : users) {
+            submits.add(CompletableFuture.runAsync(() -> {
+                for (Room room : rooms) {
+                    tickets.add(pipeline.submit(user.getId(), request(room)));
+                }
+            }));
+        }
+        CompletableFuture.allOf(submits.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        CompletableFuture.allOf(tickets.stream().map(Ticket::done).toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+        assertEquals(60, tickets.size());
+        assertEquals(rooms.size(), tickets.stream().filter(t -> t.getStatus() == TicketStatus.BOOKED).count());
+        assertEquals(rooms.size(), bookingRepository.count());
+        for (Room room : rooms) {
+            assertEquals(1, tickets.stream()
+                    .filter(t -> t.getRoomId().equals(room.getId()) && t.getStatus() == TicketStatus.BOOKED).count());
+        }
+        Ticket loser = tickets.stream().filter(t -> t.getStatus() == TicketStatus.REJECTED).findFirst().orElseThrow();
+        assertTrue(loser.getMessage().contains("already booked"));
+        assertSame(loser, pipeline.find(loser.getId()).orElseThrow());
+    }
+
+    @Test
+    void testFullHotelQueueIsShed() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        BookingServiceImpl slow = mock(BookingServiceImpl.class);
+        when(slow.createEach(anyList())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            List<BookingServiceImpl.Attempt> attempts = invocation.getArgument(0);
+            return attempts.stream().map(a -> new BookingServiceImpl.Outcome(null, "sold out")).toList();
+        });
+        // rooms 70-79 are in hotel 7, 80-89 in hotel 8
+        RoomRepository rooms = mock(RoomRepository.class);
+        when(rooms.findHotelIdById(anyLong())).thenAnswer(invocation -> Optional.of(invocation.<Long>getArgument(0) / 10));
+        BookingPipeline small = new BookingPipeline(slow, rooms, 1, 2, 10, 5, 3, 1);
+        try {
+            Ticket first = small.submit(1L, request(7L, 70L));
+            Ticket second = small.submit(1L, request(7L, 71L));
+
+            ServiceBusyException busy = assertThrows(ServiceBusyException.class, () -> small.submit(1L, request(7L, 72L)));
+            assertEquals(3, busy.getRetryAfterSeconds());
+            // another hotel has its own lane
+            Ticket otherHotel = small.submit(1L, request(8L, 80L));
+
+            release.countDown();
+            CompletableFuture.allOf(first.done(), second.done(), otherHotel.done()).get(10, TimeUnit.SECONDS);
+            assertEquals(TicketStatus.REJECTED, second.getStatus());
+            assertEquals(1L, small.metrics().get("shed"));
+        } finally {
+            small.shutdown();
+        }
+    }
+
+    @Test
+    void testShutdownBooksOrRejectsEveryAcceptedTicket() throws Exception {
+        BookingServiceImpl slow = mock(BookingServiceImpl.class);
+        when(slow.createEach(anyList())).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            List<BookingServiceImpl.Attempt> attempts = invocation.getArgument(0);
+            return attempts.stream().map(a -> new BookingServiceImpl.Outcome(new Booking(), null)).toList();
+        });
+        RoomRepository rooms = mock(RoomRepository.class);
+        when(rooms.findHotelIdById(anyLong())).thenAnswer(invocation -> Optional.of(invocation.<Long>getArgument(0) / 10));
+        // one ticket per batch, 200ms each, and a second to drain on shutdown: some are booked, the rest rejected
+        BookingPipeline pipeline = new BookingPipeline(slow, rooms, 1, 50, 1, 5, 3, 1);
+        List<Ticket> accepted = new ArrayList<>();
+        for (long room = 70; room < 80; room++) {
+            accepted.add(pipeline.submit(1L, request(7L, room)));
+        }
+
+        pipeline.shutdown();
+
+        assertTrue(accepted.stream().allMatch(ticket -> ticket.done().isDone()));
+        long bookedCount = accepted.stream().filter(t -> t.getStatus() == TicketStatus.BOOKED).count();
+        List<Ticket> dropped = accepted.stream().filter(t -> t.getStatus() == TicketStatus.REJECTED).toList();
+        assertTrue(bookedCount > 0);
+        assertFalse(dropped.isEmpty());
+        assertEquals(accepted.size(), bookedCount + dropped.size());
+        assertTrue(dropped.get(0).getMessage().contains("server restarted"));
+        assertEquals(0L, pipeline.metrics().get("queued"));
+
+        ServiceBusyException closed = assertThrows(ServiceBusyException.class, () -> pipeline.submit(1L, request(7L, 70L)));
+        assertEquals(3, closed.getRetryAfterSeconds());
+    }
+
+    @Test
+    void testLanesAreKeyedOnTheRoomsHotelAndDroppedWhenIdle() throws Exception {
+        Hotel hotel = hotelRepository.save(Hotel.builder().name("Lane Hotel").address("4 Hill Rd").city("Shimla").build());
+        Hotel other = hotelRepository.save(Hotel.builder().name("Other Hotel").address("5 Hill Rd").city("Shimla").build());
+        Room room = roomRepository.save(Room.builder().roomNumber("201").type("Deluxe")
+                .pricePerNight(1100.0).hotel(hotel).build());
+        User user = userRepository.save(User.builder().username("walker").email("walker@test.com")
+                .password("x").role(Role.USER).build());
+
+        // made-up ids are turned away before any lane exists for them
+        IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class,
+                () -> pipeline.submit(user.getId(), request(987654L, 123456L)));
+        assertTrue(unknown.getMessage().contains("Room not found"));
+        IllegalArgumentException mismatched = assertThrows(IllegalArgumentException.class,
+                () -> pipeline.submit(user.getId(), request(other.getId(), room.getId())));
+        assertTrue(mismatched.getMessage().contains("does not belong"));
+        assertEquals(0, pipeline.metrics().get("hotels"));
+
+        Ticket ticket = pipeline.submit(user.getId(), request(room));
+        ticket.done().get(10, TimeUnit.SECONDS);
+        assertEquals(TicketStatus.BOOKED, ticket.getStatus());
+
+        // the worker drops the lane just after finishing its batch
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!Integer.valueOf(0).equals(pipeline.metrics().get("hotels")) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, pipeline.metrics().get("hotels"));
+    }
+
+    private BookingRequest request(Room room) {
+        return request(room.getHotel().getId(), room.getId());
+    }
+
+    private BookingRequest request(Long hotelId, Long roomId) {
+        BookingRequest request = new BookingRequest();
+        request.setHotelId(hotelId);
+        request.setRoomId(roomId);
+        request.setCheckIn(checkIn);
+        request.setCheckOut(checkIn.plusDays(1));
+        request.setGuests(2);
+        return request;
+    }
+}
@@ -7,6 +7,7 @@ import com.stayease.backend.repository.HotelRepository;
 import com.stayease.backend.repository.RoomRepository;
 import com.stayease.backend.repository.UserRepository;
 import com.stayease.backend.service.impl.BookingServiceImpl;
+import com.stayease.backend.service.impl.RoomAvailabilityIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -15,7 +16,6 @@ import org.mockito.MockitoAnnotations;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,6 +37,9 @@ class BookingServiceImplTest {
     @Mock
     private RoomRepository roomRepository;
 
+    @Mock
+    private RoomAvailabilityIndex availabilityIndex;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -78,10 +81,9 @@ class BookingServiceImplTest {
     void testCreateBooking_Success() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(hotelRepository.findById(1L)).thenReturn(Optional.of(testHotel));
-        when(roomRepository.findById(10L)).thenReturn(Optional.of(testRoom));
-        when(bookingRepository.findByRoomIdAndCheckInLessThanEqualAndCheckOutGreaterThanEqual(
-                anyLong(), any(LocalDate.class), any(LocalDate.class)))
-                .thenReturn(Collections.emptyList());
+        when(roomRepository.findByIdForUpdate(10L)).thenReturn(Optional.of(testRoom));
+        when(bookingRepository.existsOverlapping(eq(10L), any(LocalDate.class), any(LocalDate.class), any(), isNull(), any(LocalDateTime.class)))
+                .thenReturn(false);
 
         Booking savedBooking = new Booking();
         savedBooking.setId(100L);
@@ -113,14 +115,9 @@ class BookingServiceImplTest {
     void testCreateBooking_RoomConflict() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(hotelRepository.findById(1L)).thenReturn(Optional.of(testHotel));
-        when(roomRepository.findById(10L)).thenReturn(Optional.of(testRoom));
-
-        Booking conflictingBooking = new Booking();
-        conflictingBooking.setStatus(BookingStatus.CONFIRMED);
-
-        when(bookingRepository.findByRoomIdAndCheckInLessThanEqualAndCheckOutGreaterThanEqual(
-                anyLong(), any(LocalDate.class), any(LocalDate.class)))
-                .thenReturn(List.of(conflictingBooking));
+        when(roomRepository.findByIdForUpdate(10L)).thenReturn(Optional.of(testRoom));
+        when(bookingRepository.existsOverlapping(eq(10L), any(LocalDate.class), any(LocalDate.class), any(), isNull(), any(LocalDateTime.class)))
+                .thenReturn(true);
 
         Exception exception = assertThrows(IllegalStateException.class, () -> {
             bookingService.createBooking(1L, testBookingRequest);
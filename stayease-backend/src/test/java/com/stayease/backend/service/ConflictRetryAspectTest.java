@@ -0,0 +1,222 @@
+package com.stayease.backend.service;
+
+import com.stayease.backend.model.*;
+import com.stayease.backend.repository.BookingRepository;
+import com.stayease.backend.repository.HotelRepository;
+import com.stayease.backend.repository.RoomRepository;
+import com.stayease.backend.repository.UserRepository;
+import com.stayease.backend.service.impl.BookingServiceImpl;
+import com.stayease.backend.service.impl.ConflictRetryAspect;
+import com.stayease.backend.service.impl.RoomAvailabilityIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not transactional: every save commits on its own, as it does behind the controllers
+@DataJpaTest
+@Import({BookingServiceImpl.class, RoomAvailabilityIndex.class, ConflictRetryAspect.class,
+        AopAutoConfiguration.class, ConflictRetryAspectTest.RacingWriter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:conflictretry;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "stayease.retry.maxAttempts=3",
+        "stayease.retry.baseDelayMs=1"
+})
+class ConflictRetryAspectTest {
+
+    // A read-modify-write where an admin confirm lands between the read and the save
+    @TestConfiguration
+    static class RacingWriter {
+        @Bean
+        Writer writer(BookingRepository bookingRepository, BookingServiceImpl bookingService) {
+            return new Writer(bookingRepository, bookingService);
+        }
+    }
+
+    // proxied for the aspect, so the test reaches its state through methods
+    static class Writer {
+        private final AtomicInteger attempts = new AtomicInteger();
+        private int racesToLose;
+        private final BookingRepository bookingRepository;
+        private final BookingServiceImpl bookingService;
+
+        Writer(BookingRepository bookingRepository, BookingServiceImpl bookingService) {
+            this.bookingRepository = bookingRepository;
+            this.bookingService = bookingService;
+        }
+
+        public void reset(int racesToLose) {
+            this.attempts.set(0);
+            this.racesToLose = racesToLose;
+        }
+
+        public int attempts() {
+            return attempts.get();
+        }
+
+        @RetryOnConflict
+        public Booking addRequest(Long bookingId, String note) {
+            attempts.incrementAndGet();
+            Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+            if (racesToLose-- > 0) {
+                bookingService.updateBookingStatus(bookingId, BookingStatus.CONFIRMED);
+            }
+            booking.setSpecialRequests(note);
+            return bookingRepository.save(booking);
+        }
+    }
+
+    @Autowired private Writer writer;
+    @Autowired private ConflictRetryAspect retryAspect;
+    @Autowired private BookingServiceImpl bookingService;
+    @Autowired private BookingRepository bookingRepository;
+    @Autowired private RoomRepository roomRepository;
+    @Autowired private HotelRepository hotelRepository;
+    @Autowired private UserRepository userRepository;
+
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(User.builder().username("racer").email("racer@test.com")
+                .password("x").role(Role.USER).build());
+        Hotel hotel = hotelRepository.save(Hotel.builder().name("Race Hotel").address("1 Track Rd").city("Pune").build());
+        Room room = roomRepository.save(Room.builder().roomNumber("101").type("Deluxe")
+                .pricePerNight(1800.0).hotel(hotel).build());
+        LocalDate checkIn = LocalDate.now().plusDays(12);
+        booking = bookingRepository.save(Booking.builder().user(user).hotel(hotel).room(room)
+                .checkIn(checkIn).checkOut(checkIn.plusDays(2)).guests(2).totalAmount(3600.0)
+                .status(BookingStatus.PENDING).build());
+        writer.reset(0);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+        hotelRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testStaleCopyCannotOverwriteNewerUpdate() {
+        Booking adminCopy = bookingRepository.findById(booking.getId()).orElseThrow();
+        Booking userCopy = bookingRepository.findById(booking.getId()).orElseThrow();
+
+        adminCopy.setStatus(BookingStatus.CONFIRMED);
+        bookingRepository.save(adminCopy);
+        userCopy.setStatus(BookingStatus.CANCELLED);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> bookingRepository.save(userCopy));
+        assertEquals(BookingStatus.CONFIRMED, bookingRepository.findById(booking.getId()).orElseThrow().getStatus());
+        assertEquals(1L, bookingRepository.findById(booking.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void testLostRaceIsRetriedOnTheFreshRow() {
+        long retriesBefore = (long) retryAspect.metrics().get("retries");
+        writer.reset(1);
+
+        Booking saved = writer.addRequest(booking.getId(), "Late check-in");
+
+        Booking stored = bookingRepository.findById(saved.getId()).orElseThrow();
+        assertEquals(2, writer.attempts());
+        // the confirm that won the race is kept, and the retried change lands on top of it
+        assertEquals(BookingStatus.CONFIRMED, stored.getStatus());
+        assertEquals("Late check-in", stored.getSpecialRequests());
+        assertEquals(2L, stored.getVersion());
+        assertEquals(retriesBefore + 1, retryAspect.metrics().get("retries"));
+    }
+
+    @Test
+    void testRetriesStopAtMaxAttempts() {
+        long exhaustedBefore = (long) retryAspect.metrics().get("exhausted");
+        writer.reset(Integer.MAX_VALUE);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> writer.addRequest(booking.getId(), "never"));
+
+        assertEquals(3, writer.attempts());
+        assertEquals(exhaustedBefore + 1, retryAspect.metrics().get("exhausted"));
+        assertNull(bookingRepository.findById(booking.getId()).orElseThrow().getSpecialRequests());
+    }
+
+    @Test
+    void testServiceUpdatesBumpTheVersion() {
+        Booking confirmed = bookingService.confirmBooking(booking.getId());
+        Booking cancelled = bookingService.cancelBooking(booking.getUser().getId(), booking.getId());
+
+        assertEquals(1L, confirmed.getVersion());
+        assertEquals(2L, cancelled.getVersion());
+    }
+
+    @Test
+    void testConfirmThatLosesToACancelIsNotReappliedOnRetry() {
+        Long ownerId = booking.getUser().getId();
+        long retriesBefore = (long) retryAspect.metrics().get("retries");
+        AtomicBoolean raced = new AtomicBoolean();
+        // the guest's cancel commits just before the admin's confirm is saved
+        BookingRepository racing = (BookingRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{BookingRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("save") && args[0] instanceof Booking saving
+                            && saving.getStatus() == BookingStatus.CONFIRMED && !raced.getAndSet(true)) {
+                        bookingService.cancelBooking(ownerId, saving.getId());
+                    }
+                    try {
+                        return method.invoke(bookingRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        Object service = AopTestUtils.getTargetObject(bookingService);
+        ReflectionTestUtils.setField(service, "bookingRepository", racing);
+        try {
+            IllegalStateException refused = assertThrows(IllegalStateException.class,
+                    () -> bookingService.confirmBooking(booking.getId()));
+            assertTrue(refused.getMessage().contains("CANCELLED"));
+        } finally {
+            ReflectionTestUtils.setField(service, "bookingRepository", bookingRepository);
+        }
+
+        Booking stored = bookingRepository.findById(booking.getId()).orElseThrow();
+        assertTrue(raced.get());
+        assertEquals(BookingStatus.CANCELLED, stored.getStatus());
+        assertEquals(1L, stored.getVersion());
+        // the conflict was retried once, and the retry refused instead of confirming again
+        assertEquals(retriesBefore + 1, retryAspect.metrics().get("retries"));
+    }
+
+    @Test
+    void testStatusChangeFailsWhenTheBookingMovedOn() {
+        bookingService.cancelBooking(booking.getUser().getId(), booking.getId());
+
+        assertThrows(IllegalStateException.class,
+                () -> bookingService.updateBookingStatus(booking.getId(), BookingStatus.CONFIRMED, BookingStatus.PENDING));
+        assertEquals(BookingStatus.CANCELLED, bookingRepository.findById(booking.getId()).orElseThrow().getStatus());
+    }
+}
@@ -0,0 +1,238 @@
+package com.stayease.backend.service;
+
+import com.stayease.backend.dto.BookingRequest;
+import com.stayease.backend.dto.DashboardStatsDTO;
+import com.stayease.backend.event.BookingStatusChangedEvent;
+import com.stayease.backend.event.PaymentCompletedEvent;
+import com.stayease.backend.model.*;
+import com.stayease.backend.repository.*;
+import com.stayease.backend.service.impl.BookingServiceImpl;
+import com.stayease.backend.service.impl.DashboardProjector;
+import com.stayease.backend.service.impl.DashboardStatsServiceImpl;
+import com.stayease.backend.service.impl.RoomAvailabilityIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not transactional: checkpoints and seeding commit on their own
+@DataJpaTest
+@Import({DashboardProjector.class, DashboardStatsServiceImpl.class, BookingServiceImpl.class, RoomAvailabilityIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:dashboardprojector;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class DashboardProjectorTest {
+
+    @Autowired private DashboardProjector projector;
+    @Autowired private DashboardStatsService dashboardStatsService;
+    @Autowired private BookingServiceImpl bookingService;
+    @Autowired private BookingRepository bookingRepository;
+    @Autowired private PaymentRepository paymentRepository;
+    @Autowired private StatsCounterRepository counterRepository;
+    @Autowired private RoomRepository roomRepository;
+    @Autowired private HotelRepository hotelRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private User user;
+    private Hotel hotel;
+    private Room room;
+
+    @BeforeEach
+    void setUp() {
+        // the context's startup load already seeded the empty database
+        counterRepository.deleteAll();
+        user = userRepository.save(User.builder().username("owner").email("owner@test.com")
+                .password("x").role(Role.USER).build());
+        hotel = hotelRepository.save(Hotel.builder().name("Stats Hotel").address("1 Fort Rd").city("Jaipur").build());
+        room = roomRepository.save(Room.builder().roomNumber("101").type("Deluxe")
+                .pricePerNight(1250.50).hotel(hotel).build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        counterRepository.deleteAll();
+        paymentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+        hotelRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testEmptyTableIsSeededFromExistingRows() {
+        Booking confirmed = saveBooking(BookingStatus.CONFIRMED, 2000.0, 5);
+        saveBooking(BookingStatus.CANCELLED, 1000.0, 10);
+        paymentRepository.save(Payment.builder().booking(confirmed).amount(2000.0)
+                .status(PaymentStatus.COMPLETED).paymentMethod("MOCK").build());
+
+        DashboardProjector fresh = restart();
+
+        assertEquals(1, fresh.value(DashboardProjector.statusCount(BookingStatus.CONFIRMED)));
+        assertEquals(1, fresh.value(DashboardProjector.statusCount(BookingStatus.CANCELLED)));
+        assertEquals(2, fresh.value(DashboardProjector.hotelBookings(hotel.getId())));
+        assertEquals(3000.0, fresh.amount(DashboardProjector.hotelBookedAmount(hotel.getId())));
+        assertEquals(2000.0, fresh.amount(DashboardProjector.hotelPaidAmount(hotel.getId())));
+        assertEquals(1, fresh.value(DashboardProjector.PAID_COUNT));
+    }
+
+    @Test
+    void testChangesBeforeStartupAreNotSeededTwice() {
+        DashboardProjector node = new DashboardProjector(bookingRepository, paymentRepository, userRepository,
+                hotelRepository, counterRepository, transactionManager);
+        // a booking and its payment committed while the server was still starting
+        Booking early = saveBooking(BookingStatus.CONFIRMED, 800.0, 4);
+        paymentRepository.save(Payment.builder().booking(early).amount(800.0)
+                .status(PaymentStatus.COMPLETED).paymentMethod("MOCK").build());
+        node.onBookingStatusChanged(new BookingStatusChangedEvent(early.getId(), hotel.getId(), null, BookingStatus.CONFIRMED, 800.0, null));
+        node.onPaymentCompleted(new PaymentCompletedEvent(1L, early.getId(), hotel.getId(), 800.0));
+
+        node.load();
+        assertEquals(1, node.value(DashboardProjector.statusCount(BookingStatus.CONFIRMED)));
+        assertEquals(1, node.value(DashboardProjector.hotelBookings(hotel.getId())));
+        assertEquals(800.0, node.amount(DashboardProjector.PAID_AMOUNT));
+
+        node.checkpoint();
+        DashboardProjector restarted = restart();
+        assertEquals(1, restarted.value(DashboardProjector.statusCount(BookingStatus.CONFIRMED)));
+        assertEquals(800.0, restarted.amount(DashboardProjector.statusAmount(BookingStatus.CONFIRMED)));
+        assertEquals(800.0, restarted.amount(DashboardProjector.hotelPaidAmount(hotel.getId())));
+        assertEquals(1, restarted.value(DashboardProjector.PAID_COUNT));
+    }
+
+    @Test
+    void testBookingLifecycleMovesCountersWithoutReadingBookings() {
+        projector.load();
+        LocalDate checkIn = LocalDate.now().plusDays(8);
+        BookingRequest request = new BookingRequest();
+        request.setHotelId(hotel.getId());
+        request.setRoomId(room.getId());
+        request.setCheckIn(checkIn);
+        request.setCheckOut(checkIn.plusDays(2));
+        request.setGuests(2);
+
+        Booking booking = bookingService.createBooking(user.getId(), request);
+        DashboardStatsDTO afterCreate = dashboardStatsService.getDashboardStats();
+        bookingService.confirmBooking(booking.getId());
+        bookingService.cancelBooking(user.getId(), booking.getId());
+        DashboardStatsDTO afterCancel = dashboardStatsService.getDashboardStats();
+
+        assertEquals(1, afterCreate.getPendingBookings());
+        assertEquals(2501.0, afterCreate.getTotalRevenue());
+        assertEquals(0, afterCancel.getPendingBookings());
+        assertEquals(0, afterCancel.getConfirmedBookings());
+        assertEquals(1L, afterCancel.getBookingsByStatus().get("CANCELLED"));
+        assertEquals(1, afterCancel.getTotalBookings());
+        assertEquals(1, dashboardStatsService.getHotelStats(hotel.getId()).getTotalBookings());
+    }
+
+    @Test
+    void testCheckpointsAddUpAcrossInstancesAndSurviveRestart() {
+        DashboardProjector node = restart();
+        DashboardProjector otherNode = restart();
+
+        node.onBookingStatusChanged(new BookingStatusChangedEvent(1L, hotel.getId(), null, BookingStatus.PENDING, 100.0, null));
+        otherNode.onBookingStatusChanged(new BookingStatusChangedEvent(2L, hotel.getId(), null, BookingStatus.PENDING, 250.0, null));
+        otherNode.onPaymentCompleted(new PaymentCompletedEvent(9L, 2L, hotel.getId(), 250.0));
+        node.checkpoint();
+        otherNode.checkpoint();
+
+        DashboardProjector restarted = restart();
+        assertEquals(2, restarted.value(DashboardProjector.statusCount(BookingStatus.PENDING)));
+        assertEquals(350.0, restarted.amount(DashboardProjector.hotelBookedAmount(hotel.getId())));
+        assertEquals(250.0, restarted.amount(DashboardProjector.PAID_AMOUNT));
+        // nothing is left pending, so a second checkpoint writes nothing
+        assertEquals(0, node.checkpoint());
+        assertEquals(2, node.value(DashboardProjector.statusCount(BookingStatus.PENDING)));
+    }
+
+    @Test
+    void testTotalsHoldStillWhileACheckpointReloads() {
+        List<Long> seenDuringReload = new ArrayList<>();
+        DashboardProjector[] node = new DashboardProjector[1];
+        StatsCounterRepository watched = (StatsCounterRepository) Proxy.newProxyInstance(
+                StatsCounterRepository.class.getClassLoader(), new Class<?>[]{StatsCounterRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findAll") && node[0] != null) {
+                        // the deltas are in the table but the bases are not reloaded yet
+                        seenDuringReload.add(node[0].value(DashboardProjector.statusCount(BookingStatus.PENDING)));
+                    }
+                    try {
+                        return method.invoke(counterRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        node[0] = new DashboardProjector(bookingRepository, paymentRepository, userRepository, hotelRepository,
+                watched, transactionManager);
+        node[0].load();
+        seenDuringReload.clear();
+
+        node[0].onBookingStatusChanged(new BookingStatusChangedEvent(1L, hotel.getId(), null, BookingStatus.PENDING, 100.0, null));
+        node[0].onBookingStatusChanged(new BookingStatusChangedEvent(2L, hotel.getId(), null, BookingStatus.PENDING, 100.0, null));
+        node[0].checkpoint();
+        node[0].onBookingStatusChanged(new BookingStatusChangedEvent(3L, hotel.getId(), null, BookingStatus.PENDING, 100.0, null));
+        node[0].checkpoint();
+
+        assertEquals(List.of(2L, 3L), seenDuringReload);
+        assertEquals(3, node[0].value(DashboardProjector.statusCount(BookingStatus.PENDING)));
+        assertEquals(3, counterRepository.findById(DashboardProjector.statusCount(BookingStatus.PENDING))
+                .orElseThrow().getTotal());
+    }
+
+    @Test
+    void testUserAndHotelTotalsComeFromCounters() {
+        // a table seeded before users and hotels were counted
+        counterRepository.insert(DashboardProjector.PAID_COUNT, 0, LocalDateTime.now());
+        projector.load();
+        assertEquals(1, dashboardStatsService.getDashboardStats().getTotalUsers());
+        assertEquals(1, dashboardStatsService.getDashboardStats().getTotalHotels());
+
+        hotelRepository.save(Hotel.builder().name("Second Hotel").address("3 Ring Rd").city("Jaipur").build());
+        User guest = userRepository.save(User.builder().username("guest").email("guest@test.com")
+                .password("x").role(Role.USER).build());
+        userRepository.delete(guest);
+        projector.checkpoint();
+
+        DashboardStatsDTO stats = dashboardStatsService.getDashboardStats();
+        assertEquals(1, stats.getTotalUsers());
+        assertEquals(2, stats.getTotalHotels());
+        assertEquals(2, restart().value(DashboardProjector.HOTEL_COUNT));
+    }
+
+    private DashboardProjector restart() {
+        DashboardProjector instance = new DashboardProjector(bookingRepository, paymentRepository, userRepository,
+                hotelRepository, counterRepository, transactionManager);
+        instance.load();
+        return instance;
+    }
+
+    private Booking saveBooking(BookingStatus status, double amount, int daysAhead) {
+        LocalDate checkIn = LocalDate.now().plusDays(daysAhead);
+        return bookingRepository.save(Booking.builder().user(user).hotel(hotel).room(room)
+                .checkIn(checkIn).checkOut(checkIn.plusDays(1)).guests(1).totalAmount(amount)
+                .status(status).build());
+    }
+}
@@ -0,0 +1,166 @@
+package com.stayease.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stayease.backend.config.JacksonConfig;
+import com.stayease.backend.dto.ExportFormat;
+import com.stayease.backend.model.*;
+import com.stayease.backend.repository.*;
+import com.stayease.backend.service.impl.ExportServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not transactional: the export opens its own read-only transaction, as it does behind the controller
+@DataJpaTest
+@Import({ExportServiceImpl.class, JacksonAutoConfiguration.class, JacksonConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:exports;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "stayease.export.flushRows=2"
+})
+class ExportServiceImplTest {
+
+    // counts flushes so the test can see rows leaving while the export runs
+    static class FlushCountingWriter extends StringWriter {
+        int flushes;
+
+        @Override
+        public void flush() {
+            flushes++;
+            super.flush();
+        }
+    }
+
+    @Autowired private ExportService exportService;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private BookingRepository bookingRepository;
+    @Autowired private PaymentRepository paymentRepository;
+    @Autowired private RoomRepository roomRepository;
+    @Autowired private HotelRepository hotelRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private final LocalDateTime lastWeek = LocalDate.now().minusDays(7).atTime(10, 0);
+    private Booking firstBooking;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(User.builder().username("=finance, \"ops\"").email("ops@test.com")
+                .password("x").role(Role.USER).build());
+        Hotel hotel = hotelRepository.save(Hotel.builder().name("Export Hotel").address("3 Mall Rd").city("Shimla").build());
+        Room room = roomRepository.save(Room.builder().roomNumber("101").type("Deluxe")
+                .pricePerNight(5000000.0).hotel(hotel).build());
+        for (int i = 0; i < 5; i++) {
+            LocalDate checkIn = LocalDate.now().plusDays(10 + i * 3);
+            Booking booking = bookingRepository.save(Booking.builder().user(user).hotel(hotel).room(room)
+                    .checkIn(checkIn).checkOut(checkIn.plusDays(2)).guests(2).totalAmount(10000000.0)
+                    .status(BookingStatus.CONFIRMED).createdAt(lastWeek.plusDays(i)).build());
+            if (i == 0) {
+                firstBooking = booking;
+            }
+        }
+        paymentRepository.save(Payment.builder().booking(firstBooking).amount(10000000.0)
+                .status(PaymentStatus.COMPLETED).paymentMethod("MOCK").transactionId("txn_1").build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        paymentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+        hotelRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testCsvIsWrittenRowByRowWithoutLoadingEntities() throws Exception {
+        FlushCountingWriter out = new FlushCountingWriter();
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        long rows = exportService.exportBookings(ExportFormat.CSV, null, null, out);
+
+        List<String> lines = out.toString().lines().toList();
+        assertEquals(5, rows);
+        assertEquals(6, lines.size());
+        assertTrue(lines.get(0).startsWith("id,hotelId,hotelName,username"));
+        // quoted, formula-safe username and a plain-digit amount
+        assertTrue(lines.get(1).startsWith(firstBooking.getId() + "," + firstBooking.getHotel().getId()
+                + ",Export Hotel,\"'=finance, \"\"ops\"\"\",ops@test.com,"));
+        assertTrue(lines.get(1).contains(",10000000,CONFIRMED,"));
+        // one query, no entities, and a flush every two rows plus the final one
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertEquals(0, stats.getEntityLoadCount());
+        assertEquals(3, out.flushes);
+    }
+
+    @Test
+    void testDateRangeIsInclusiveOfBothDays() throws Exception {
+        StringWriter out = new StringWriter();
+
+        long rows = exportService.exportBookings(ExportFormat.NDJSON,
+                lastWeek.toLocalDate().plusDays(1), lastWeek.toLocalDate().plusDays(3), out);
+
+        List<String> lines = out.toString().lines().toList();
+        assertEquals(3, rows);
+        assertEquals(3, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals("Export Hotel", first.get("hotelName").asText());
+        assertEquals(lastWeek.plusDays(1), LocalDateTime.parse(first.get("createdAt").asText()));
+    }
+
+    @Test
+    void testPaymentsExport() throws Exception {
+        StringWriter csv = new StringWriter();
+        StringWriter ndjson = new StringWriter();
+
+        assertEquals(1, exportService.exportPayments(ExportFormat.CSV, LocalDate.now(), LocalDate.now(), csv));
+        assertEquals(0, exportService.exportPayments(ExportFormat.NDJSON, null, LocalDate.now().minusDays(1), ndjson));
+
+        List<String> lines = csv.toString().lines().toList();
+        assertEquals("id,bookingId,hotelId,hotelName,amount,status,paymentMethod,transactionId,createdAt", lines.get(0));
+        assertTrue(lines.get(1).contains("," + firstBooking.getId() + ",") && lines.get(1).contains(",COMPLETED,MOCK,txn_1,"));
+        assertEquals("", ndjson.toString());
+    }
+
+    @Test
+    void testCellStartingWithTabOrReturnIsDefused() throws Exception {
+        Booking another = bookingRepository.findAll().stream()
+                .filter(booking -> !booking.getId().equals(firstBooking.getId())).findFirst().orElseThrow();
+        paymentRepository.save(Payment.builder().booking(another).amount(10.0)
+                .status(PaymentStatus.FAILED).paymentMethod("\tMOCK").transactionId("\r=HYPERLINK(\"x\")").build());
+        StringWriter csv = new StringWriter();
+
+        assertEquals(2, exportService.exportPayments(ExportFormat.CSV, null, null, csv));
+
+        String export = csv.toString();
+        assertTrue(export.contains(",'\tMOCK,"));
+        assertTrue(export.contains(",\"'\r=HYPERLINK(\"\"x\"\")\","));
+        assertFalse(export.contains(",\tMOCK,"));
+    }
+}
@@ -0,0 +1,189 @@
+package com.stayease.backend.service;
+
+import com.stayease.backend.dto.BookingRequest;
+import com.stayease.backend.model.*;
+import com.stayease.backend.repository.BookingRepository;
+import com.stayease.backend.repository.HotelRepository;
+import com.stayease.backend.repository.RoomRepository;
+import com.stayease.backend.repository.UserRepository;
+import com.stayease.backend.service.impl.BookingServiceImpl;
+import com.stayease.backend.service.impl.RoomAvailabilityIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not transactional: the group must commit or roll back on its own
+@DataJpaTest
+@Import({BookingServiceImpl.class, RoomAvailabilityIndex.class, GroupBookingTest.StatementCounter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:groupbooking;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class GroupBookingTest {
+
+    // counts every statement prepared on any connection, JPA and JdbcTemplate alike
+    static final AtomicInteger STATEMENTS = new AtomicInteger();
+
+    @TestConfiguration
+    static class StatementCounter {
+        @Bean
+        static BeanPostProcessor countStatements() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? counting(dataSource) : bean;
+                }
+            };
+        }
+
+        private static DataSource counting(DataSource target) {
+            return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(target, method, args);
+                        return result instanceof Connection connection ? counting(connection) : result;
+                    });
+        }
+
+        private static Connection counting(Connection target) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("prepare")) {
+                            STATEMENTS.incrementAndGet();
+                        }
+                        return invoke(target, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    @Autowired private BookingServiceImpl bookingService;
+    @Autowired private RoomAvailabilityIndex availabilityIndex;
+    @Autowired private BookingRepository bookingRepository;
+    @Autowired private RoomRepository roomRepository;
+    @Autowired private HotelRepository hotelRepository;
+    @Autowired private UserRepository userRepository;
+
+    private final LocalDate checkIn = LocalDate.now().plusDays(30);
+    private final LocalDate checkOut = checkIn.plusDays(2);
+    private User user;
+    private Hotel hotel;
+    private final List<Room> rooms = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder().username("planner").email("planner@test.com")
+                .password("x").role(Role.USER).build());
+        hotel = hotelRepository.save(Hotel.builder().name("Wedding Hotel").address("1 Lake Rd").city("Udaipur").build());
+        for (int i = 0; i < 40; i++) {
+            rooms.add(roomRepository.save(Room.builder().roomNumber("R" + i).type("Deluxe")
+                    .pricePerNight(2000.0).hotel(hotel).build()));
+        }
+        availabilityIndex.rebuild();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+        hotelRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testGroupCostsTheSameStatementsForTwoRoomsOrForty() {
+        int small = statementsFor(requests(rooms.subList(0, 2)));
+        int large = statementsFor(requests(rooms.subList(2, 40)));
+
+        // user, room row locks, hotels, overlapping stays, one batched insert
+        assertEquals(5, small);
+        assertEquals(small, large);
+        assertEquals(40, bookingRepository.count());
+    }
+
+    @Test
+    void testGroupIsSavedWithIdsAndBlocksTheRooms() {
+        List<Booking> saved = bookingService.createBookings(user.getId(), requests(rooms.subList(0, 3)));
+
+        assertEquals(3, saved.size());
+        for (Booking booking : saved) {
+            Booking stored = bookingRepository.findById(booking.getId()).orElseThrow();
+            assertEquals(BookingStatus.PENDING, stored.getStatus());
+            assertEquals(4000.0, stored.getTotalAmount());
+            assertNotNull(stored.getHoldExpiresAt());
+            assertFalse(availabilityIndex.isAvailable(booking.getRoom().getId(), checkIn, checkOut));
+        }
+    }
+
+    @Test
+    void testOneTakenRoomRejectsTheWholeGroup() {
+        bookingService.createBookings(user.getId(), requests(rooms.subList(5, 6)));
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> bookingService.createBookings(user.getId(), requests(rooms.subList(0, 10))));
+
+        assertTrue(error.getMessage().contains("R5"));
+        assertEquals(1, bookingRepository.count());
+    }
+
+    @Test
+    void testGroupCannotOverlapItself() {
+        List<BookingRequest> requests = requests(rooms.subList(0, 2));
+        requests.addAll(requests(rooms.subList(0, 1)));
+
+        assertThrows(IllegalStateException.class, () -> bookingService.createBookings(user.getId(), requests));
+        assertEquals(0, bookingRepository.count());
+    }
+
+    private int statementsFor(List<BookingRequest> requests) {
+        STATEMENTS.set(0);
+        bookingService.createBookings(user.getId(), requests);
+        return STATEMENTS.get();
+    }
+
+    private List<BookingRequest> requests(List<Room> group) {
+        List<BookingRequest> requests = new ArrayList<>();
+        for (Room room : group) {
+            BookingRequest request = new BookingRequest();
+            request.setHotelId(hotel.getId());
+            request.setRoomId(room.getId());
+            request.setCheckIn(checkIn);
+            request.setCheckOut(checkOut);
+            request.setGuests(2);
+            requests.add(request);
+        }
+        return requests;
+    }
+}
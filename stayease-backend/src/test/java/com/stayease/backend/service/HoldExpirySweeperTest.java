@@ -0,0 +1,129 @@
+package com.stayease.backend.service;
+
+import com.stayease.backend.model.*;
+import com.stayease.backend.repository.BookingRepository;
+import com.stayease.backend.repository.HotelRepository;
+import com.stayease.backend.repository.RoomRepository;
+import com.stayease.backend.repository.UserRepository;
+import com.stayease.backend.service.impl.HoldExpirySweeper;
+import com.stayease.backend.service.impl.RoomAvailabilityIndex;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({HoldExpirySweeper.class, RoomAvailabilityIndex.class})
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:holdexpiry;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "stayease.booking.holdMinutes=15"
+})
+class HoldExpirySweeperTest {
+
+    @Autowired private HoldExpirySweeper sweeper;
+    @Autowired private RoomAvailabilityIndex index;
+    @Autowired private BookingRepository bookingRepository;
+    @Autowired private RoomRepository roomRepository;
+    @Autowired private HotelRepository hotelRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private EntityManager entityManager;
+
+    private final LocalDate checkIn = LocalDate.now().plusDays(3);
+    private final LocalDate checkOut = checkIn.plusDays(2);
+    private User user;
+    private Hotel hotel;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("guest");
+        user.setEmail("guest@example.com");
+        user.setPassword("password");
+        user.setRole(Role.USER);
+        user = userRepository.save(user);
+
+        hotel = new Hotel();
+        hotel.setName("Hold Hotel");
+        hotel.setAddress("1 Station Road");
+        hotel.setCity("Goa");
+        hotel = hotelRepository.save(hotel);
+        index.rebuild();
+    }
+
+    @Test
+    void testSweepReleasesOnlyLapsedHolds() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking lapsed = booking("101", BookingStatus.PENDING, now.minusMinutes(1));
+        Booking held = booking("102", BookingStatus.PENDING, now.plusMinutes(10));
+        Booking confirmed = booking("103", BookingStatus.CONFIRMED, now.minusHours(1));
+        Booking legacy = booking("104", BookingStatus.PENDING, null);
+        index.onBookingChanged(lapsed, null); // marked while its hold was still live
+        Long lapsedRoomId = lapsed.getRoom().getId();
+
+        assertEquals(1, sweeper.sweep());
+
+        assertEquals(BookingStatus.EXPIRED, bookingRepository.findById(lapsed.getId()).orElseThrow().getStatus());
+        assertEquals(BookingStatus.PENDING, bookingRepository.findById(held.getId()).orElseThrow().getStatus());
+        assertEquals(BookingStatus.CONFIRMED, bookingRepository.findById(confirmed.getId()).orElseThrow().getStatus());
+        Booking backfilled = bookingRepository.findById(legacy.getId()).orElseThrow();
+        assertEquals(BookingStatus.PENDING, backfilled.getStatus());
+        assertTrue(backfilled.getHoldExpiresAt().isAfter(now.plusMinutes(14)));
+        assertTrue(index.isAvailable(lapsedRoomId, checkIn, checkOut));
+    }
+
+    @Test
+    void testSweepCostDoesNotGrowWithExpiredRows() {
+        LocalDateTime lapsedAt = LocalDateTime.now().minusMinutes(1);
+        for (int i = 0; i < 30; i++) {
+            booking("2" + i, BookingStatus.PENDING, lapsedAt);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics stats = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        assertEquals(30, sweeper.sweep());
+
+        // backfill, locked lookup of lapsed rows and one UPDATE, plus one reload per affected room for the index
+        assertEquals(3 + 30, stats.getPrepareStatementCount());
+        assertEquals(0, stats.getEntityUpdateCount());
+    }
+
+    private Booking booking(String roomNumber, BookingStatus status, LocalDateTime holdExpiresAt) {
+        Room room = new Room();
+        room.setRoomNumber(roomNumber);
+        room.setType("Deluxe");
+        room.setPricePerNight(100.0);
+        room.setCapacity(2);
+        room.setAvailable(true);
+        room.setHotel(hotel);
+        room = roomRepository.save(room);
+
+        Booking booking = new Booking();
+        booking.setUser(user);
+        booking.setHotel(hotel);
+        booking.setRoom(room);
+        booking.setCheckIn(checkIn);
+        booking.setCheckOut(checkOut);
+        booking.setStatus(status);
+        booking.setHoldExpiresAt(holdExpiresAt);
+        return bookingRepository.save(booking);
+    }
+}
@@ -0,0 +1,122 @@
+package com.stayease.backend.service;
+
+import com.stayease.backend.dto.HotelResponseDTO;
+import com.stayease.backend.model.Hotel;
+import com.stayease.backend.model.Room;
+import com.stayease.backend.repository.HotelRepository;
+import com.stayease.backend.repository.RoomRepository;
+import com.stayease.backend.service.impl.HotelReadServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(HotelReadServiceImpl.class)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.defer-datasource-initialization=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class HotelReadServiceImplTest {
+
+    @Autowired
+    private HotelReadService hotelReadService;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void testStatementCountDoesNotGrowWithCatalog() {
+        seed(0, 3);
+        long small = statementsToMapAll(3);
+
+        seed(3, 30);
+        long large = statementsToMapAll(30);
+
+        // amenities, images, rooms, room features, room images: one query each
+        assertThat(small).isEqualTo(5);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void testMapsCollectionsOntoTheRightOwners() {
+        seed(0, 2);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<HotelResponseDTO> dtos = hotelReadService.toHotelDTOs(hotelRepository.findAll(), true);
+
+        assertThat(dtos).hasSize(2);
+        HotelResponseDTO first = dtos.get(0);
+        assertThat(first.getAmenities()).containsExactlyInAnyOrder("WiFi 0", "Pool 0");
+        assertThat(first.getImages()).containsExactly("hotel-0.jpg");
+        assertThat(first.getRooms()).hasSize(3);
+        assertThat(first.getRooms()).allSatisfy(room -> {
+            assertThat(room.getHotelId()).isEqualTo(first.getId());
+            assertThat(room.getFeatures()).hasSize(2);
+            assertThat(room.getImages()).isEmpty();
+        });
+        assertThat(dtos.get(1).getAmenities()).containsExactlyInAnyOrder("WiFi 1", "Pool 1");
+
+        // catalog mode leaves rooms out and does not query them
+        assertThat(hotelReadService.toHotelDTOs(hotelRepository.findAll(), false))
+                .allSatisfy(dto -> assertThat(dto.getRooms()).isNull());
+    }
+
+    private long statementsToMapAll(int expectedHotels) {
+        entityManager.flush();
+        entityManager.clear();
+        List<Hotel> hotels = hotelRepository.findAll();
+
+        Statistics stats = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        List<HotelResponseDTO> dtos = hotelReadService.toHotelDTOs(hotels, true);
+
+        assertThat(dtos).hasSize(expectedHotels);
+        assertThat(dtos).allSatisfy(dto -> assertThat(dto.getRooms()).hasSize(3));
+        return stats.getPrepareStatementCount();
+    }
+
+    private void seed(int from, int to) {
+        for (int i = from; i < to; i++) {
+            Hotel hotel = new Hotel();
+            hotel.setName("Hotel " + i);
+            hotel.setAddress("Road " + i);
+            hotel.setCity("Patna");
+            hotel.setRating(4.0);
+            hotel.setAmenities(List.of("WiFi " + i, "Pool " + i));
+            hotel.setImages(List.of("hotel-" + i + ".jpg"));
+            hotelRepository.save(hotel);
+
+            for (int r = 0; r < 3; r++) {
+                Room room = new Room();
+                room.setRoomNumber(i + "0" + r);
+                room.setType("Deluxe");
+                room.setPricePerNight(2000.0 + r);
+                room.setFeatures(List.of("AC", "TV"));
+                room.setHotel(hotel);
+                roomRepository.save(room);
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.stayease.backend.service;
+
+import com.stayease.backend.model.Hotel;
+import com.stayease.backend.repository.HotelRepository;
+import com.stayease.backend.service.impl.HotelSearchCache;
+import com.stayease.backend.service.impl.HotelSearchCache.SearchKey;
+import com.stayease.backend.service.impl.LocationSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class HotelSearchCacheTest {
+
+    @Mock
+    private HotelRepository hotelRepository;
+
+    private LocationSearchIndex index;
+    private HotelSearchCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(hotelRepository.findAll()).thenReturn(List.of(
+                hotel(1L, "Patna"), hotel(2L, "Goa"), hotel(3L, "Delhi")));
+        index = new LocationSearchIndex(hotelRepository, 0.3);
+        index.rebuild();
+        cache = new HotelSearchCache(index, 1000, 10);
+    }
+
+    @Test
+    void testNormalizedParamsShareAnEntry() {
+        assertEquals(List.of(1L), search("Patna", null));
+        assertEquals(List.of(1L), search("  PATNA ", null));
+        assertEquals(List.of(1L), search("patna!", null));
+
+        assertEquals(1, loads.get());
+        assertEquals(2L, cache.metrics().get("hits"));
+        assertEquals(1L, cache.metrics().get("misses"));
+    }
+
+    @Test
+    void testHotelChangeEvictsOnlyAffectedEntries() {
+        search("patna", null);
+        search("goa", null);
+        search("delhi", null);
+
+        // a new hotel in Goa can only change the Goa results
+        index.put(hotel(4L, "Goa"));
+        cache.onHotelChanged(4L);
+        search("patna", null);
+        search("delhi", null);
+        assertEquals(3, loads.get());
+        search("goa", null);
+        assertEquals(4, loads.get());
+
+        // moving hotel 1 out of Patna evicts the entry that contained it
+        index.put(hotel(1L, "Gaya"));
+        cache.onHotelChanged(1L);
+        assertTrue(search("patna", null).isEmpty());
+        assertEquals(5, loads.get());
+        assertEquals(2L, cache.metrics().get("invalidations"));
+    }
+
+    @Test
+    void testRoomChangeEvictsOnlyPriceFilteredEntries() {
+        search("patna", null);
+        search("patna", 5000.0);
+        search("goa", 5000.0);
+
+        cache.onRoomsChanged(1L);
+        search("patna", null);
+        search("goa", 5000.0);
+        assertEquals(3, loads.get());
+
+        search("patna", 5000.0);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void testLoadRacingAnInvalidationIsNotStored() {
+        SearchKey key = SearchKey.of("patna", null, null, null);
+        cache.get(key, () -> {
+            cache.onHotelChanged(1L);
+            return List.of(1L);
+        });
+        assertEquals(0L, cache.metrics().get("entries"));
+    }
+
+    private List<Long> search(String location, Double maxPrice) {
+        return cache.get(SearchKey.of(location, null, maxPrice, null), () -> {
+            loads.incrementAndGet();
+            return index.search(location);
+        });
+    }
+
+    private Hotel hotel(Long id, String city) {
+        Hotel hotel = new Hotel();
+        hotel.setId(id);
+        hotel.setName("Hotel " + id);
+        hotel.setAddress("Main Road");
+        hotel.setCity(city);
+        hotel.setRating(4.0);
+        return hotel;
+    }
+}
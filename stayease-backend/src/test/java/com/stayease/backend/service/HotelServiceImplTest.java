@@ -3,12 +3,15 @@ package com.stayease.backend.service;
 
 import com.stayease.backend.model.Hotel;
 import com.stayease.backend.repository.HotelRepository;
+import com.stayease.backend.service.impl.HotelSearchCache;
 import com.stayease.backend.service.impl.HotelServiceImpl;
+import com.stayease.backend.service.impl.LocationSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -18,12 +21,20 @@ class HotelServiceImplTest {
     @Mock
     private HotelRepository hotelRepository;
 
+    @Mock
+    private LocationSearchIndex locationIndex;
+
+    @Mock
+    private HotelSearchCache searchCache;
+
     @InjectMocks
     private HotelServiceImpl hotelService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // cache always misses so the tests see the underlying queries
+        when(searchCache.get(any(), any())).thenAnswer(inv -> inv.<Supplier<List<Long>>>getArgument(1).get());
     }
 
     // ✅ Create
@@ -37,6 +48,7 @@ class HotelServiceImplTest {
         Hotel result = hotelService.create(hotel);
 
         assertEquals("Test Hotel", result.getName());
+        verify(locationIndex).put(hotel);
     }
 
     // ✅ Get all
@@ -62,4 +74,51 @@ class HotelServiceImplTest {
 
         assertEquals(5L, found.getId());
     }
+
+    // ✅ Search keeps the index ranking
+    @Test
+    void testSearchByLocation_UsesIndexOrder() {
+        Hotel first = new Hotel();
+        first.setId(7L);
+        Hotel second = new Hotel();
+        second.setId(3L);
+
+        when(locationIndex.isReady()).thenReturn(true);
+        when(locationIndex.search("patna")).thenReturn(List.of(7L, 3L));
+        when(hotelRepository.findAllById(List.of(7L, 3L))).thenReturn(List.of(second, first));
+
+        List<Hotel> result = hotelService.searchByLocation("patna");
+
+        assertEquals(List.of(7L, 3L), result.stream().map(Hotel::getId).toList());
+        verify(hotelRepository, never()).findByAddressContainingIgnoreCaseOrCityContainingIgnoreCase(any(), any());
+    }
+
+    // ✅ Falls back to LIKE before the index is built
+    @Test
+    void testSearchByLocation_FallsBackBeforeIndexIsReady() {
+        when(locationIndex.isReady()).thenReturn(false);
+        when(hotelRepository.findByAddressContainingIgnoreCaseOrCityContainingIgnoreCase("Delhi", "Delhi"))
+                .thenReturn(List.of(new Hotel()));
+
+        assertEquals(1, hotelService.searchByLocation("Delhi").size());
+    }
+
+    // ✅ Price and rating filtering is one repository query, no per-hotel room lookups
+    @Test
+    void testSearchHotels_FiltersInOneQuery() {
+        Hotel cheap = new Hotel();
+        cheap.setId(1L);
+        Hotel cheaper = new Hotel();
+        cheaper.setId(2L);
+
+        when(locationIndex.isReady()).thenReturn(true);
+        when(locationIndex.search("patna")).thenReturn(List.of(2L, 9L, 1L));
+        when(hotelRepository.filterByPriceAndRating(List.of(2L, 9L, 1L), null, 3000.0, 4.0))
+                .thenReturn(List.of(cheap, cheaper));
+
+        List<Hotel> result = hotelService.searchHotels("patna", null, 3000.0, 4.0);
+
+        assertEquals(List.of(2L, 1L), result.stream().map(Hotel::getId).toList());
+        verify(hotelRepository, never()).findAllById(any());
+    }
 }
@@ -0,0 +1,101 @@
+package com.stayease.backend.service;
+
+import com.stayease.backend.repository.IdempotencyRecordRepository;
+import com.stayease.backend.service.impl.IdempotencyStore;
+import com.stayease.backend.service.impl.IdempotencyStore.Outcome;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not transactional: the store relies on each insert committing so the unique key can guard it
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idempotency;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class IdempotencyStoreTest {
+
+    private static final String KEY = "user:1 POST /api/bookings abc-123";
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(repository, 24, 5, 120, 100);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void testRetryReplaysStoredResponse() {
+        assertEquals(Outcome.EXECUTE, store.begin(KEY, "fp").outcome());
+        store.complete(KEY, "fp", 200, "application/json", "{\"id\":7}");
+
+        IdempotencyStore.Claim retry = store.begin(KEY, "fp");
+
+        assertEquals(Outcome.REPLAY, retry.outcome());
+        assertEquals("{\"id\":7}", retry.response().body());
+        assertEquals(Outcome.MISMATCH, store.begin(KEY, "other").outcome());
+    }
+
+    @Test
+    void testConcurrentDuplicateWaitsForTheFirst() throws Exception {
+        assertEquals(Outcome.EXECUTE, store.begin(KEY, "fp").outcome());
+
+        CompletableFuture<IdempotencyStore.Claim> duplicate = CompletableFuture.supplyAsync(() -> store.begin(KEY, "fp"));
+        Thread.sleep(200);
+        assertFalse(duplicate.isDone());
+
+        store.complete(KEY, "fp", 200, "application/json", "{\"id\":8}");
+
+        IdempotencyStore.Claim claim = duplicate.get(5, TimeUnit.SECONDS);
+        assertEquals(Outcome.REPLAY, claim.outcome());
+        assertEquals("{\"id\":8}", claim.response().body());
+    }
+
+    @Test
+    void testStoredResponseSurvivesRestartAndOtherNodesSeeInFlightKeys() {
+        IdempotencyStore otherNode = new IdempotencyStore(repository, 24, 1, 120, 100);
+
+        assertEquals(Outcome.EXECUTE, store.begin(KEY, "fp").outcome());
+        assertEquals(Outcome.IN_PROGRESS, otherNode.begin(KEY, "fp").outcome());
+
+        store.complete(KEY, "fp", 201, "application/json", "{\"id\":9}");
+        IdempotencyStore restarted = new IdempotencyStore(repository, 24, 1, 120, 100);
+
+        IdempotencyStore.Claim claim = restarted.begin(KEY, "fp");
+        assertEquals(Outcome.REPLAY, claim.outcome());
+        assertEquals(201, claim.response().status());
+    }
+
+    @Test
+    void testAbandonedKeyRunsAgain() {
+        assertEquals(Outcome.EXECUTE, store.begin(KEY, "fp").outcome());
+        store.abandon(KEY);
+
+        assertEquals(Outcome.EXECUTE, store.begin(KEY, "fp").outcome());
+        assertEquals(1, repository.count());
+    }
+}
@@ -0,0 +1,87 @@
+package com.stayease.backend.service;
+
+import com.stayease.backend.model.Hotel;
+import com.stayease.backend.repository.HotelRepository;
+import com.stayease.backend.service.impl.LocationSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LocationSearchIndexTest {
+
+    @Mock
+    private HotelRepository hotelRepository;
+
+    private LocationSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        index = new LocationSearchIndex(hotelRepository, 0.3);
+        when(hotelRepository.findAll()).thenReturn(List.of(
+                hotel(1L, "Boring Road", "Patna", "Bihar", "800001", 4.0),
+                hotel(2L, "Connaught Place", "New Delhi", "Delhi", "110001", 4.5),
+                hotel(3L, "Patna Road", "Gaya", "Bihar", "823001", 4.8),
+                hotel(4L, "Fraser Road", "Patna", "Bihar", "800001", 4.6),
+                hotel(5L, "Calangute Beach", "Goa", "Goa", "403516", 4.2)));
+        index.rebuild();
+    }
+
+    @Test
+    void testCityMatchRanksAboveAddressMatch() {
+        // both Patna hotels first (better rating wins the tie), the Patna Road one after
+        assertEquals(List.of(4L, 1L, 3L), index.search("patna"));
+    }
+
+    @Test
+    void testToleratesTypos() {
+        assertEquals(List.of(4L, 1L, 3L), index.search("Ptna"));
+        assertEquals(List.of(2L), index.search("dehli"));
+    }
+
+    @Test
+    void testMatchesStatePincodeAndPartialWords() {
+        assertEquals(List.of(4L, 1L), index.search("800001"));
+        assertTrue(index.search("bihar").containsAll(List.of(1L, 3L, 4L)));
+        assertEquals(List.of(5L), index.search("calang"));
+        assertEquals(List.of(2L), index.search("Connaught Place, Delhi"));
+    }
+
+    @Test
+    void testUnrelatedQueryReturnsNothing() {
+        assertTrue(index.search("mumbai").isEmpty());
+        assertTrue(index.search("  ").isEmpty());
+    }
+
+    @Test
+    void testIncrementalUpdates() {
+        index.put(hotel(6L, "Marine Drive", "Mumbai", "Maharashtra", "400020", 4.9));
+        assertEquals(List.of(6L), index.search("mumbai"));
+
+        // moving a hotel drops its old trigrams
+        index.put(hotel(6L, "MG Road", "Pune", "Maharashtra", "411001", 4.9));
+        assertTrue(index.search("mumbai").isEmpty());
+        assertEquals(List.of(6L), index.search("pune"));
+
+        index.remove(6L);
+        assertTrue(index.search("pune").isEmpty());
+    }
+
+    private Hotel hotel(Long id, String address, String city, String state, String pincode, Double rating) {
+        Hotel hotel = new Hotel();
+        hotel.setId(id);
+        hotel.setName("Hotel " + id);
+        hotel.setAddress(address);
+        hotel.setCity(city);
+        hotel.setState(state);
+        hotel.setPincode(pincode);
+        hotel.setRating(rating);
+        return hotel;
+    }
+}
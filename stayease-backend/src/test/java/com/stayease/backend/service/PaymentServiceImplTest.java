@@ -4,6 +4,7 @@ import com.stayease.backend.model.*;
 import com.stayease.backend.repository.BookingRepository;
 import com.stayease.backend.repository.PaymentRepository;
 import com.stayease.backend.service.impl.PaymentServiceImpl;
+import com.stayease.backend.service.impl.RoomAvailabilityIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -25,6 +26,9 @@ class PaymentServiceImplTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private RoomAvailabilityIndex availabilityIndex;
+
     @InjectMocks
     private PaymentServiceImpl paymentService;
 
@@ -0,0 +1,205 @@
+package com.stayease.backend.service;
+
+import com.stayease.backend.dto.BookedStayDTO;
+import com.stayease.backend.model.Booking;
+import com.stayease.backend.model.BookingStatus;
+import com.stayease.backend.model.Room;
+import com.stayease.backend.repository.BookingRepository;
+import com.stayease.backend.service.impl.RoomAvailabilityIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RoomAvailabilityIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private RoomAvailabilityIndex index;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        index = new RoomAvailabilityIndex(bookingRepository, 365);
+    }
+
+    @Test
+    void testNotCoveredBeforeBuild() {
+        assertFalse(index.covers(today.plusDays(1), today.plusDays(3)));
+    }
+
+    @Test
+    void testRebuildMarksConfirmedNights() {
+        // room 10 taken for nights +5, +6, +7
+        when(bookingRepository.findBookedStays(anyCollection(), any(LocalDate.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(new BookedStayDTO(10L, today.plusDays(5), today.plusDays(8))));
+
+        index.rebuild();
+
+        assertTrue(index.covers(today.plusDays(1), today.plusDays(3)));
+        assertTrue(index.isAvailable(10L, today.plusDays(1), today.plusDays(5)));   // checks out the day they arrive
+        assertFalse(index.isAvailable(10L, today.plusDays(4), today.plusDays(6)));
+        assertFalse(index.isAvailable(10L, today.plusDays(7), today.plusDays(9)));
+        assertTrue(index.isAvailable(10L, today.plusDays(8), today.plusDays(10)));  // arrives the day they leave
+        assertTrue(index.isAvailable(11L, today.plusDays(5), today.plusDays(8)));   // unknown room is free
+    }
+
+    @Test
+    void testStayAcrossWordBoundary() {
+        when(bookingRepository.findBookedStays(anyCollection(), any(LocalDate.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(new BookedStayDTO(10L, today.plusDays(60), today.plusDays(140))));
+
+        index.rebuild();
+
+        assertTrue(index.isAvailable(10L, today.plusDays(1), today.plusDays(60)));
+        assertFalse(index.isAvailable(10L, today.plusDays(100), today.plusDays(101)));
+        assertFalse(index.isAvailable(10L, today.plusDays(139), today.plusDays(200)));
+        assertTrue(index.isAvailable(10L, today.plusDays(140), today.plusDays(300)));
+    }
+
+    @Test
+    void testStayBeyondHorizonIsNotCovered() {
+        index.rebuild();
+
+        assertTrue(index.covers(today, today.plusDays(365)));
+        assertFalse(index.covers(today, today.plusDays(366)));
+        assertFalse(index.covers(today.minusDays(1), today.plusDays(2)));
+    }
+
+    @Test
+    void testConfirmMarksAndCancelReloadsRoom() {
+        index.rebuild();
+
+        Room room = new Room();
+        room.setId(10L);
+        Booking booking = new Booking();
+        booking.setRoom(room);
+        booking.setCheckIn(today.plusDays(2));
+        booking.setCheckOut(today.plusDays(4));
+        booking.setStatus(BookingStatus.CONFIRMED);
+
+        index.onBookingChanged(booking, BookingStatus.PENDING);
+        assertFalse(index.isAvailable(10L, today.plusDays(3), today.plusDays(5)));
+        verify(bookingRepository, never()).findBookedStaysForRoom(anyLong(), anyCollection(), any(), any());
+
+        when(bookingRepository.findBookedStaysForRoom(eq(10L), anyCollection(), any(LocalDate.class), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        booking.setStatus(BookingStatus.CANCELLED);
+        index.onBookingChanged(booking, BookingStatus.CONFIRMED);
+
+        assertTrue(index.isAvailable(10L, today.plusDays(3), today.plusDays(5)));
+    }
+
+    @Test
+    void testPendingBookingBlocksWhileHeld() {
+        index.rebuild();
+
+        Room room = new Room();
+        room.setId(10L);
+        Booking booking = new Booking();
+        booking.setRoom(room);
+        booking.setCheckIn(today.plusDays(2));
+        booking.setCheckOut(today.plusDays(4));
+        booking.setStatus(BookingStatus.PENDING);
+
+        index.onBookingChanged(booking, null);
+
+        assertFalse(index.isAvailable(10L, today.plusDays(2), today.plusDays(4)));
+    }
+
+    @Test
+    void testDayChangeLoadsStaysBookedBeyondTheOldHorizon() {
+        MovableClock clock = new MovableClock(today);
+        RoomAvailabilityIndex shortIndex = new RoomAvailabilityIndex(bookingRepository, 30, clock);
+        // booked for nights +31 and +32, past the 30-night horizon when the index was built
+        BookedStayDTO farStay = new BookedStayDTO(10L, today.plusDays(31), today.plusDays(33));
+        when(bookingRepository.findBookedStays(anyCollection(), any(LocalDate.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(farStay));
+        when(bookingRepository.findBookedStaysBetween(anyCollection(), any(LocalDate.class), any(LocalDate.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(farStay));
+        shortIndex.rebuild();
+        assertFalse(shortIndex.covers(today.plusDays(31), today.plusDays(33)));
+
+        clock.advanceDays(5);
+
+        assertTrue(shortIndex.covers(today.plusDays(31), today.plusDays(33)));
+        assertFalse(shortIndex.isAvailable(10L, today.plusDays(32), today.plusDays(34)));
+        assertTrue(shortIndex.isAvailable(10L, today.plusDays(33), today.plusDays(35)));
+        // only the five nights that entered the horizon are read
+        verify(bookingRepository).findBookedStaysBetween(anyCollection(), eq(today.plusDays(30)), eq(today.plusDays(35)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testRefreshReadsOutsideTheLockAndRetriesWhenTheRoomChanged() {
+        index.rebuild();
+        Room room = new Room();
+        room.setId(10L);
+        Booking booking = new Booking();
+        booking.setRoom(room);
+        booking.setCheckIn(today.plusDays(2));
+        booking.setCheckOut(today.plusDays(4));
+        booking.setStatus(BookingStatus.CONFIRMED);
+
+        AtomicInteger reads = new AtomicInteger();
+        when(bookingRepository.findBookedStaysForRoom(eq(10L), anyCollection(), any(LocalDate.class), any(LocalDateTime.class)))
+                .thenAnswer(call -> {
+                    if (reads.incrementAndGet() > 1) {
+                        return List.of(new BookedStayDTO(10L, today.plusDays(2), today.plusDays(4)));
+                    }
+                    // a booking lands from another thread while the first read is in flight
+                    Thread writer = new Thread(() -> index.onBookingChanged(booking, null));
+                    writer.start();
+                    writer.join(2000);
+                    assertFalse(writer.isAlive(), "the read must not hold the write lock");
+                    return List.of();
+                });
+
+        index.refreshRoom(10L);
+
+        assertEquals(2, reads.get());
+        assertFalse(index.isAvailable(10L, today.plusDays(2), today.plusDays(4)));
+    }
+
+    static class MovableClock extends Clock {
+        private Instant instant;
+
+        MovableClock(LocalDate day) {
+            this.instant = day.atTime(12, 0).toInstant(ZoneOffset.UTC);
+        }
+
+        void advanceDays(long days) {
+            instant = instant.plusSeconds(days * 86_400);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.stayease.backend.service;
 
+import com.stayease.backend.dto.HotelAvailabilityDTO;
 import com.stayease.backend.model.*;
 import com.stayease.backend.repository.BookingRepository;
 import com.stayease.backend.repository.RoomRepository;
+import com.stayease.backend.service.impl.RoomAvailabilityIndex;
 import com.stayease.backend.service.impl.SearchServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,9 +13,11 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 class SearchServiceImplTest {
@@ -24,6 +28,12 @@ class SearchServiceImplTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private HotelService hotelService;
+
+    @Mock
+    private RoomAvailabilityIndex availabilityIndex;
+
     @InjectMocks
     private SearchServiceImpl searchService;
 
@@ -39,15 +49,9 @@ class SearchServiceImplTest {
         Room room = new Room();
         room.setId(10L);
 
-        // Mock rooms for hotel
-        when(roomRepository.findByHotelId(hotelId)).thenReturn(List.of(room));
-
-        // Mock no overlapping bookings
-        when(bookingRepository.findByRoomIdAndCheckInLessThanEqualAndCheckOutGreaterThanEqual(
-                eq(10L),
-                any(LocalDate.class),
-                any(LocalDate.class)
-        )).thenReturn(List.of());
+        // Mock the anti-join: no overlapping bookings for the room
+        when(roomRepository.findAvailableRooms(eq(hotelId), any(LocalDate.class), any(LocalDate.class), eq(BookingStatus.BLOCKING), any(LocalDateTime.class)))
+                .thenReturn(List.of(room));
 
         List<Room> result = searchService.findAvailableRooms(
                 hotelId,
@@ -66,17 +70,11 @@ class SearchServiceImplTest {
         Room room = new Room();
         room.setId(10L);
 
-        Booking booking = new Booking();
-        booking.setRoom(room);
-        booking.setStatus(BookingStatus.CONFIRMED);
-
         when(roomRepository.findByHotelId(hotelId)).thenReturn(List.of(room));
 
-        when(bookingRepository.findByRoomIdAndCheckInLessThanEqualAndCheckOutGreaterThanEqual(
-                eq(10L),
-                any(LocalDate.class),
-                any(LocalDate.class)
-        )).thenReturn(List.of(booking));
+        // the confirmed overlap is filtered out in the database
+        when(roomRepository.findAvailableRooms(eq(hotelId), any(LocalDate.class), any(LocalDate.class), eq(BookingStatus.BLOCKING), any(LocalDateTime.class)))
+                .thenReturn(List.of());
 
         List<Room> result = searchService.findAvailableRooms(
                 hotelId,
@@ -85,5 +83,81 @@ class SearchServiceImplTest {
         );
 
         assertThat(result).isEmpty();
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void testFindAvailableRooms_FromIndex() {
+        Long hotelId = 1L;
+        LocalDate checkIn = LocalDate.now();
+        LocalDate checkOut = LocalDate.now().plusDays(2);
+
+        Room free = new Room();
+        free.setId(10L);
+        Room taken = new Room();
+        taken.setId(11L);
+
+        when(roomRepository.findByHotelId(hotelId)).thenReturn(List.of(free, taken));
+        when(availabilityIndex.covers(checkIn, checkOut)).thenReturn(true);
+        when(availabilityIndex.isAvailable(10L, checkIn, checkOut)).thenReturn(true);
+        when(availabilityIndex.isAvailable(11L, checkIn, checkOut)).thenReturn(false);
+
+        List<Room> result = searchService.findAvailableRooms(hotelId, checkIn, checkOut);
+
+        assertThat(result).extracting(Room::getId).containsExactly(10L);
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void testSearchAvailability_GroupsRoomTypesPerHotel() {
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        LocalDate checkOut = checkIn.plusDays(2);
+
+        Hotel patna = new Hotel();
+        patna.setId(1L);
+        patna.setName("Grand Palace Hotel");
+        Hotel full = new Hotel();
+        full.setId(2L);
+        full.setName("Mountain Paradise");
+        full.setMaxCapacity(1);
+
+        when(hotelService.searchByLocation("Patna")).thenReturn(List.of(patna, full));
+        when(availabilityIndex.covers(checkIn, checkOut)).thenReturn(true);
+        when(availabilityIndex.isAvailable(anyLong(), eq(checkIn), eq(checkOut))).thenReturn(true);
+        when(roomRepository.findByHotelId(1L)).thenReturn(List.of(
+                room(10L, "Deluxe", 3000.0, 2),
+                room(11L, "Deluxe", 2500.0, 2),
+                room(12L, "Suite", 6000.0, 4),
+                room(13L, "Single", 1000.0, 1)));
+
+        List<HotelAvailabilityDTO> result = searchService.searchAvailability("Patna", checkIn, checkOut, 2);
+
+        // hotel 2 only has single rooms, too small for two guests, so it is never queried
+        assertThat(result).hasSize(1);
+        verify(roomRepository, never()).findByHotelId(2L);
+        HotelAvailabilityDTO dto = result.get(0);
+        assertThat(dto.getHotelId()).isEqualTo(1L);
+        assertThat(dto.getLowestPrice()).isEqualTo(2500.0);
+        assertThat(dto.getAvailableRooms()).isEqualTo(3);
+        assertThat(dto.getRoomTypes()).extracting("type").containsExactly("Deluxe", "Suite");
+        assertThat(dto.getRoomTypes().get(0).getAvailableRooms()).isEqualTo(2);
+    }
+
+    @Test
+    void testSearchAvailability_InvalidDates() {
+        LocalDate day = LocalDate.now();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> searchService.searchAvailability("Patna", day, day, 1));
+        verifyNoInteractions(hotelService);
+    }
+
+    private Room room(Long id, String type, double price, int capacity) {
+        Room room = new Room();
+        room.setId(id);
+        room.setType(type);
+        room.setPricePerNight(price);
+        room.setCapacity(capacity);
+        return room;
     }
 }
@@ -0,0 +1,94 @@
+package com.stayease.backend.service;
+
+import com.stayease.backend.model.Role;
+import com.stayease.backend.model.User;
+import com.stayease.backend.repository.UserRepository;
+import com.stayease.backend.service.impl.UserCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not transactional: invalidation happens after commit, so each repository call has to commit
+@DataJpaTest
+@Import(UserCache.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:usercache;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class UserCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testRepeatedLookupsHitTheCache() {
+        userRepository.save(user("john", Role.USER));
+        long hits = (long) userCache.metrics().get("hits");
+
+        assertEquals("john", userCache.findByUsername("john").orElseThrow().getUsername());
+        assertEquals("john", userCache.findByUsername("john").orElseThrow().getUsername());
+
+        assertEquals(hits + 1, (long) userCache.metrics().get("hits"));
+    }
+
+    @Test
+    void testRoleChangeAndDeleteInvalidate() {
+        User saved = userRepository.save(user("maya", Role.USER));
+        assertEquals(Role.USER, userCache.findByUsername("maya").orElseThrow().getRole());
+
+        saved.setRole(Role.ADMIN);
+        userRepository.save(saved);
+        assertEquals(Role.ADMIN, userCache.findByUsername("maya").orElseThrow().getRole());
+
+        userRepository.deleteById(saved.getId());
+        assertTrue(userCache.findByUsername("maya").isEmpty());
+    }
+
+    @Test
+    void testCachedMissIsDroppedOnRegister() {
+        assertTrue(userCache.findByUsername("newbie").isEmpty());
+
+        userRepository.save(user("newbie", Role.USER));
+
+        assertTrue(userCache.findByUsername("newbie").isPresent());
+    }
+
+    @Test
+    void testCallersCannotModifyCachedUser() {
+        userRepository.save(user("ravi", Role.USER));
+
+        userCache.findByUsername("ravi").orElseThrow().setRole(Role.ADMIN);
+
+        assertEquals(Role.USER, userCache.findByUsername("ravi").orElseThrow().getRole());
+    }
+
+    private static User user(String username, Role role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@test.com");
+        user.setPassword("secret");
+        user.setFullName(username);
+        user.setRole(role);
+        return user;
+    }
+}
@@ -35,6 +35,7 @@ export const AppProvider = ({ children }) => {
   const [selectedHotel, setSelectedHotel] = useState(null);
   const [myBookings, setMyBookings] = useState([]);
   const [featuredHotels, setFeaturedHotels] = useState([]);
+  const [hotelsCursor, setHotelsCursor] = useState(null);
 
   // Auth Functions
   const login = async (username, password) => {
@@ -138,10 +139,11 @@ export const AppProvider = ({ children }) => {
     console.log("📡 Fetching hotels...");
     const res = await axios.get("/hotels");
     
-    // Ensure hotels is always an array
-    const hotelsData = Array.isArray(res.data) ? res.data : [];
+    // The catalog is paginated: { hotels, hasMore, nextCursor }
+    const hotelsData = Array.isArray(res.data?.hotels) ? res.data.hotels : [];
     
     setHotels(hotelsData);
+    setHotelsCursor(res.data?.hasMore ? res.data.nextCursor : null);
     console.log("✅ Hotels fetched:", hotelsData.length);
     
     // Set featured hotels (first 3) - ensure it's an array
@@ -152,10 +154,21 @@ export const AppProvider = ({ children }) => {
     // Set empty arrays on error
     setHotels([]);
     setFeaturedHotels([]);
+    setHotelsCursor(null);
     throw err;
   }
 };
 
+  // Next catalog page, appended to the hotels already shown
+  const fetchMoreHotels = async () => {
+    if (!hotelsCursor) return [];
+    const res = await axios.get("/hotels", { params: { cursor: hotelsCursor } });
+    const more = Array.isArray(res.data?.hotels) ? res.data.hotels : [];
+    setHotels((prev) => [...prev, ...more]);
+    setHotelsCursor(res.data?.hasMore ? res.data.nextCursor : null);
+    return more;
+  };
+
   const fetchHotelById = async (id) => {
     try {
       const res = await axios.get(`/hotels/${id}`);
@@ -278,6 +291,8 @@ const createBooking = async (bookingData) => {
         hotels,
         featuredHotels,
         fetchHotels,
+        fetchMoreHotels,
+        hasMoreHotels: !!hotelsCursor,
         fetchHotelById,
         selectedHotel,
         selectHotel,
@@ -20,6 +20,10 @@ const Admin = () => {
   const [users, setUsers] = useState([]);
   const [hotels, setHotels] = useState([]);
   const [bookings, setBookings] = useState([]);
+  const [bookingsPage, setBookingsPage] = useState(0);
+  const [hasMoreBookings, setHasMoreBookings] = useState(false);
+  const [bookingStatusFilter, setBookingStatusFilter] = useState('');
+  const [loadingMoreBookings, setLoadingMoreBookings] = useState(false);
   const [recentActivity, setRecentActivity] = useState([]);
   const [loading, setLoading] = useState(true);
 
@@ -106,11 +110,20 @@ const Admin = () => {
     }
   };
 
-  const loadBookings = async () => {
+  // The listing is paged newest first: { bookings, page, hasNext }
+  const fetchBookingsPage = (page, status) => {
+    const params = { page };
+    if (status) params.status = status;
+    return axios.get('/admin/bookings', { params });
+  };
+
+  const loadBookings = async (status = bookingStatusFilter) => {
     try {
-      const response = await axios.get('/admin/bookings');
+      const response = await fetchBookingsPage(0, status);
       if (response.data.success) {
         setBookings(response.data.bookings);
+        setBookingsPage(0);
+        setHasMoreBookings(!!response.data.hasNext);
       }
     } catch (err) {
       console.error('Error loading bookings:', err);
@@ -118,6 +131,29 @@ const Admin = () => {
     }
   };
 
+  // Next page, appended to the bookings already shown
+  const loadMoreBookings = async () => {
+    setLoadingMoreBookings(true);
+    try {
+      const response = await fetchBookingsPage(bookingsPage + 1, bookingStatusFilter);
+      if (response.data.success) {
+        setBookings((prev) => [...prev, ...response.data.bookings]);
+        setBookingsPage(bookingsPage + 1);
+        setHasMoreBookings(!!response.data.hasNext);
+      }
+    } catch (err) {
+      console.error('Error loading more bookings:', err);
+      error('Failed to load more bookings');
+    } finally {
+      setLoadingMoreBookings(false);
+    }
+  };
+
+  const handleBookingStatusFilter = (status) => {
+    setBookingStatusFilter(status);
+    loadBookings(status);
+  };
+
   const loadHotelRooms = async (hotelId) => {
     try {
       const response = await axios.get(`/admin/hotels/${hotelId}/rooms`);
@@ -195,14 +231,16 @@ const Admin = () => {
     }
   };
 
-  const handleUpdateBookingStatus = async (bookingId, newStatus) => {
+  const handleUpdateBookingStatus = async (bookingId, newStatus, currentStatus) => {
     try {
-      await axios.put(`/admin/bookings/${bookingId}/status`, { status: newStatus });
+      // currentStatus lets the server refuse if someone else changed the booking meanwhile
+      await axios.put(`/admin/bookings/${bookingId}/status`, { status: newStatus, expectedStatus: currentStatus });
       success('Booking status updated successfully');
       loadBookings();
       loadDashboardData(); // Refresh stats
     } catch (err) {
-      error('Failed to update booking status');
+      error(err.response?.data?.message || 'Failed to update booking status');
+      loadBookings();
     }
   };
 
@@ -726,7 +764,23 @@ const Admin = () => {
               <div>
                 <div className="flex justify-between items-center mb-6">
                   <h3 className="text-lg font-semibold text-gray-900">Booking Management</h3>
-                  <span className="text-sm text-gray-600">{bookings.length} bookings found</span>
+                  <div className="flex items-center gap-4">
+                    <select
+                      value={bookingStatusFilter}
+                      onChange={(e) => handleBookingStatusFilter(e.target.value)}
+                      className="border border-gray-300 rounded-xl px-3 py-2 text-sm text-gray-700"
+                    >
+                      <option value="">All statuses</option>
+                      <option value="PENDING">Pending</option>
+                      <option value="CONFIRMED">Confirmed</option>
+                      <option value="CANCELLED">Cancelled</option>
+                      <option value="COMPLETED">Completed</option>
+                      <option value="EXPIRED">Expired</option>
+                    </select>
+                    <span className="text-sm text-gray-600">
+                      {bookings.length} bookings shown{hasMoreBookings ? ', more available' : ''}
+                    </span>
+                  </div>
                 </div>
                 
                 <div className="overflow-hidden border border-gray-200 rounded-2xl">
@@ -763,14 +817,14 @@ const Admin = () => {
                           <td className="px-6 py-4 whitespace-nowrap text-sm font-medium space-x-2">
                             {booking.status === 'PENDING' && (
                               <button
-                                onClick={() => handleUpdateBookingStatus(booking.id, 'CONFIRMED')}
+                                onClick={() => handleUpdateBookingStatus(booking.id, 'CONFIRMED', booking.status)}
                                 className="text-green-600 hover:text-green-900 transition duration-200 font-semibold"
                               >
                                 Confirm
                               </button>
                             )}
                             <button
-                              onClick={() => handleUpdateBookingStatus(booking.id, 'CANCELLED')}
+                              onClick={() => handleUpdateBookingStatus(booking.id, 'CANCELLED', booking.status)}
                               className="text-red-600 hover:text-red-900 transition duration-200 font-semibold"
                             >
                               Cancel
@@ -781,6 +835,19 @@ const Admin = () => {
                     </tbody>
                   </table>
                 </div>
+
+                {/* Next page of bookings */}
+                {hasMoreBookings && (
+                  <div className="text-center mt-6">
+                    <button
+                      onClick={loadMoreBookings}
+                      disabled={loadingMoreBookings}
+                      className="bg-white border-2 border-blue-600 text-blue-600 px-8 py-3 rounded-xl font-semibold hover:bg-blue-50 transition duration-200 disabled:opacity-50"
+                    >
+                      {loadingMoreBookings ? 'Loading...' : 'Load more bookings'}
+                    </button>
+                  </div>
+                )}
               </div>
             )}
 
@@ -5,11 +5,15 @@ import SearchBar from '../../components/SearchBar';
 import { useNavigate } from 'react-router-dom';
 
 const HotelList = () => {
-  const { hotels, featuredHotels, fetchHotels, selectHotel } = useApp();
+  const { hotels, featuredHotels, fetchHotels, fetchMoreHotels, hasMoreHotels, searchHotels, selectHotel } = useApp();
   const navigate = useNavigate();
   
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [filteredHotels, setFilteredHotels] = useState([]);
+  // Every hotel matching the filters, from /hotels/search; null while no filter is set
+  const [searchResults, setSearchResults] = useState(null);
+  const [searching, setSearching] = useState(false);
   const [filters, setFilters] = useState({
     location: '',
     priceRange: [0, 10000],
@@ -35,9 +39,48 @@ const HotelList = () => {
     loadHotels();
   }, []);
 
+  // The catalog arrives a page at a time, so filters go to the search endpoint,
+  // which matches across every hotel, rather than over the pages loaded so far
+  const isFiltered = filters.location.trim() !== '' || filters.rating > 0
+    || filters.priceRange[0] > 0 || filters.priceRange[1] < 10000;
+  // Price and name order only mean something once every hotel is on the page
+  const partialCatalog = !isFiltered && hasMoreHotels;
+
+  useEffect(() => {
+    if (!isFiltered) {
+      setSearchResults(null);
+      setSearching(false);
+      return;
+    }
+    let cancelled = false;
+    setSearching(true);
+    const timer = setTimeout(async () => {
+      const result = await searchHotels({
+        location: filters.location.trim(),
+        minPrice: filters.priceRange[0] > 0 ? filters.priceRange[0] : null,
+        maxPrice: filters.priceRange[1] < 10000 ? filters.priceRange[1] : null,
+        minRating: filters.rating > 0 ? filters.rating : null
+      });
+      if (!cancelled) {
+        setSearchResults(result.success && Array.isArray(result.data) ? result.data : []);
+        setSearching(false);
+      }
+    }, 300);
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
+  }, [filters.location, filters.rating, filters.priceRange[0], filters.priceRange[1]]);
+
+  useEffect(() => {
+    if (partialCatalog && ['price-low', 'price-high', 'name'].includes(filters.sortBy)) {
+      setFilters(prev => ({ ...prev, sortBy: 'featured' }));
+    }
+  }, [partialCatalog, filters.sortBy]);
+
   useEffect(() => {
     filterAndSortHotels();
-  }, [safeHotels, filters]);
+  }, [safeHotels, searchResults, filters.sortBy]);
 
   const loadHotels = async () => {
     setLoading(true);
@@ -50,36 +93,34 @@ const HotelList = () => {
     }
   };
 
-  const filterAndSortHotels = () => {
-    let result = [...safeHotels];
-
-    // Filter by location
-    if (filters.location) {
-      result = result.filter(hotel =>
-        hotel?.address?.toLowerCase().includes(filters.location.toLowerCase()) ||
-        hotel?.city?.toLowerCase().includes(filters.location.toLowerCase()) ||
-        hotel?.name?.toLowerCase().includes(filters.location.toLowerCase())
-      );
+  const loadMoreHotels = async () => {
+    setLoadingMore(true);
+    try {
+      await fetchMoreHotels();
+    } catch (error) {
+      console.error('Error loading more hotels:', error);
+    } finally {
+      setLoadingMore(false);
     }
+  };
 
-    // Filter by rating
-    if (filters.rating > 0) {
-      result = result.filter(hotel => (hotel?.rating || 0) >= filters.rating);
-    }
+  const filterAndSortHotels = () => {
+    // Filtering happened on the server; sorting is only offered over complete lists
+    let result = [...(searchResults ?? safeHotels)];
 
     // Sort hotels
     switch (filters.sortBy) {
       case 'price-low':
         result.sort((a, b) => {
-          const priceA = a?.rooms?.[0]?.pricePerNight || 0;
-          const priceB = b?.rooms?.[0]?.pricePerNight || 0;
+          const priceA = getMinPrice(a);
+          const priceB = getMinPrice(b);
           return priceA - priceB;
         });
         break;
       case 'price-high':
         result.sort((a, b) => {
-          const priceA = a?.rooms?.[0]?.pricePerNight || 0;
-          const priceB = b?.rooms?.[0]?.pricePerNight || 0;
+          const priceA = getMinPrice(a);
+          const priceB = getMinPrice(b);
           return priceB - priceA;
         });
         break;
@@ -103,6 +144,7 @@ const HotelList = () => {
   };
 
   const getMinPrice = (hotel) => {
+    if (hotel?.minPricePerNight) return hotel.minPricePerNight;
     if (!hotel?.rooms || hotel.rooms.length === 0) return 0;
     const prices = hotel.rooms.map(room => room.pricePerNight || 0).filter(price => price > 0);
     return prices.length > 0 ? Math.min(...prices) : 0;
@@ -463,11 +505,16 @@ const HotelList = () => {
                     className="w-full px-4 py-3 border border-gray-200 rounded-xl focus:outline-none focus:ring-2 focus:ring-blue-500 focus:border-blue-500 transition duration-200 bg-gray-50 appearance-none"
                   >
                     <option value="featured">Recommended</option>
-                    <option value="price-low">Price: Low to High</option>
-                    <option value="price-high">Price: High to Low</option>
+                    <option value="price-low" disabled={partialCatalog}>Price: Low to High</option>
+                    <option value="price-high" disabled={partialCatalog}>Price: High to Low</option>
                     <option value="rating">Top Rated</option>
-                    <option value="name">Property Name (A-Z)</option>
+                    <option value="name" disabled={partialCatalog}>Property Name (A-Z)</option>
                   </select>
+                  {partialCatalog && (
+                    <p className="text-xs text-gray-500 mt-2">
+                      Set a filter or load every hotel to sort by price or name.
+                    </p>
+                  )}
                 </div>
               </div>
             </div>
@@ -479,7 +526,9 @@ const HotelList = () => {
                 <div className="flex flex-col sm:flex-row sm:justify-between sm:items-center">
                   <div>
                     <h2 className="text-2xl font-bold text-gray-900">
-                      {filteredHotels.length} properties found
+                      {searching
+                        ? 'Searching...'
+                        : `${filteredHotels.length} properties ${partialCatalog ? 'shown, more available' : 'found'}`}
                     </h2>
                     <p className="text-gray-600 mt-1 flex items-center">
                       <svg className="w-4 h-4 mr-2" fill="none" stroke="currentColor" viewBox="0 0 24 24">
@@ -501,7 +550,7 @@ const HotelList = () => {
               </div>
 
               {/* Enhanced Hotels Grid */}
-              {filteredHotels.length === 0 ? (
+              {filteredHotels.length === 0 && !searching ? (
                 <div className="bg-white rounded-3xl shadow-xl p-16 text-center">
                   <div className="w-24 h-24 bg-gray-100 rounded-full flex items-center justify-center mx-auto mb-6">
                     <svg className="w-12 h-12 text-gray-400" fill="none" stroke="currentColor" viewBox="0 0 24 24">
@@ -632,6 +681,19 @@ const HotelList = () => {
                   ))}
                 </div>
               )}
+
+              {/* Next catalog page; search results are already complete */}
+              {hasMoreHotels && !isFiltered && (
+                <div className="text-center mt-8">
+                  <button
+                    onClick={loadMoreHotels}
+                    disabled={loadingMore}
+                    className="bg-white border-2 border-blue-600 text-blue-600 px-8 py-3 rounded-xl font-semibold hover:bg-blue-50 transition duration-200 disabled:opacity-50"
+                  >
+                    {loadingMore ? 'Loading...' : 'Load more hotels'}
+                  </button>
+                </div>
+              )}
             </div>
           </div>
         </div>